@@ -0,0 +1,353 @@
+package pacman;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active-rendering alternative to {@link Game}. A dedicated loop thread
+ * advances the game logic at the fixed rate of
+ * {@value GameClock#TICKS_PER_SECOND} ticks per second and renders frames
+ * through a {@link BufferStrategy} at an independent rate, interpolating entity
+ * positions between ticks. Frame times are recorded and
+ * shown in the bottom-right corner.
+ */
+public class ActiveGame extends Canvas implements Runnable, KeyListener {
+	private static final long serialVersionUID = 1L;
+
+	private static final long START_DELAY_NANOS = 4_000_000_000L; // Let the start music play
+	private static final int MAX_TICKS_PER_FRAME = 5; // Catch-up limit after a stall
+	private static final int STATS_REFRESH_FRAMES = 60; // Frames between stats text updates
+	private static final int REWIND_TICKS = 5 * GameClock.TICKS_PER_SECOND; // Ticks taken back by Backspace
+	private static final int REWIND_CAPACITY = 2 * REWIND_TICKS; // Ticks kept for rewinding
+	private static final Font STATS_FONT = new Font("Arial", Font.PLAIN, 12);
+
+	private final int targetFps; // Frames rendered per second
+	private final FrameStats frameStats = new FrameStats(240); // Recent frame-to-frame times
+	// Key codes from the event thread, applied by the loop thread; releases are stored as ~keyCode
+	private final ConcurrentLinkedQueue<Integer> keyEvents = new ConcurrentLinkedQueue<>();
+
+	private final GameBoard board; // Holds game objects and board state
+	private final GameController controller; // Processes game logic
+	private final SoundManager soundManager; // Controls game audio playback
+	private final GameRenderer renderer; // Draws the board, entities and UI
+	private final HighScore highScore = new HighScore(); // High score across restarts
+	private final RewindBuffer rewindBuffer; // Recent ticks that Backspace can take back
+	private long logicStartTime; // Time at which the game logic starts ticking
+	private String statsText = ""; // Frame statistics shown on screen
+	private final TickMetrics metrics = new TickMetrics(); // Timings shown by the overlay
+	private final MetricsOverlay overlay = new MetricsOverlay(metrics); // Debug overlay toggled with F3
+	private boolean overlayShown; // Whether the overlay is shown and the game measured
+	private AutoPilot autoPilot; // Bot playing in place of the player, toggled with F2, or null
+	private boolean savingReplays; // Whether finished games are saved as replays, toggled with F4
+
+	private volatile boolean running; // Whether the loop thread should keep going
+	private Thread loopThread; // Thread running the game loop
+
+	/**
+	 * Constructs the canvas and starts a new game.
+	 *
+	 * @param targetFps number of frames to render per second
+	 */
+	public ActiveGame(int targetFps) {
+		this.targetFps = targetFps;
+		board = Game.createBoard();
+		soundManager = new SoundManager();
+		controller = new GameController(board, soundManager, new GameClock(), highScore);
+		renderer = new GameRenderer(board, controller, Assets.get().sprite("heart"));
+		rewindBuffer = new RewindBuffer(new GameSnapshot(controller), REWIND_CAPACITY);
+
+		rewindBuffer.record();
+		soundManager.playStartMusic(); // Play intro music before game starts
+		logicStartTime = System.nanoTime() + START_DELAY_NANOS;
+
+		setPreferredSize(new Dimension(board.getBoardWidth(), board.getBoardHeight()));
+		setBackground(Color.BLACK);
+		setIgnoreRepaint(true); // All painting happens on the loop thread
+		addKeyListener(this);
+		setFocusable(true);
+	}
+
+	/**
+	 * Starts a new game in place on the loop thread, reusing the board,
+	 * controller, renderer and sound manager, and plays the start music again.
+	 */
+	private void restartGame() {
+		long start = System.nanoTime();
+		controller.reset();
+		if (savingReplays)
+			controller.startRecording(ThreadLocalRandom.current().nextLong());
+		renderer.setStatus("");
+		rewindBuffer.clear();
+		rewindBuffer.record();
+		metrics.setLastRestart(System.nanoTime() - start); // Shown by the overlay
+
+		soundManager.playStartMusic();
+		logicStartTime = System.nanoTime() + START_DELAY_NANOS;
+	}
+
+	/**
+	 * Creates the buffer strategy and starts the loop thread. Must be called once
+	 * the canvas is displayable, i.e. after its frame has been packed.
+	 */
+	public void start() {
+		createBufferStrategy(2);
+		running = true;
+		loopThread = new Thread(this, "game-loop");
+		loopThread.start();
+	}
+
+	/**
+	 * Stops the loop thread and waits for it to finish.
+	 */
+	public void stop() {
+		running = false;
+		if (loopThread != null) {
+			try {
+				loopThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * The game loop. Runs as many fixed logic ticks as the elapsed time calls for,
+	 * then renders one interpolated frame and sleeps until the next frame is due.
+	 * The tick length is the same at every speed level.
+	 */
+	@Override
+	public void run() {
+		BufferStrategy strategy = getBufferStrategy();
+		long frameNanos = 1_000_000_000L / targetFps;
+		long previous = System.nanoTime();
+		long nextFrame = previous;
+		long lag = 0; // Elapsed time not yet consumed by logic ticks
+		long tickNanos = GameClock.TICK_NANOS;
+
+		while (running) {
+			long now = System.nanoTime();
+			long elapsed = now - previous;
+			previous = now;
+
+			processInput();
+
+			if (now >= logicStartTime && !controller.isGameOver()) {
+				long limit = tickNanos * MAX_TICKS_PER_FRAME;
+				if (overlayShown && lag + elapsed > limit)
+					metrics.addTicksMissed((lag + elapsed - limit) / tickNanos);
+				lag = Math.min(lag + elapsed, limit);
+				while (lag >= tickNanos && !controller.isGameOver()) {
+					if (autoPilot != null)
+						autoPilot.play(controller);
+					controller.update();
+					rewindBuffer.record();
+					lag -= tickNanos;
+				}
+				if (controller.isGameOver())
+					saveReplay();
+			}
+
+			float alpha = controller.isGameOver() ? 1f : Math.min(1f, lag / (float) tickNanos);
+			render(strategy, alpha);
+
+			frameStats.record(elapsed);
+			if (frameStats.getTotalFrames() % STATS_REFRESH_FRAMES == 0)
+				updateStatsText();
+
+			// Sleep until the next frame is due, or skip ahead if we are late
+			nextFrame += frameNanos;
+			long sleep = nextFrame - System.nanoTime();
+			if (sleep > 0)
+				LockSupport.parkNanos(sleep);
+			else
+				nextFrame = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Saves the input of the finished game to the replay directory in the
+	 * background, if it was recorded, showing the file or why it could not be
+	 * written once done.
+	 */
+	private void saveReplay() {
+		InputLog log = controller.finishRecording();
+		if (log == null)
+			return;
+		renderer.setStatus("Saving replay...");
+		log.saveInBackground(InputLog.REPLAY_DIRECTORY, renderer::setStatus);
+	}
+
+	/**
+	 * Switches saving finished games as replays on or off. Recording has to start
+	 * with the game, so switching it on takes effect from the next game unless the
+	 * current one has not ticked yet. Switching it off drops the current
+	 * recording.
+	 */
+	private void toggleReplays() {
+		savingReplays = !savingReplays;
+		if (savingReplays && controller.getClock().getTick() == 0) {
+			controller.startRecording(ThreadLocalRandom.current().nextLong()); // Seeded so the game can be replayed
+			renderer.setStatus("Saving replays");
+		} else if (savingReplays) {
+			renderer.setStatus("Saving replays from the next game");
+		} else {
+			controller.finishRecording();
+			renderer.setStatus("Not saving replays");
+		}
+	}
+
+	/**
+	 * Takes the game back by {@link #REWIND_TICKS}, also out of a game over. The
+	 * input log no longer describes the game, so it is dropped rather than saved.
+	 */
+	private void rewind() {
+		int ticks = rewindBuffer.rewind(REWIND_TICKS);
+		if (ticks == 0)
+			return;
+		if (controller.finishRecording() != null)
+			renderer.setStatus("Rewound; this game will not be saved as a replay");
+	}
+
+	/**
+	 * Applies key events queued by the event thread. Enter restarts the game once
+	 * it is over, Backspace rewinds it, F2 toggles the autopilot, F3 the metrics
+	 * overlay and F4 saving replays.
+	 */
+	private void processInput() {
+		Integer event;
+		while ((event = keyEvents.poll()) != null) {
+			int code = event;
+			if (code >= 0) {
+				if (code == KeyEvent.VK_ENTER && controller.isGameOver())
+					restartGame();
+				else if (code == KeyEvent.VK_BACK_SPACE)
+					rewind();
+				else if (code == KeyEvent.VK_F2)
+					toggleAutoPilot();
+				else if (code == KeyEvent.VK_F3)
+					toggleOverlay();
+				else if (code == KeyEvent.VK_F4)
+					toggleReplays();
+				else
+					controller.onKeyPress(code);
+			} else {
+				controller.onKeyRelease(~code);
+			}
+		}
+	}
+
+	/**
+	 * Shows or hides the metrics overlay. The game is only measured while it is
+	 * shown.
+	 */
+	private void toggleOverlay() {
+		overlayShown = !overlayShown;
+		controller.setMetrics(overlayShown ? metrics : null);
+		if (overlayShown)
+			overlay.restart();
+	}
+
+	/**
+	 * Hands Pacman to the autopilot, or back to the player.
+	 */
+	private void toggleAutoPilot() {
+		if (autoPilot == null) {
+			autoPilot = new AutoPilot(board);
+		} else {
+			autoPilot.release(controller);
+			autoPilot = null;
+		}
+	}
+
+	/**
+	 * Draws one frame into the back buffer and shows it, redrawing if the buffer
+	 * contents were lost in the meantime.
+	 */
+	private void render(BufferStrategy strategy, float alpha) {
+		int width = getWidth();
+		int height = getHeight();
+		do {
+			do {
+				Graphics g = strategy.getDrawGraphics();
+				g.setColor(Color.BLACK);
+				g.fillRect(0, 0, width, height);
+				long start = overlayShown ? System.nanoTime() : 0;
+				renderer.render(g, width, height, board.getSpeedLevel(), alpha);
+				if (overlayShown) {
+					metrics.record(TickMetrics.RENDER, System.nanoTime() - start);
+					overlay.draw(g);
+				}
+
+				g.setFont(STATS_FONT);
+				g.setColor(Color.GRAY);
+				g.drawString(statsText, width - g.getFontMetrics().stringWidth(statsText) - 10, height - 10);
+				if (controller.isGameOver()) {
+					String message = "Press Enter to restart";
+					g.setColor(Color.WHITE);
+					g.drawString(message, (width - g.getFontMetrics().stringWidth(message)) / 2, height / 2 + 30);
+				}
+				g.dispose();
+			} while (strategy.contentsRestored());
+			strategy.show();
+		} while (strategy.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+	/**
+	 * Refreshes the on-screen frame statistics.
+	 */
+	private void updateStatsText() {
+		statsText = String.format("%.0f fps  avg %.1f ms  p99 %.1f ms  max %.1f ms", frameStats.getFramesPerSecond(),
+				frameStats.getAverageNanos() / 1e6, frameStats.getPercentileNanos(0.99) / 1e6,
+				frameStats.getMaxNanos() / 1e6);
+
+		AudioMixer mixer = soundManager.getMixer();
+		if (mixer != null)
+			statsText += String.format("  audio p99 %.1f ms  %d underruns", mixer.getLatencyP99Micros() / 1e3,
+					mixer.getUnderruns());
+	}
+
+	/**
+	 * Gets the recorded frame-time statistics.
+	 *
+	 * @return the FrameStats of this canvas
+	 */
+	public FrameStats getFrameStats() {
+		return frameStats;
+	}
+
+	/**
+	 * Queues a key press for the loop thread.
+	 *
+	 * @param e the KeyEvent triggered by pressing a key
+	 */
+	@Override
+	public void keyPressed(KeyEvent e) {
+		keyEvents.add(e.getKeyCode());
+	}
+
+	/**
+	 * Queues a key release for the loop thread.
+	 *
+	 * @param e the KeyEvent triggered by releasing a key
+	 */
+	@Override
+	public void keyReleased(KeyEvent e) {
+		keyEvents.add(~e.getKeyCode());
+	}
+
+	/**
+	 * Handles key typed events. Not used.
+	 *
+	 * @param e the KeyEvent triggered by typing a key
+	 */
+	@Override
+	public void keyTyped(KeyEvent e) {
+		// not used
+	}
+}
@@ -0,0 +1,88 @@
+package pacman;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import javax.swing.JFrame;
+
+/**
+ * Main application class for the Pac Man game. Sets up the JFrame and
+ * initialises the game. Pass {@code --active [fps]} to use the active-rendering
+ * canvas instead of the Swing timer panel, or {@code --connect host[:port]
+ * [room]} to play a room of a {@link GameServer}.
+ */
+public class App {
+
+	/**
+	 * The main method initialises the game window.
+	 */
+	public static void main(String[] args) {
+		long start = System.nanoTime();
+		Assets.preload(); // Load images and sounds while the window is set up
+
+		// setup the JFrame for the game window
+		JFrame frame = new JFrame("Pac Man");
+		frame.setResizable(false);
+		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+		if (args.length > 0 && args[0].equals("--active")) {
+			int fps = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+			ActiveGame activeGame = new ActiveGame(fps);
+			frame.add(activeGame);
+
+			frame.pack();
+			frame.setLocationRelativeTo(null);
+			frame.setVisible(true);
+			activeGame.requestFocus();
+			activeGame.start(); // Needs a displayable canvas for its buffer strategy
+			printStartTime(start);
+			return;
+		}
+
+		Game pacmanGame;
+		if (args.length > 0 && args[0].equals("--connect")) {
+			try {
+				pacmanGame = new Game(parseAddress(args.length > 1 ? args[1] : "localhost"),
+						args.length > 2 ? Integer.parseInt(args[2]) : 0);
+			} catch (IOException e) {
+				System.err.println("Cannot connect to the game server: " + e.getMessage());
+				System.exit(1);
+				return;
+			}
+		} else {
+			pacmanGame = new Game();
+		}
+		frame.add(pacmanGame);
+
+		frame.pack();
+		frame.setLocationRelativeTo(null);
+		pacmanGame.requestFocus();
+		frame.setVisible(true);
+		printStartTime(start);
+	}
+
+	/**
+	 * Parses a server address of the form host or host:port.
+	 *
+	 * @param address the address
+	 * @return the socket address, on {@link GameServer#DEFAULT_PORT} if none is
+	 *         given
+	 */
+	private static InetSocketAddress parseAddress(String address) {
+		int colon = address.lastIndexOf(':');
+		if (colon < 0)
+			return new InetSocketAddress(address, GameServer.DEFAULT_PORT);
+		return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+	}
+
+	/**
+	 * Prints how long the game took to start and to load its assets.
+	 *
+	 * @param start System.nanoTime() at which main was entered
+	 */
+	private static void printStartTime(long start) {
+		System.out.printf("Started in %.1f ms (assets loaded in %.1f ms)%n", (System.nanoTime() - start) / 1e6,
+				Assets.get().getLoadNanos() / 1e6);
+	}
+
+}
@@ -0,0 +1,133 @@
+package pacman;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Writes procedurally built arenas in the map file format of {@link MapLoader},
+ * for stressing the engine with mazes far larger than the classic one. An arena
+ * is a border of walls around a lattice of pillars on every even row and
+ * column, with a random share of the gaps between pillars walled up. Every
+ * other tile holds a pellet, one in a hundred a power pellet. Pacman starts
+ * near the centre and the ghosts on random corridor crossings. The same seed
+ * always writes the same arena.
+ * <p>
+ * Usage: {@code java pacman.ArenaGenerator columns rows ghosts seed file}
+ */
+public final class ArenaGenerator {
+	private static final double GAP_WALL_CHANCE = 0.25; // Share of gaps between pillars that are walled up
+	private static final int POWER_PELLET_ODDS = 100; // One pellet in this many is a power pellet
+	private static final char[] GHOST_KINDS = { 'r', 'p', 'b', 'o' };
+
+	/**
+	 * Not instantiable.
+	 */
+	private ArenaGenerator() {
+	}
+
+	/**
+	 * The main method writes an arena to the given file.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 5) {
+			System.err.println("Usage: java pacman.ArenaGenerator columns rows ghosts seed file");
+			System.exit(2);
+		}
+		int columns = Integer.parseInt(args[0]);
+		int rows = Integer.parseInt(args[1]);
+		int ghosts = Integer.parseInt(args[2]);
+		long seed = Long.parseLong(args[3]);
+		write(Paths.get(args[4]), columns, rows, ghosts, seed);
+	}
+
+	/**
+	 * Writes an arena to a file.
+	 *
+	 * @param path    the file to write
+	 * @param columns number of tile columns, at least 5
+	 * @param rows    number of tile rows, at least 5
+	 * @param ghosts  number of ghosts
+	 * @param seed    seed of the layout
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(Path path, int columns, int rows, int ghosts, long seed) throws IOException {
+		try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+			write(out, columns, rows, ghosts, seed);
+		}
+	}
+
+	/**
+	 * Writes an arena row by row to a writer, which is not closed.
+	 *
+	 * @param out     where the map text goes
+	 * @param columns number of tile columns, at least 5
+	 * @param rows    number of tile rows, at least 5
+	 * @param ghosts  number of ghosts
+	 * @param seed    seed of the layout
+	 * @throws IOException if writing fails
+	 */
+	public static void write(Writer out, int columns, int rows, int ghosts, long seed) throws IOException {
+		if (columns < 5 || rows < 5)
+			throw new IllegalArgumentException("An arena needs at least 5 x 5 tiles");
+		if ((long) columns * rows > MapLoader.MAX_TILES)
+			throw new IllegalArgumentException("An arena may have at most " + MapLoader.MAX_TILES + " tiles");
+
+		// Crossings are the tiles on odd rows and columns inside the border
+		int crossingRows = (rows - 1) / 2;
+		int crossingColumns = (columns - 1) / 2;
+		if (ghosts >= crossingRows * crossingColumns)
+			throw new IllegalArgumentException("Too many ghosts for the arena");
+
+		SplittableRandom random = new SplittableRandom(seed);
+		int pacmanRow = (crossingRows / 2) * 2 + 1;
+		int pacmanColumn = (crossingColumns / 2) * 2 + 1;
+		BitSet ghostTiles = new BitSet(); // Tile index of each ghost's crossing
+		ghostTiles.set(pacmanRow * columns + pacmanColumn); // Reserved until the ghosts are placed
+		for (int placed = 0; placed < ghosts; placed++) {
+			int tile;
+			do {
+				tile = (random.nextInt(crossingRows) * 2 + 1) * columns + random.nextInt(crossingColumns) * 2 + 1;
+			} while (ghostTiles.get(tile));
+			ghostTiles.set(tile);
+		}
+		ghostTiles.clear(pacmanRow * columns + pacmanColumn);
+
+		out.write("# Arena " + columns + " x " + rows + ", " + ghosts + " ghosts, seed " + seed + "\n");
+		out.write(columns + " " + rows + "\n");
+		char[] line = new char[columns + 1];
+		line[columns] = '\n';
+		int ghost = 0;
+		for (int row = 0; row < rows; row++) {
+			for (int column = 0; column < columns; column++) {
+				line[column] = tile(row, column, rows, columns, random);
+				if (row == pacmanRow && column == pacmanColumn)
+					line[column] = 'P';
+				else if (ghostTiles.get(row * columns + column))
+					line[column] = GHOST_KINDS[ghost++ % GHOST_KINDS.length];
+			}
+			out.write(line);
+		}
+	}
+
+	/**
+	 * Picks the character of one tile of the lattice.
+	 */
+	private static char tile(int row, int column, int rows, int columns, SplittableRandom random) {
+		if (row == 0 || column == 0 || row == rows - 1 || column == columns - 1)
+			return 'X'; // Border
+		boolean evenRow = row % 2 == 0;
+		boolean evenColumn = column % 2 == 0;
+		if (evenRow && evenColumn)
+			return 'X'; // Pillar
+		if ((evenRow || evenColumn) && random.nextDouble() < GAP_WALL_CHANCE)
+			return 'X'; // Walled-up gap between two pillars
+		return random.nextInt(POWER_PELLET_ODDS) == 0 ? '.' : ' ';
+	}
+}
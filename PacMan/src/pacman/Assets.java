@@ -0,0 +1,204 @@
+package pacman;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide cache of the game's images and sounds. Everything is loaded
+ * once, in parallel on a small worker pool, and shared by every game created
+ * afterwards. Sprites are scaled to the size they are drawn at and packed into
+ * a single atlas image, so drawing one copies pixels without scaling.
+ */
+public class Assets {
+	// Sprite names (files in /res/assets) and the size in pixels each is drawn at:
+	// a tile for the board's sprites, the HUD's size for the heart
+	private static final String[] SPRITES = { "wall", "blueGhost", "orangeGhost", "pinkGhost", "redGhost",
+			"pacmanUp", "pacmanDown", "pacmanLeft", "pacmanRight", "scaredGhost", "heart" };
+	private static final int TILE = GameMap.TILE_SIZE;
+	private static final int[] SPRITE_SIZES = { TILE, TILE, TILE, TILE, TILE, TILE, TILE, TILE, TILE, TILE,
+			GameRenderer.HEART_SIZE };
+	// Sound names (files in /res/sounds)
+	private static final String[] SOUNDS = { "start_music", "pellet_sound", "life_lost", "success", "game_over" };
+
+	private static CompletableFuture<Assets> shared; // Assets of this process, once loading has started
+
+	private final HashMap<String, BufferedImage> sprites = new HashMap<>(); // Views into the atlas
+	private final HashMap<String, short[]> sounds = new HashMap<>(); // Decoded PCM per sound
+	private final BufferedImage atlas; // All sprites side by side
+	private final long loadNanos; // Time from the start of loading until the atlas was packed
+
+	/**
+	 * Packs the loaded images into the atlas and keeps the decoded sounds.
+	 */
+	private Assets(BufferedImage[] images, short[][] pcm, long startNanos) {
+		int width = 0;
+		int height = 0;
+		for (int size : SPRITE_SIZES) {
+			width += size;
+			height = Math.max(height, size);
+		}
+
+		atlas = BoardRenderer.createLayer(width, height);
+		Graphics g = atlas.createGraphics();
+		int x = 0;
+		for (int i = 0; i < SPRITES.length; i++) {
+			int size = SPRITE_SIZES[i];
+			g.drawImage(images[i], x, 0, size, size, null); // Scaled as drawImage would each frame
+			sprites.put(SPRITES[i], atlas.getSubimage(x, 0, size, size));
+			x += size;
+		}
+		g.dispose();
+
+		for (int i = 0; i < SOUNDS.length; i++)
+			sounds.put(SOUNDS[i], pcm[i]);
+		loadNanos = System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * Gets the names of the sprites, each loaded from /res/assets/name.png.
+	 *
+	 * @return the sprite names, in loading order
+	 */
+	public static List<String> getSpriteNames() {
+		return List.of(SPRITES);
+	}
+
+	/**
+	 * Gets the names of the sounds, each loaded from /res/sounds/name.wav.
+	 *
+	 * @return the sound names, in loading order
+	 */
+	public static List<String> getSoundNames() {
+		return List.of(SOUNDS);
+	}
+
+	/**
+	 * Starts loading the shared assets in the background if that has not happened
+	 * yet. Call as early as possible so loading overlaps with other start-up work.
+	 *
+	 * @return the shared assets, once loaded
+	 */
+	public static synchronized CompletableFuture<Assets> preload() {
+		if (shared == null)
+			shared = load(Math.min(Runtime.getRuntime().availableProcessors(), 4));
+		return shared;
+	}
+
+	/**
+	 * Gets the shared assets, waiting for them to finish loading.
+	 *
+	 * @return the shared assets
+	 */
+	public static Assets get() {
+		return preload().join();
+	}
+
+	/**
+	 * Loads a fresh, unshared set of assets on a pool of the given size.
+	 *
+	 * @param threads number of worker threads
+	 * @return the assets, once loaded
+	 */
+	public static CompletableFuture<Assets> load(int threads) {
+		long start = System.nanoTime();
+		ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "asset-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		BufferedImage[] images = new BufferedImage[SPRITES.length];
+		short[][] pcm = new short[SOUNDS.length][];
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[SPRITES.length + SOUNDS.length];
+		for (int i = 0; i < SPRITES.length; i++) {
+			int index = i;
+			tasks[i] = CompletableFuture
+					.runAsync(() -> images[index] = readImage("/res/assets/" + SPRITES[index] + ".png"), pool);
+		}
+		for (int i = 0; i < SOUNDS.length; i++) {
+			int index = i;
+			tasks[SPRITES.length + i] = CompletableFuture
+					.runAsync(() -> pcm[index] = readSound("/res/sounds/" + SOUNDS[index] + ".wav"), pool);
+		}
+
+		return CompletableFuture.allOf(tasks).thenApply(done -> new Assets(images, pcm, start))
+				.whenComplete((assets, error) -> pool.shutdown());
+	}
+
+	/**
+	 * Reads an image resource, decoded completely before returning.
+	 */
+	private static BufferedImage readImage(String path) {
+		try {
+			return ImageIO.read(Assets.class.getResource(path));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot read " + path, e);
+		}
+	}
+
+	/**
+	 * Reads a sound resource as PCM in the mixer's format.
+	 */
+	private static short[] readSound(String path) {
+		try {
+			return AudioMixer.decode(path);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot read " + path, e);
+		} catch (UnsupportedAudioFileException e) {
+			throw new IllegalStateException("Cannot decode " + path, e);
+		}
+	}
+
+	/**
+	 * Gets a sprite, already scaled to the size it is drawn at.
+	 *
+	 * @param name file name of the sprite in /res/assets, without extension
+	 * @return a view of the sprite in the atlas
+	 */
+	public Image sprite(String name) {
+		Image sprite = sprites.get(name);
+		if (sprite == null)
+			throw new IllegalArgumentException("Unknown sprite: " + name);
+		return sprite;
+	}
+
+	/**
+	 * Gets a decoded sound.
+	 *
+	 * @param name file name of the sound in /res/sounds, without extension
+	 * @return interleaved 16-bit stereo samples in {@link AudioMixer#FORMAT}
+	 */
+	public short[] sound(String name) {
+		short[] pcm = sounds.get(name);
+		if (pcm == null)
+			throw new IllegalArgumentException("Unknown sound: " + name);
+		return pcm;
+	}
+
+	/**
+	 * Gets the atlas image holding every sprite.
+	 *
+	 * @return the atlas
+	 */
+	public BufferedImage getAtlas() {
+		return atlas;
+	}
+
+	/**
+	 * Gets the time it took to load and pack these assets.
+	 *
+	 * @return the load time in nanoseconds
+	 */
+	public long getLoadNanos() {
+		return loadNanos;
+	}
+}
@@ -0,0 +1,339 @@
+package pacman;
+
+import javax.sound.sampled.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Software mixer that plays every game sound through a single
+ * {@link SourceDataLine} on its own thread. Sounds are decoded to 16-bit PCM
+ * when they are loaded, so playing one only starts a voice that reads from
+ * memory. Several voices of the same sound can overlap. Game threads trigger
+ * sounds through a lock-free {@link PlayEventQueue} and never call the audio
+ * API themselves. The mixer measures the time from trigger to output and
+ * counts buffer underruns.
+ */
+public class AudioMixer implements Runnable {
+	/** Output format: 44.1 kHz, 16-bit signed little-endian stereo. */
+	public static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+	private static final int CHANNELS = 2;
+	private static final int FRAME_BYTES = 4;
+	private static final int PERIOD_FRAMES = 256; // Frames mixed per write, about 5.8 ms
+	private static final int LINE_PERIODS = 3; // Periods buffered in the line
+	private static final int MAX_VOICES = 16; // Voices mixed at the same time
+
+	private final ArrayList<short[]> samples = new ArrayList<>(); // Interleaved PCM of each sound
+	private final ArrayList<Integer> polyphony = new ArrayList<>(); // Voices each sound may use at once
+	private final PlayEventQueue events = new PlayEventQueue(256); // Pending triggers from game threads
+
+	// Active voices, touched only by the mixer thread
+	private final int[] voiceSound = new int[MAX_VOICES]; // Sound of each voice, -1 if idle
+	private final int[] voicePosition = new int[MAX_VOICES]; // Next sample index of each voice
+	private final long[] voiceStart = new long[MAX_VOICES]; // Order in which voices started
+	private long voicesStarted; // Number of voices started so far
+
+	private final int[] mixBuffer = new int[PERIOD_FRAMES * CHANNELS]; // Sum of all voices before clipping
+	private final byte[] outputBuffer = new byte[PERIOD_FRAMES * FRAME_BYTES]; // Clipped PCM for the line
+
+	private final Histogram latency = new Histogram(250, 200); // Trigger-to-output latency in us
+	private final AtomicLong underruns = new AtomicLong(); // Times the line ran dry before a write
+	// Latency summary published by the mixer thread for other threads
+	private volatile long latencyP50Micros;
+	private volatile long latencyP99Micros;
+	private volatile long latencyMaxMicros;
+	private volatile long latencyCount;
+
+	private SourceDataLine line; // Output line, opened by start()
+	private volatile boolean running; // Whether the mixer thread should keep going
+	private Thread thread; // Thread mixing and writing audio
+
+	/**
+	 * Constructs a mixer with no sounds loaded and no line open.
+	 */
+	public AudioMixer() {
+		for (int i = 0; i < MAX_VOICES; i++)
+			voiceSound[i] = -1;
+	}
+
+	/**
+	 * Registers a decoded sound. Must be called before {@link #start()}.
+	 *
+	 * @param pcm       interleaved stereo samples
+	 * @param maxVoices number of voices of this sound that may play at once
+	 * @return the id used to play the sound
+	 */
+	public int add(short[] pcm, int maxVoices) {
+		samples.add(pcm);
+		polyphony.add(maxVoices);
+		return samples.size() - 1;
+	}
+
+	/**
+	 * Decodes a WAV resource to PCM in the mixer's format.
+	 *
+	 * @param path resource path of the sound file
+	 * @return interleaved stereo samples
+	 * @throws UnsupportedAudioFileException If the audio format is unsupported.
+	 * @throws IOException                   If there is an I/O error.
+	 */
+	public static short[] decode(String path) throws UnsupportedAudioFileException, IOException {
+		try (AudioInputStream source = AudioSystem.getAudioInputStream(AudioMixer.class.getResource(path));
+				AudioInputStream pcm = AudioSystem.getAudioInputStream(FORMAT, source)) {
+			return decode(pcm);
+		}
+	}
+
+	/**
+	 * Reads a whole stream of 16-bit little-endian PCM into samples.
+	 */
+	private static short[] decode(InputStream in) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		in.transferTo(bytes);
+		byte[] data = bytes.toByteArray();
+
+		short[] pcm = new short[data.length / 2];
+		for (int i = 0; i < pcm.length; i++)
+			pcm[i] = (short) ((data[2 * i] & 0xFF) | (data[2 * i + 1] << 8));
+		return pcm;
+	}
+
+	/**
+	 * Opens the output line and starts the mixer thread.
+	 *
+	 * @throws LineUnavailableException If no line in the mixer's format can be
+	 *                                  opened.
+	 */
+	public void start() throws LineUnavailableException {
+		line = AudioSystem.getSourceDataLine(FORMAT);
+		line.open(FORMAT, PERIOD_FRAMES * FRAME_BYTES * LINE_PERIODS);
+		line.start();
+
+		running = true;
+		thread = new Thread(this, "audio-mixer");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		thread.start();
+	}
+
+	/**
+	 * Stops the mixer thread and closes the line.
+	 */
+	public void close() {
+		running = false;
+		if (thread != null) {
+			try {
+				thread.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			thread = null;
+		}
+	}
+
+	/**
+	 * Requests a sound to be played. Only queues the request, so it is safe and
+	 * cheap to call from the game tick.
+	 *
+	 * @param sound id returned by {@link #add(short[], int)}
+	 * @return false if the request was dropped because the queue was full
+	 */
+	public boolean play(int sound) {
+		return events.offer(sound, System.nanoTime());
+	}
+
+	/**
+	 * Mixer loop: starts the voices of pending events, mixes one period and
+	 * writes it to the line. The write blocks while the line is full, which paces
+	 * the loop to the output rate. Silence is written when nothing plays, so the
+	 * line never has to restart.
+	 */
+	@Override
+	public void run() {
+		int lineBytes = line.getBufferSize();
+		boolean primed = false; // Whether anything has been written yet
+		while (running) {
+			if (primed && line.available() >= lineBytes)
+				underruns.incrementAndGet(); // Everything written before has already played
+
+			// Audio of this period starts after everything still buffered in the line
+			long bufferedNanos = (lineBytes - line.available()) / FRAME_BYTES * 1_000_000_000L
+					/ (long) FORMAT.getFrameRate();
+			long outputTime = System.nanoTime() + bufferedNanos;
+			startPending(outputTime);
+
+			mix(outputBuffer, PERIOD_FRAMES);
+			line.write(outputBuffer, 0, outputBuffer.length);
+			primed = true;
+		}
+		line.stop();
+		line.close();
+	}
+
+	/**
+	 * Starts a voice for every queued event and records its latency.
+	 *
+	 * @param outputTime System.nanoTime() at which the next mixed period will be
+	 *                   heard
+	 */
+	void startPending(long outputTime) {
+		boolean recorded = false;
+		while (events.poll()) {
+			int sound = events.polledSound();
+			if (sound < 0 || sound >= samples.size())
+				continue;
+
+			startVoice(sound);
+			latency.record((outputTime - events.polledTime()) / 1000);
+			recorded = true;
+		}
+
+		if (recorded) {
+			latencyP50Micros = latency.getPercentile(0.5);
+			latencyP99Micros = latency.getPercentile(0.99);
+			latencyMaxMicros = latency.getMax();
+			latencyCount = latency.getCount();
+		}
+	}
+
+	/**
+	 * Starts a voice for the sound. If the sound already uses all of its voices, or
+	 * every voice is busy, the oldest suitable voice is restarted instead.
+	 */
+	private void startVoice(int sound) {
+		int free = -1;
+		int oldestOfSound = -1;
+		int oldest = 0;
+		int playing = 0;
+		for (int v = 0; v < MAX_VOICES; v++) {
+			if (voiceSound[v] < 0) {
+				if (free < 0)
+					free = v;
+				continue;
+			}
+			if (voiceSound[v] == sound) {
+				playing++;
+				if (oldestOfSound < 0 || voiceStart[v] < voiceStart[oldestOfSound])
+					oldestOfSound = v;
+			}
+			if (voiceStart[v] < voiceStart[oldest] || voiceSound[oldest] < 0)
+				oldest = v;
+		}
+
+		int voice;
+		if (playing >= polyphony.get(sound))
+			voice = oldestOfSound;
+		else
+			voice = free >= 0 ? free : oldest;
+
+		voiceSound[voice] = sound;
+		voicePosition[voice] = 0;
+		voiceStart[voice] = voicesStarted++;
+	}
+
+	/**
+	 * Mixes the active voices into 16-bit little-endian PCM, clipping the sum to
+	 * the sample range. Voices that reach the end of their sound become idle.
+	 *
+	 * @param out    buffer receiving frames * 4 bytes
+	 * @param frames number of stereo frames to mix
+	 */
+	void mix(byte[] out, int frames) {
+		int length = frames * CHANNELS;
+		for (int i = 0; i < length; i++)
+			mixBuffer[i] = 0;
+
+		for (int v = 0; v < MAX_VOICES; v++) {
+			int sound = voiceSound[v];
+			if (sound < 0)
+				continue;
+
+			short[] pcm = samples.get(sound);
+			int position = voicePosition[v];
+			int count = Math.min(length, pcm.length - position);
+			for (int i = 0; i < count; i++)
+				mixBuffer[i] += pcm[position + i];
+
+			voicePosition[v] = position + count;
+			if (voicePosition[v] >= pcm.length)
+				voiceSound[v] = -1;
+		}
+
+		for (int i = 0; i < length; i++) {
+			int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixBuffer[i]));
+			out[2 * i] = (byte) sample;
+			out[2 * i + 1] = (byte) (sample >> 8);
+		}
+	}
+
+	/**
+	 * Gets the number of voices currently playing.
+	 *
+	 * @return the active voice count
+	 */
+	int getActiveVoices() {
+		int active = 0;
+		for (int v = 0; v < MAX_VOICES; v++) {
+			if (voiceSound[v] >= 0)
+				active++;
+		}
+		return active;
+	}
+
+	/**
+	 * Gets the median trigger-to-output latency.
+	 *
+	 * @return the latency in microseconds, estimated from 250 us buckets
+	 */
+	public long getLatencyP50Micros() {
+		return latencyP50Micros;
+	}
+
+	/**
+	 * Gets the 99th percentile of the trigger-to-output latency.
+	 *
+	 * @return the latency in microseconds, estimated from 250 us buckets
+	 */
+	public long getLatencyP99Micros() {
+		return latencyP99Micros;
+	}
+
+	/**
+	 * Gets the largest trigger-to-output latency measured.
+	 *
+	 * @return the latency in microseconds
+	 */
+	public long getLatencyMaxMicros() {
+		return latencyMaxMicros;
+	}
+
+	/**
+	 * Gets the number of sounds played so far.
+	 *
+	 * @return the count of triggers that reached the mixer
+	 */
+	public long getPlayed() {
+		return latencyCount;
+	}
+
+	/**
+	 * Gets the number of times the line ran out of audio before the mixer wrote
+	 * the next period.
+	 *
+	 * @return the underrun count
+	 */
+	public long getUnderruns() {
+		return underruns.get();
+	}
+
+	/**
+	 * Gets the number of play requests dropped because the event queue was full.
+	 *
+	 * @return the dropped request count
+	 */
+	public long getDropped() {
+		return events.getDropped();
+	}
+}
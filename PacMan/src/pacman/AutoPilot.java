@@ -0,0 +1,315 @@
+package pacman;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Built-in bot that steers Pacman through the arrow keys, like a human player,
+ * for demos, soak tests and benchmarks. It heads for the nearest pellet it can
+ * reach without passing within {@value #DANGER_RADIUS} tiles of a ghost that is
+ * neither frightened nor respawning, and flees from the closest such ghost when
+ * every pellet is cut off.
+ * <p>
+ * The path is planned with a breadth-first search over the tiles and then
+ * cached. Each turn only checks what could spoil it: whether the target pellet
+ * has been eaten, whether Pacman left the path, whether a ghost turned
+ * dangerous or harmless, and whether a dangerous ghost stands on the part of
+ * the path still ahead, which a per-tile stamp answers without a scan. Only
+ * then is the path planned again. Nothing is allocated after construction.
+ */
+public class AutoPilot implements SimulatedPlayer {
+	private static final int DANGER_RADIUS = 2; // Tiles around a dangerous ghost the path avoids
+	private static final int[] KEYS = { KeyEvent.VK_UP, KeyEvent.VK_LEFT, KeyEvent.VK_DOWN, KeyEvent.VK_RIGHT };
+
+	private final GameBoard board; // Board whose Pacman is steered
+	private final int tileSize;
+	private final int rows;
+	private final int columns;
+	private final int[] neighbours; // Neighbour tile per tile and direction index, shared with the map
+
+	// Search state, reused by every plan; a tile is marked when its stamp equals the current one
+	private final int[] queue; // Tiles waiting to be expanded
+	private final int[] visited; // Search stamp of the tiles reached
+	private final int[] cameFrom; // Direction index of the step that reached each tile
+	private final int[] danger; // Search stamp of the tiles near a dangerous ghost
+	private int stamp; // Current search stamp
+
+	// The cached plan
+	private final int[] path; // Tiles from Pacman to the target
+	private final int[] pathIndex; // Position of each tile on the path, valid where onPath holds the stamp
+	private final int[] onPath; // Search stamp of the plan each tile is on
+	private int pathLength; // Tiles on the path
+	private int position; // Index of the tile Pacman is heading for
+	private int target = -1; // Tile of the target pellet, or -1 to plan again next turn
+	private int dangerousGhosts; // Ghosts that were dangerous when the path was planned
+	private long plans; // Number of paths planned
+
+	/**
+	 * Constructs a bot for the Pacman of the given board.
+	 *
+	 * @param board the board to play on
+	 */
+	public AutoPilot(GameBoard board) {
+		this.board = board;
+		GameMap map = board.getMap();
+		this.tileSize = board.getTileSize();
+		this.rows = map.getRows();
+		this.columns = map.getColumns();
+		this.neighbours = map.getNeighbours();
+
+		int tiles = rows * columns;
+
+		queue = new int[tiles];
+		visited = new int[tiles];
+		cameFrom = new int[tiles];
+		danger = new int[tiles];
+		path = new int[tiles];
+		pathIndex = new int[tiles];
+		onPath = new int[tiles];
+	}
+
+	/**
+	 * Holds the key of the next step on the cached path, planning a new path
+	 * first if the cached one is no longer good.
+	 *
+	 * @param controller the controller receiving the key events
+	 */
+	@Override
+	public void play(GameController controller) {
+		int tile = headingTile(EntityStore.PACMAN);
+		if (!followPath(tile))
+			plan(tile);
+		hold(controller, position + 1 < pathLength ? MazeDistances.DIRECTIONS[stepDirection(position)]
+				: board.getEntities().getDirection(EntityStore.PACMAN));
+	}
+
+	/**
+	 * Releases the key the bot holds, for handing the game back to a human.
+	 *
+	 * @param controller the controller receiving the key events
+	 */
+	public void release(GameController controller) {
+		hold(controller, ' ');
+		target = -1;
+	}
+
+	/**
+	 * Advances along the cached path to the tile Pacman is heading for and checks
+	 * that the path is still good.
+	 *
+	 * @return false if a new path has to be planned
+	 */
+	private boolean followPath(int tile) {
+		if (target < 0 || board.getPellets().isConsumed(target))
+			return false;
+		if (tile != path[position]) {
+			if (position + 1 < pathLength && tile == path[position + 1])
+				position++;
+			else
+				return false; // Pacman left the path, e.g. after losing a life
+		}
+
+		EntityStore entities = board.getEntities();
+		int dangerous = 0;
+		for (int i = EntityStore.FIRST_GHOST; i < entities.getCount(); i++) {
+			if (!isDangerous(entities, i))
+				continue;
+			dangerous++;
+			int ghost = centreTile(i);
+			if (onPath[ghost] == stamp && pathIndex[ghost] >= position)
+				return false; // A ghost moved onto the path ahead
+		}
+		return dangerous == dangerousGhosts;
+	}
+
+	/**
+	 * Plans a path from the given tile to the nearest pellet that avoids the
+	 * dangerous ghosts, or a single step away from the closest one if no pellet
+	 * can be reached.
+	 */
+	private void plan(int start) {
+		plans++;
+		stamp++;
+		dangerousGhosts = markDanger();
+
+		PelletGrid pellets = board.getPellets();
+		int head = 0, tail = 0;
+		queue[tail++] = start;
+		visited[start] = stamp;
+		int found = -1;
+		while (head < tail) {
+			int tile = queue[head++];
+			if (pellets.isPellet(tile) && !pellets.isConsumed(tile)) {
+				found = tile;
+				break;
+			}
+			for (int d = 0; d < 4; d++) {
+				int next = neighbours[tile * 4 + d];
+				if (next >= 0 && visited[next] != stamp && danger[next] != stamp) {
+					visited[next] = stamp;
+					cameFrom[next] = d;
+					queue[tail++] = next;
+				}
+			}
+		}
+
+		if (found >= 0) {
+			// Walk back from the pellet, then store the path from the start
+			pathLength = 0;
+			for (int tile = found; tile != start; tile = neighbours[tile * 4 + ((cameFrom[tile] + 2) & 3)])
+				path[pathLength++] = tile;
+			path[pathLength++] = start;
+			for (int i = 0, j = pathLength - 1; i < j; i++, j--) {
+				int swap = path[i];
+				path[i] = path[j];
+				path[j] = swap;
+			}
+		} else {
+			path[0] = start;
+			int escape = escapeTile(start);
+			pathLength = escape >= 0 ? 2 : 1;
+			path[1] = escape;
+		}
+		for (int i = 0; i < pathLength; i++) {
+			onPath[path[i]] = stamp;
+			pathIndex[path[i]] = i;
+		}
+		position = 0;
+		target = found;
+	}
+
+	/**
+	 * Marks the tiles within {@link #DANGER_RADIUS} steps of every dangerous
+	 * ghost with the current stamp.
+	 *
+	 * @return the number of dangerous ghosts
+	 */
+	private int markDanger() {
+		EntityStore entities = board.getEntities();
+		int count = 0;
+		for (int i = EntityStore.FIRST_GHOST; i < entities.getCount(); i++) {
+			if (!isDangerous(entities, i))
+				continue;
+			count++;
+
+			// Breadth-first search limited to the radius, with cameFrom[] holding
+			// each tile's distance from the ghost until the main search reuses it
+			int head = 0, tail = 0;
+			int ghost = centreTile(i);
+			queue[tail++] = ghost;
+			danger[ghost] = stamp;
+			cameFrom[ghost] = 0;
+			while (head < tail) {
+				int tile = queue[head++];
+				if (cameFrom[tile] == DANGER_RADIUS)
+					continue;
+				for (int d = 0; d < 4; d++) {
+					int next = neighbours[tile * 4 + d];
+					// Also enter tiles another ghost marked from farther away
+					if (next >= 0 && (danger[next] != stamp || cameFrom[next] > cameFrom[tile] + 1)) {
+						danger[next] = stamp;
+						cameFrom[next] = cameFrom[tile] + 1;
+						queue[tail++] = next;
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Picks the open neighbour of a tile that is farthest from the closest
+	 * dangerous ghost, counting tiles along both axes.
+	 *
+	 * @return the neighbour tile, or -1 if there is no ghost to flee or no way out
+	 */
+	private int escapeTile(int from) {
+		EntityStore entities = board.getEntities();
+		int best = -1;
+		int bestDistance = -1;
+		for (int d = 0; d < 4; d++) {
+			int next = neighbours[from * 4 + d];
+			if (next < 0)
+				continue;
+			int closest = Integer.MAX_VALUE;
+			for (int i = EntityStore.FIRST_GHOST; i < entities.getCount(); i++) {
+				if (isDangerous(entities, i)) {
+					int ghost = centreTile(i);
+					closest = Math.min(closest, Math.abs(ghost / columns - next / columns)
+							+ Math.abs(ghost % columns - next % columns));
+				}
+			}
+			if (closest != Integer.MAX_VALUE && closest > bestDistance) {
+				best = next;
+				bestDistance = closest;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Gets the direction index of the step from a position on the path to the
+	 * next.
+	 */
+	private int stepDirection(int index) {
+		int from = path[index];
+		for (int d = 0; d < 4; d++) {
+			if (neighbours[from * 4 + d] == path[index + 1])
+				return d;
+		}
+		return 0;
+	}
+
+	/**
+	 * Checks whether a ghost can cost Pacman a life.
+	 */
+	private static boolean isDangerous(EntityStore entities, int slot) {
+		return !entities.hasFlag(slot, EntityStore.FRIGHTENED) && !entities.hasFlag(slot, EntityStore.RESPAWNING);
+	}
+
+	/**
+	 * Gets the tile an entity is on when aligned with the grid, or else the tile
+	 * it is moving into.
+	 */
+	private int headingTile(int slot) {
+		EntityStore entities = board.getEntities();
+		int x = entities.getX(slot);
+		int y = entities.getY(slot);
+		char direction = entities.getDirection(slot);
+		int column = x / tileSize + (x % tileSize != 0 && direction == 'R' ? 1 : 0);
+		int row = y / tileSize + (y % tileSize != 0 && direction == 'D' ? 1 : 0);
+		return Math.floorMod(row, rows) * columns + Math.floorMod(column, columns);
+	}
+
+	/**
+	 * Gets the tile under the centre of an entity.
+	 */
+	private int centreTile(int slot) {
+		EntityStore entities = board.getEntities();
+		int column = (entities.getX(slot) + entities.getWidth(slot) / 2) / tileSize;
+		int row = (entities.getY(slot) + entities.getHeight(slot) / 2) / tileSize;
+		return Math.floorMod(row, rows) * columns + Math.floorMod(column, columns);
+	}
+
+	/**
+	 * Presses the key of a direction, releasing the key held before, unless it is
+	 * already the held direction.
+	 */
+	private static void hold(GameController controller, char direction) {
+		char held = controller.getHeldDirection();
+		if (held == direction)
+			return;
+		if (held != ' ')
+			controller.onKeyRelease(KEYS[MazeDistances.directionIndex(held)]);
+		if (direction != ' ')
+			controller.onKeyPress(KEYS[MazeDistances.directionIndex(direction)]);
+	}
+
+	/**
+	 * Gets the number of paths planned so far, one per cache miss.
+	 *
+	 * @return the plan count
+	 */
+	public long getPlans() {
+		return plans;
+	}
+}
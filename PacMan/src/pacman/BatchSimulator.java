@@ -0,0 +1,143 @@
+package pacman;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs many independent headless games in parallel on a fork-join pool and
+ * aggregates their score, level reached and ticks survived into histograms.
+ * Each game gets its own seed derived from the batch seed, so a batch is
+ * reproducible regardless of how games are spread over threads.
+ * <p>
+ * Usage: {@code java pacman.BatchSimulator [games] [seed] [threads]}
+ */
+public class BatchSimulator {
+	private static final int STEER_INTERVAL = 8; // Ticks between random key presses
+	private static final long MAX_TICKS = 200_000; // Cut-off for games that never end
+
+	private final int parallelism; // Number of worker threads
+	private final long maxTicks; // Maximum ticks simulated per game
+
+	/**
+	 * Statistics of a batch, filled per worker and merged at the end.
+	 */
+	public static class Stats {
+		private final Histogram scores = new Histogram(250, 40);
+		private final Histogram levels = new Histogram(1, 20);
+		private final Histogram ticks = new Histogram(250, 80);
+		private final HighScore highScore = new HighScore();
+		private long totalTicks;
+
+		/**
+		 * Adds the outcome of one finished game.
+		 *
+		 * @param game the game to record
+		 */
+		void add(HeadlessGame game) {
+			GameController controller = game.getController();
+			scores.record(controller.getScore());
+			levels.record(controller.getLevel());
+			ticks.record(game.getTicks());
+			highScore.submit(controller.getScore());
+			totalTicks += game.getTicks();
+		}
+
+		/**
+		 * Merges the statistics gathered by another worker.
+		 *
+		 * @param other the statistics to merge
+		 */
+		void merge(Stats other) {
+			scores.merge(other.scores);
+			levels.merge(other.levels);
+			ticks.merge(other.ticks);
+			highScore.merge(other.highScore);
+			totalTicks += other.totalTicks;
+		}
+
+		public Histogram getScores() {
+			return scores;
+		}
+
+		public Histogram getLevels() {
+			return levels;
+		}
+
+		public Histogram getTicks() {
+			return ticks;
+		}
+
+		public HighScore getHighScore() {
+			return highScore;
+		}
+
+		public long getTotalTicks() {
+			return totalTicks;
+		}
+	}
+
+	/**
+	 * Constructs a batch simulator.
+	 *
+	 * @param parallelism number of worker threads
+	 * @param maxTicks    maximum number of ticks simulated per game
+	 */
+	public BatchSimulator(int parallelism, long maxTicks) {
+		this.parallelism = parallelism;
+		this.maxTicks = maxTicks;
+	}
+
+	/**
+	 * Plays the given number of games to game over, or to the tick cut-off.
+	 *
+	 * @param games number of games to play
+	 * @param seed  batch seed from which every game's seed is derived
+	 * @return the aggregated statistics
+	 */
+	public Stats run(int games, long seed) {
+		long[] seeds = new SplittableRandom(seed).longs(games).toArray();
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.submit(() -> IntStream.range(0, games).parallel().mapToObj(i -> play(seeds[i]))
+					.collect(Stats::new, Stats::add, Stats::merge)).join();
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Plays one seeded game driven by a random player.
+	 */
+	private HeadlessGame play(long seed) {
+		HeadlessGame game = new HeadlessGame(seed, new HighScore());
+		game.setPlayer(new RandomPlayer(seed, STEER_INTERVAL));
+		while (!game.getController().isGameOver() && game.getTicks() < maxTicks) {
+			game.advance((int) Math.min(10_000, maxTicks - game.getTicks()));
+		}
+		return game;
+	}
+
+	/**
+	 * The main method runs a batch and prints throughput and histograms.
+	 */
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		BatchSimulator simulator = new BatchSimulator(threads, MAX_TICKS);
+		long start = System.nanoTime();
+		Stats stats = simulator.run(games, seed);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("%d games on %d threads in %.3f s: %,.0f games/s, %,.0f ticks/s%n", games, threads,
+				seconds, games / seconds, stats.getTotalTicks() / seconds);
+		System.out.printf("High score: %d%n%n", stats.getHighScore().get());
+		System.out.println(stats.getScores().toChart("Score"));
+		System.out.println(stats.getLevels().toChart("Level reached"));
+		System.out.println(stats.getTicks().toChart("Ticks survived"));
+	}
+}
@@ -0,0 +1,117 @@
+package pacman;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Renders the static parts of the board from cached layers. The maze is drawn
+ * once into an image when the renderer is created. Pellets live in a second
+ * image that is updated in place: an eaten pellet is erased and a restored one
+ * redrawn, so a frame only composites two images regardless of maze size.
+ */
+public class BoardRenderer {
+	private final PelletGrid pellets; // Source of the live pellet bits
+	private final BufferedImage wallLayer; // Maze walls, drawn once
+	private final BufferedImage pelletLayer; // Live pellets, updated incrementally
+	private final long[] drawn; // Pellet bits currently shown in the pellet layer
+
+	/**
+	 * Constructs the renderer and draws the maze layer for the given board.
+	 *
+	 * @param board the board whose walls and pellets are rendered
+	 */
+	public BoardRenderer(GameBoard board) {
+		this.pellets = board.getPellets();
+		this.drawn = new long[pellets.getWordCount()];
+
+		int width = board.getBoardWidth();
+		int height = board.getBoardHeight();
+		wallLayer = createLayer(width, height);
+		pelletLayer = createLayer(width, height);
+
+		WallGrid walls = board.getWallGrid();
+		Image wallImage = board.getWallImage();
+		int tileSize = walls.getTileSize();
+		Graphics g = wallLayer.createGraphics();
+		for (int row = 0; row < walls.getRows(); row++) {
+			for (int column = 0; column < walls.getColumns(); column++) {
+				if (walls.isWall(row, column))
+					g.drawImage(wallImage, column * tileSize, row * tileSize, tileSize, tileSize, null);
+			}
+		}
+		g.dispose();
+	}
+
+	/**
+	 * Creates a transparent image in the screen's native format when a screen is
+	 * available, so that drawing it is as cheap as possible.
+	 */
+	static BufferedImage createLayer(int width, int height) {
+		if (GraphicsEnvironment.isHeadless())
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+		GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration();
+		return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+	}
+
+	/**
+	 * Draws the maze and pellet layers. Pellets eaten or restored since the last
+	 * call are first erased from or drawn into the pellet layer.
+	 *
+	 * @param g the Graphics context to draw on
+	 */
+	public void draw(Graphics g) {
+		updatePelletLayer();
+		g.drawImage(wallLayer, 0, 0, null);
+		g.drawImage(pelletLayer, 0, 0, null);
+	}
+
+	/**
+	 * Brings the pellet layer in line with the pellet grid by comparing the live
+	 * bits word by word with the bits already drawn.
+	 */
+	private void updatePelletLayer() {
+		Graphics2D g = null;
+		int tileSize = pellets.getTileSize();
+		int columns = pellets.getColumns();
+
+		for (int word = 0; word < drawn.length; word++) {
+			long live = pellets.getLiveWord(word);
+			long changed = live ^ drawn[word];
+			if (changed == 0)
+				continue;
+
+			if (g == null)
+				g = pelletLayer.createGraphics();
+
+			while (changed != 0) {
+				int bit = Long.numberOfTrailingZeros(changed);
+				changed &= changed - 1; // Clear the lowest set bit
+				int tile = (word << 6) + bit;
+
+				if ((live & (1L << bit)) != 0) {
+					// Pellet restored: draw it
+					g.setComposite(AlphaComposite.SrcOver);
+					g.setColor(Color.WHITE);
+					pellets.drawPellet(g, tile);
+				} else {
+					// Pellet eaten: clear its tile back to transparent
+					g.setComposite(AlphaComposite.Clear);
+					g.fillRect((tile % columns) * tileSize, (tile / columns) * tileSize, tileSize, tileSize);
+				}
+			}
+			drawn[word] = live;
+		}
+
+		if (g != null)
+			g.dispose();
+	}
+}
@@ -1,5 +1,6 @@
+package pacman;
+
 import java.awt.event.KeyEvent;
-import java.util.HashSet;
 
 /**
  * Controls the player's movement based on keyboard input and game board
@@ -7,7 +8,7 @@ import java.util.HashSet;
  */
 public class CharacterController {
 	private final Player player;
-	private HashSet<Tile> walls; // Set of wall tiles for collision detection
+	private WallGrid walls; // Grid of wall tiles for collision detection
 	private final int boardWidth; // Width of the game board
 	private final int boardHeight; // Height of the game board
 	private final DirectionQueue directionQueue = new DirectionQueue(); // Tracks pressed directions
@@ -16,11 +17,11 @@ public class CharacterController {
 	 * Constructs a CharacterController to handle player movement.
 	 * 
 	 * @param player      the player character to control
-	 * @param walls       set of wall tiles for collision checks
+	 * @param walls       grid of wall tiles for collision checks
 	 * @param boardWidth  width of the game board
 	 * @param boardHeight height of the game board
 	 */
-	public CharacterController(Player player, HashSet<Tile> walls, int boardWidth, int boardHeight) {
+	public CharacterController(Player player, WallGrid walls, int boardWidth, int boardHeight) {
 		this.player = player;
 		this.walls = walls;
 		this.boardWidth = boardWidth;
@@ -0,0 +1,124 @@
+package pacman;
+
+/**
+ * The four classic ghost personalities. Each chases Pacman in its own way and
+ * retreats to its own corner of the board during scatter phases. Choosing a
+ * target only takes a few arithmetic operations and table lookups.
+ */
+public enum ClassicGhost implements GhostStrategy {
+	/** Red ghost: heads straight for Pacman's tile. Scatters to the top right. */
+	BLINKY(false, true) {
+		@Override
+		int chase(Ghost ghost, GameBoard board, MazeDistances maze, int row, int column, int rowStep,
+				int columnStep) {
+			return maze.cellAt(row, column);
+		}
+	},
+
+	/** Pink ghost: aims four tiles ahead of Pacman. Scatters to the top left. */
+	PINKY(false, false) {
+		@Override
+		int chase(Ghost ghost, GameBoard board, MazeDistances maze, int row, int column, int rowStep,
+				int columnStep) {
+			return maze.cellAt(row + 4 * rowStep, column + 4 * columnStep);
+		}
+	},
+
+	/**
+	 * Blue ghost: aims at the point opposite Blinky, mirrored through the tile two
+	 * steps ahead of Pacman. Blinky is taken where he started the tick, so it does
+	 * not matter which of the two moves first. Scatters to the bottom right.
+	 */
+	INKY(true, true) {
+		@Override
+		int chase(Ghost ghost, GameBoard board, MazeDistances maze, int row, int column, int rowStep,
+				int columnStep) {
+			int pivotRow = row + 2 * rowStep;
+			int pivotColumn = column + 2 * columnStep;
+			Ghost blinky = board.getBlinky();
+			if (blinky == null)
+				return maze.cellAt(pivotRow, pivotColumn);
+
+			EntityStore store = board.getEntities();
+			int index = blinky.getIndex();
+			int tileSize = board.getTileSize();
+			int blinkyRow = Math.floorDiv(store.getPreviousY(index) + blinky.getHeight() / 2, tileSize);
+			int blinkyColumn = Math.floorDiv(store.getPreviousX(index) + blinky.getWidth() / 2, tileSize);
+			return maze.cellAt(2 * pivotRow - blinkyRow, 2 * pivotColumn - blinkyColumn);
+		}
+	},
+
+	/**
+	 * Orange ghost: chases Pacman like Blinky while far away, but retreats to its
+	 * corner once within eight tiles. Scatters to the bottom left.
+	 */
+	CLYDE(true, false) {
+		@Override
+		int chase(Ghost ghost, GameBoard board, MazeDistances maze, int row, int column, int rowStep,
+				int columnStep) {
+			int tileSize = board.getTileSize();
+			int pacmanCell = maze.cellAt(row, column);
+			int ghostCell = maze.cellAt(centreRow(ghost, tileSize), centreColumn(ghost, tileSize));
+			return maze.distance(ghostCell, pacmanCell) > 8 ? pacmanCell : corner(board, maze);
+		}
+	};
+
+	private final boolean bottom; // Whether the scatter corner is at the bottom
+	private final boolean right; // Whether the scatter corner is on the right
+
+	ClassicGhost(boolean bottom, boolean right) {
+		this.bottom = bottom;
+		this.right = right;
+	}
+
+	@Override
+	public int chooseTarget(Ghost ghost, GameBoard board, boolean scatter) {
+		MazeDistances maze = board.getDistances();
+		if (scatter)
+			return corner(board, maze);
+
+		Player pacman = board.getPacman();
+		int tileSize = board.getTileSize();
+		char direction = pacman.getDirection();
+		int rowStep = direction == 'U' ? -1 : direction == 'D' ? 1 : 0;
+		int columnStep = direction == 'L' ? -1 : direction == 'R' ? 1 : 0;
+		return chase(ghost, board, maze, centreRow(pacman, tileSize), centreColumn(pacman, tileSize), rowStep,
+				columnStep);
+	}
+
+	/**
+	 * Chooses the target while chasing.
+	 *
+	 * @param row        Pacman's tile row
+	 * @param column     Pacman's tile column
+	 * @param rowStep    row change of one step in Pacman's direction
+	 * @param columnStep column change of one step in Pacman's direction
+	 * @return the target cell
+	 */
+	abstract int chase(Ghost ghost, GameBoard board, MazeDistances maze, int row, int column, int rowStep,
+			int columnStep);
+
+	/**
+	 * Gets the walkable cell closest to this ghost's scatter corner.
+	 */
+	int corner(GameBoard board, MazeDistances maze) {
+		int tileSize = board.getTileSize();
+		int row = bottom ? board.getBoardHeight() / tileSize - 1 : 0;
+		int column = right ? board.getBoardWidth() / tileSize - 1 : 0;
+		return maze.cellAt(row, column);
+	}
+
+	/**
+	 * Gets the row of the tile containing the centre of an entity.
+	 */
+	static int centreRow(Entity entity, int tileSize) {
+		return Math.floorDiv(entity.getY() + entity.getHeight() / 2, tileSize);
+	}
+
+	/**
+	 * Gets the column of the tile containing the centre of an entity.
+	 */
+	static int centreColumn(Entity entity, int tileSize) {
+		return Math.floorDiv(entity.getX() + entity.getWidth() / 2, tileSize);
+	}
+}
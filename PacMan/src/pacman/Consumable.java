@@ -1,3 +1,5 @@
+package pacman;
+
 /**
  * Represents an item or object that can be consumed.
  */
@@ -0,0 +1,68 @@
+package pacman;
+
+import java.util.Arrays;
+
+/**
+ * Manages a queue of active direction inputs, tracking the order of pressed
+ * keys. The directions are held in a small array, oldest first, so pressing
+ * and releasing keys allocates nothing.
+ */
+public class DirectionQueue {
+	private char[] queue = new char[4]; // Held directions, the most recent last
+	private int size; // Number of held directions
+
+	/**
+	 * Adds a direction to the queue or moves it to the end if already present,
+	 * representing the most recent key press.
+	 *
+	 * @param dir the direction character to add ('U', 'D', 'L', 'R')
+	 */
+	public void press(char dir) {
+		release(dir); // Remove if already in queue to avoid duplicates
+		if (size == queue.length)
+			queue = Arrays.copyOf(queue, size * 2);
+		queue[size++] = dir; // Add to the end to mark as most recent
+	}
+
+	/**
+	 * Removes a direction from the queue when its key is released.
+	 *
+	 * @param dir the direction character to remove
+	 */
+	public void release(char dir) {
+		for (int i = 0; i < size; i++) {
+			if (queue[i] == dir) {
+				System.arraycopy(queue, i + 1, queue, i, size - i - 1);
+				size--;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Gets the current active direction, which is the most recently pressed key.
+	 *
+	 * @return the last pressed direction character, or space if none
+	 */
+	public char getCurrent() {
+		if (size == 0)
+			return ' ';
+		return queue[size - 1];
+	}
+
+	/**
+	 * Forgets every held direction.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Checks if there are no active directions in the queue.
+	 *
+	 * @return true if empty, false otherwise
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+}
@@ -0,0 +1,128 @@
+package pacman;
+
+import java.awt.*;
+
+/**
+ * Abstract base class representing a drawable entity in the game world. Stores
+ * position and size information. Subclasses may keep their position elsewhere
+ * by overriding the getters and {@link #setPosition}, so the methods here only
+ * go through them.
+ */
+public abstract class Entity {
+	private int x, y; // Position coordinates
+	private int width, height; // Dimensions of the entity
+
+	/**
+	 * Constructs an Entity with specified position and size.
+	 * 
+	 * @param x      the x-coordinate of the entity
+	 * @param y      the y-coordinate of the entity
+	 * @param width  the width of the entity
+	 * @param height the height of the entity
+	 */
+	public Entity(int x, int y, int width, int height) {
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Returns the bounding rectangle of the entity for collision detection.
+	 * 
+	 * @return a Rectangle representing the entity's bounds
+	 */
+	public Rectangle getBounds() {
+		return new Rectangle(getX(), getY(), getWidth(), getHeight());
+	}
+
+	/**
+	 * Checks whether the entity overlaps the given rectangle. Works on primitive
+	 * coordinates so that collision checks in the game loop allocate nothing.
+	 * Rectangles that merely touch do not overlap, matching
+	 * {@link Rectangle#intersects}.
+	 * 
+	 * @param otherX      the x-coordinate of the other rectangle
+	 * @param otherY      the y-coordinate of the other rectangle
+	 * @param otherWidth  the width of the other rectangle
+	 * @param otherHeight the height of the other rectangle
+	 * @return true if the bounds overlap, false otherwise
+	 */
+	public boolean intersects(int otherX, int otherY, int otherWidth, int otherHeight) {
+		return overlaps(getX(), getY(), getWidth(), getHeight(), otherX, otherY, otherWidth, otherHeight);
+	}
+
+	/**
+	 * Checks whether the entity overlaps another entity.
+	 * 
+	 * @param other the entity to test against
+	 * @return true if the bounds overlap, false otherwise
+	 */
+	public boolean intersects(Entity other) {
+		return intersects(other.getX(), other.getY(), other.getWidth(), other.getHeight());
+	}
+
+	/**
+	 * Axis-aligned bounding box overlap test on primitive coordinates.
+	 * 
+	 * @return true if the two rectangles overlap, false otherwise
+	 */
+	public static boolean overlaps(int ax, int ay, int aw, int ah, int bx, int by, int bw, int bh) {
+		return aw > 0 && ah > 0 && bw > 0 && bh > 0 && ax < bx + bw && bx < ax + aw && ay < by + bh
+				&& by < ay + ah;
+	}
+
+	/**
+	 * Abstract method to draw the entity using the provided Graphics context.
+	 * 
+	 * @param g the Graphics object used for drawing
+	 */
+	public abstract void draw(Graphics g);
+
+	/**
+	 * Returns the current x-coordinate of the entity.
+	 *
+	 * @return x position in pixels
+	 */
+	public int getX() {
+		return x;
+	}
+
+	/**
+	 * Returns the current y-coordinate of the entity.
+	 *
+	 * @return y position in pixels
+	 */
+	public int getY() {
+		return y;
+	}
+
+	/**
+	 * Returns the width of the entity.
+	 *
+	 * @return width in pixels
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the height of the entity.
+	 *
+	 * @return height in pixels
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Sets the entity's position.
+	 * 
+	 * @param x the new x-coordinate
+	 * @param y the new y-coordinate
+	 */
+	public void setPosition(int x, int y) {
+		this.x = x;
+		this.y = y;
+	}
+}
@@ -0,0 +1,527 @@
+package pacman;
+
+import java.util.Arrays;
+
+/**
+ * Movement state of Pacman and every ghost kept in parallel primitive arrays,
+ * one slot per entity. Pacman always has slot {@link #PACMAN} and the ghosts
+ * follow from {@link #FIRST_GHOST} in the order they were added. The game loop
+ * moves entities and checks collisions with indexed loops over these arrays;
+ * {@link Player} and {@link Ghost} objects are thin views onto a slot, used
+ * for decisions and rendering.
+ * <p>
+ * Every entity moves once per tick by its speed, a fixed-point number of pixels
+ * per tick: {@link #takePixels(int)} adds the speed to the fraction of a pixel
+ * carried over and hands out the whole pixels, so the cost of a tick does not
+ * grow with the speed. Its velocity only gives the direction, one pixel along
+ * an axis. {@link #advance(int, int, WallGrid, int, int)} covers those pixels
+ * but stops where the entity reaches a tile, the only places it can turn or run
+ * into a wall, so the game loop decides again only when a tile boundary is
+ * crossed within the tick.
+ */
+public class EntityStore {
+	/** Slot of Pacman. */
+	public static final int PACMAN = 0;
+	/** Slot of the first ghost. */
+	public static final int FIRST_GHOST = 1;
+
+	// State flags of a slot
+	public static final int FRIGHTENED = 1;
+	public static final int RESPAWNING = 2;
+
+	/** Fraction bits of speeds and carried pixel fractions. */
+	public static final int SUBPIXEL_BITS = 16;
+	/** One whole pixel in fixed point. */
+	public static final int PIXEL = 1 << SUBPIXEL_BITS;
+
+	private int count = FIRST_GHOST; // Slots in use, the Pacman slot is always reserved
+
+	private int[] x; // Left edge in pixels
+	private int[] y; // Top edge in pixels
+	private int[] previousX; // Left edge at the start of the tick, for interpolation
+	private int[] previousY; // Top edge at the start of the tick, for interpolation
+	private int[] startX; // Starting left edge, restored on reset
+	private int[] startY; // Starting top edge, restored on reset
+	private int[] width; // Width in pixels
+	private int[] height; // Height in pixels
+	private int[] velocityX; // Horizontal direction of movement, -1, 0 or 1
+	private int[] velocityY; // Vertical direction of movement, -1, 0 or 1
+	private int[] speed; // Pixels per tick, fixed point with SUBPIXEL_BITS fraction bits
+	private int[] subpixel; // Fraction of a pixel carried over to the next tick
+	private char[] direction; // Facing direction ('U', 'D', 'L', 'R')
+	private byte[] flags; // State flags such as FRIGHTENED
+
+	/**
+	 * Constructs a store with room for the given number of entities. It grows when
+	 * more are added.
+	 *
+	 * @param capacity initial number of slots, including Pacman's
+	 */
+	public EntityStore(int capacity) {
+		resize(Math.max(FIRST_GHOST + 1, capacity));
+	}
+
+	/**
+	 * Reserves a new slot for a ghost.
+	 *
+	 * @return the index of the new slot
+	 */
+	public int allocate() {
+		if (count == x.length)
+			resize(count * 2);
+		return count++;
+	}
+
+	/**
+	 * Grows or allocates every array to the given length.
+	 */
+	private void resize(int capacity) {
+		if (x == null) {
+			x = new int[capacity];
+			y = new int[capacity];
+			previousX = new int[capacity];
+			previousY = new int[capacity];
+			startX = new int[capacity];
+			startY = new int[capacity];
+			width = new int[capacity];
+			height = new int[capacity];
+			velocityX = new int[capacity];
+			velocityY = new int[capacity];
+			speed = new int[capacity];
+			subpixel = new int[capacity];
+			direction = new char[capacity];
+			flags = new byte[capacity];
+			return;
+		}
+
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		previousX = Arrays.copyOf(previousX, capacity);
+		previousY = Arrays.copyOf(previousY, capacity);
+		startX = Arrays.copyOf(startX, capacity);
+		startY = Arrays.copyOf(startY, capacity);
+		width = Arrays.copyOf(width, capacity);
+		height = Arrays.copyOf(height, capacity);
+		velocityX = Arrays.copyOf(velocityX, capacity);
+		velocityY = Arrays.copyOf(velocityY, capacity);
+		speed = Arrays.copyOf(speed, capacity);
+		subpixel = Arrays.copyOf(subpixel, capacity);
+		direction = Arrays.copyOf(direction, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+	}
+
+	/**
+	 * Initialises a slot with a standing entity at its starting position. The
+	 * speed is kept.
+	 *
+	 * @param index     the slot
+	 * @param x         starting left edge
+	 * @param y         starting top edge
+	 * @param width     width in pixels
+	 * @param height    height in pixels
+	 * @param direction initial facing direction
+	 */
+	public void init(int index, int x, int y, int width, int height, char direction) {
+		this.startX[index] = x;
+		this.startY[index] = y;
+		this.width[index] = width;
+		this.height[index] = height;
+		this.direction[index] = direction;
+		this.flags[index] = 0;
+		this.subpixel[index] = 0;
+		setPosition(index, x, y);
+		savePosition(index);
+		setVelocity(index, 0, 0);
+	}
+
+	/**
+	 * Moves an entity by a tick's worth of pixels in its facing direction, without
+	 * turning on the way: it stops at the first wall.
+	 *
+	 * @param index       the slot
+	 * @param walls       grid of wall tiles for collision detection
+	 * @param boardWidth  width of the board in pixels
+	 * @param boardHeight height of the board in pixels
+	 */
+	public void move(int index, WallGrid walls, int boardWidth, int boardHeight) {
+		int pixels = takePixels(index);
+		int moved;
+		while (pixels > 0 && (moved = advance(index, pixels, walls, boardWidth, boardHeight)) > 0)
+			pixels -= moved;
+	}
+
+	/**
+	 * Adds an entity's speed to the fraction of a pixel it carried over and takes
+	 * the whole pixels, to be covered in the current tick.
+	 *
+	 * @param index the slot
+	 * @return the pixels the entity moves this tick
+	 */
+	public int takePixels(int index) {
+		int total = subpixel[index] + speed[index];
+		subpixel[index] = total & (PIXEL - 1);
+		return total >>> SUBPIXEL_BITS;
+	}
+
+	/**
+	 * Moves an entity up to the given number of pixels in its facing direction,
+	 * stopping early where it reaches the next tile on its axis of movement. The
+	 * way to that point is checked against the walls once: entities are a tile in
+	 * size, so the only wall they can run into is the one beyond the next tile
+	 * boundary. Wraps around when the entity leaves the board.
+	 *
+	 * @param index       the slot
+	 * @param pixels      the most pixels to move
+	 * @param walls       grid of wall tiles for collision detection
+	 * @param boardWidth  width of the board in pixels
+	 * @param boardHeight height of the board in pixels
+	 * @return the pixels moved, 0 if the entity is standing or blocked
+	 */
+	public int advance(int index, int pixels, WallGrid walls, int boardWidth, int boardHeight) {
+		int vx = velocityX[index];
+		int vy = velocityY[index];
+		if (vx == 0 && vy == 0)
+			return 0;
+
+		// Pixels left to the next tile boundary in the direction of movement
+		int tileSize = walls.getTileSize();
+		int offset = Math.floorMod(vx != 0 ? x[index] : y[index], tileSize);
+		int boundary = (vx > 0 || vy > 0) ? tileSize - offset : offset == 0 ? tileSize : offset;
+		int distance = Math.min(pixels, boundary);
+
+		int newX = x[index] + vx * distance;
+		int newY = y[index] + vy * distance;
+		if (walls.collides(newX, newY, width[index], height[index]))
+			return 0; // Collision detected: abort movement
+
+		// Screen wrap-around on both axes
+		if (newX < 0)
+			newX = boardWidth - width[index];
+		else if (newX >= boardWidth)
+			newX = 0;
+		if (newY < 0)
+			newY = boardHeight - height[index];
+		else if (newY >= boardHeight)
+			newY = 0;
+
+		x[index] = newX;
+		y[index] = newY;
+		return distance;
+	}
+
+	/**
+	 * Turns an entity to a new direction, pointing its velocity that way, unless
+	 * its next pixel that way would run into a wall. A blocked turn restores the
+	 * previous direction and its velocity.
+	 *
+	 * @param index        the slot
+	 * @param newDirection the direction to turn to ('U', 'D', 'L', 'R')
+	 * @param walls        grid of wall tiles for collision detection
+	 * @return true if the entity turned, false if the turn was blocked
+	 */
+	public boolean turn(int index, char newDirection, WallGrid walls) {
+		char previous = direction[index];
+		direction[index] = newDirection;
+		updateVelocity(index);
+
+		if (isBlocked(index, walls)) {
+			direction[index] = previous;
+			updateVelocity(index);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Points an entity's velocity in its facing direction, one pixel along the
+	 * axis of movement.
+	 *
+	 * @param index the slot
+	 */
+	public void updateVelocity(int index) {
+		switch (direction[index]) {
+		case 'U':
+			setVelocity(index, 0, -1);
+			break;
+		case 'D':
+			setVelocity(index, 0, 1);
+			break;
+		case 'L':
+			setVelocity(index, -1, 0);
+			break;
+		case 'R':
+			setVelocity(index, 1, 0);
+			break;
+		}
+	}
+
+	/**
+	 * Checks whether an entity's next pixel of movement would run into a wall.
+	 *
+	 * @param index the slot
+	 * @param walls grid of wall tiles for collision detection
+	 * @return true if the way is blocked
+	 */
+	public boolean isBlocked(int index, WallGrid walls) {
+		return walls.collides(x[index] + velocityX[index], y[index] + velocityY[index], width[index], height[index]);
+	}
+
+	/**
+	 * Sets the speed of every entity.
+	 *
+	 * @param speed pixels per tick, fixed point with {@link #SUBPIXEL_BITS}
+	 *              fraction bits
+	 */
+	public void setSpeeds(int speed) {
+		Arrays.fill(this.speed, speed);
+	}
+
+	/**
+	 * Gets the speed of an entity.
+	 *
+	 * @param index the slot
+	 * @return pixels per tick, fixed point with {@link #SUBPIXEL_BITS} fraction
+	 *         bits
+	 */
+	public int getSpeed(int index) {
+		return speed[index];
+	}
+
+	/**
+	 * Sets the speed of an entity.
+	 *
+	 * @param index the slot
+	 * @param speed pixels per tick, fixed point with {@link #SUBPIXEL_BITS}
+	 *              fraction bits
+	 */
+	public void setSpeed(int index, int speed) {
+		this.speed[index] = speed;
+	}
+
+	/**
+	 * Gets the fraction of a pixel an entity carries over to the next tick.
+	 *
+	 * @param index the slot
+	 * @return the fraction, below {@link #PIXEL}
+	 */
+	public int getSubpixel(int index) {
+		return subpixel[index];
+	}
+
+	/**
+	 * Sets the fraction of a pixel an entity carries over to the next tick, for
+	 * restoring a snapshot.
+	 *
+	 * @param index    the slot
+	 * @param subpixel the fraction, below {@link #PIXEL}
+	 */
+	public void setSubpixel(int index, int subpixel) {
+		this.subpixel[index] = subpixel;
+	}
+
+	/**
+	 * Finds the next entity, from the given slot on, that overlaps another.
+	 *
+	 * @param subject the slot whose bounds are tested
+	 * @param from    first slot to test
+	 * @return the overlapping slot, or -1 if none
+	 */
+	public int findOverlap(int subject, int from) {
+		int sx = x[subject], sy = y[subject], sw = width[subject], sh = height[subject];
+		for (int i = from; i < count; i++) {
+			if (i != subject && Entity.overlaps(sx, sy, sw, sh, x[i], y[i], width[i], height[i]))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Records every entity's current position as the start of the next tick.
+	 */
+	public void savePositions() {
+		System.arraycopy(x, 0, previousX, 0, count);
+		System.arraycopy(y, 0, previousY, 0, count);
+	}
+
+	/**
+	 * Records one entity's current position as the start of the next tick.
+	 *
+	 * @param index the slot
+	 */
+	public void savePosition(int index) {
+		previousX[index] = x[index];
+		previousY[index] = y[index];
+	}
+
+	/**
+	 * Puts an entity back at its starting position, standing and facing right. It
+	 * starts the next tick without a carried fraction of a pixel.
+	 *
+	 * @param index the slot
+	 */
+	public void resetPosition(int index) {
+		setPosition(index, startX[index], startY[index]);
+		savePosition(index);
+		setVelocity(index, 0, 0);
+		direction[index] = 'R';
+		subpixel[index] = 0;
+	}
+
+	/**
+	 * Gets the number of slots in use, including Pacman's.
+	 *
+	 * @return the entity count
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the left edge of an entity.
+	 *
+	 * @param index the slot
+	 * @return x position in pixels
+	 */
+	public int getX(int index) {
+		return x[index];
+	}
+
+	/**
+	 * Gets the top edge of an entity.
+	 *
+	 * @param index the slot
+	 * @return y position in pixels
+	 */
+	public int getY(int index) {
+		return y[index];
+	}
+
+	/**
+	 * Sets the position of an entity.
+	 *
+	 * @param index the slot
+	 * @param x     the new left edge
+	 * @param y     the new top edge
+	 */
+	public void setPosition(int index, int x, int y) {
+		this.x[index] = x;
+		this.y[index] = y;
+	}
+
+	/**
+	 * Gets the left edge of an entity at the start of the tick.
+	 *
+	 * @param index the slot
+	 * @return previous x position in pixels
+	 */
+	public int getPreviousX(int index) {
+		return previousX[index];
+	}
+
+	/**
+	 * Gets the top edge of an entity at the start of the tick.
+	 *
+	 * @param index the slot
+	 * @return previous y position in pixels
+	 */
+	public int getPreviousY(int index) {
+		return previousY[index];
+	}
+
+	/**
+	 * Gets the width of an entity.
+	 *
+	 * @param index the slot
+	 * @return width in pixels
+	 */
+	public int getWidth(int index) {
+		return width[index];
+	}
+
+	/**
+	 * Gets the height of an entity.
+	 *
+	 * @param index the slot
+	 * @return height in pixels
+	 */
+	public int getHeight(int index) {
+		return height[index];
+	}
+
+	/**
+	 * Gets the horizontal velocity of an entity.
+	 *
+	 * @param index the slot
+	 * @return -1, 0 or 1 along the X-axis
+	 */
+	public int getVelocityX(int index) {
+		return velocityX[index];
+	}
+
+	/**
+	 * Gets the vertical velocity of an entity.
+	 *
+	 * @param index the slot
+	 * @return -1, 0 or 1 along the Y-axis
+	 */
+	public int getVelocityY(int index) {
+		return velocityY[index];
+	}
+
+	/**
+	 * Sets the velocity of an entity.
+	 *
+	 * @param index the slot
+	 * @param vx    -1, 0 or 1 along the X-axis
+	 * @param vy    -1, 0 or 1 along the Y-axis
+	 */
+	public void setVelocity(int index, int vx, int vy) {
+		velocityX[index] = vx;
+		velocityY[index] = vy;
+	}
+
+	/**
+	 * Gets the facing direction of an entity.
+	 *
+	 * @param index the slot
+	 * @return 'U', 'D', 'L' or 'R'
+	 */
+	public char getDirection(int index) {
+		return direction[index];
+	}
+
+	/**
+	 * Sets the facing direction of an entity.
+	 *
+	 * @param index     the slot
+	 * @param direction 'U', 'D', 'L' or 'R'
+	 */
+	public void setDirection(int index, char direction) {
+		this.direction[index] = direction;
+	}
+
+	/**
+	 * Checks a state flag of an entity.
+	 *
+	 * @param index the slot
+	 * @param flag  the flag, e.g. {@link #FRIGHTENED}
+	 * @return true if the flag is set
+	 */
+	public boolean hasFlag(int index, int flag) {
+		return (flags[index] & flag) != 0;
+	}
+
+	/**
+	 * Sets or clears a state flag of an entity.
+	 *
+	 * @param index the slot
+	 * @param flag  the flag, e.g. {@link #FRIGHTENED}
+	 * @param set   true to set the flag, false to clear it
+	 */
+	public void setFlag(int index, int flag, boolean set) {
+		if (set)
+			flags[index] |= flag;
+		else
+			flags[index] &= ~flag;
+	}
+}
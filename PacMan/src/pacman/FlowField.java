@@ -0,0 +1,120 @@
+package pacman;
+
+import java.util.Arrays;
+
+/**
+ * Distance of every tile from Pacman's tile, shared by all ghosts of a board
+ * that chase Pacman on a maze too large for a {@link MazeDistances} table. The
+ * field is filled with one breadth-first search from Pacman's tile into reused
+ * arrays, and only again once Pacman reaches another tile, so chasing costs one
+ * search per tile Pacman crosses however many ghosts read it. A ghost steers by
+ * comparing the entries of its own tile's neighbours, a handful of array reads.
+ * The field grows linearly with the maze and walks the neighbour table of the
+ * map.
+ * <p>
+ * Moving Pacman to a neighbouring tile changes the distance of every tile by
+ * one in a maze whose loops all have an even length, as on a grid without
+ * tunnels, so a repair touches as many tiles as a fresh search and the field
+ * is simply searched again.
+ */
+public class FlowField {
+	/** Distance reported for tiles that cannot reach the source. */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	private final int rows; // Number of tile rows
+	private final int columns; // Number of tile columns
+	private final int[] neighbours; // Neighbour tile per tile and direction index, shared with the map
+	private final int[] distances; // Steps from the source to every tile
+	private final int[] queue; // Tiles waiting to be expanded, reused by every search
+	private int source = -1; // Tile the distances are counted from, -1 before the first search
+	private long searches; // Number of searches run
+
+	/**
+	 * Builds an empty field for a map.
+	 *
+	 * @param map the map of the board
+	 */
+	public FlowField(GameMap map) {
+		rows = map.getRows();
+		columns = map.getColumns();
+		neighbours = map.getNeighbours();
+		distances = new int[rows * columns];
+		Arrays.fill(distances, UNREACHABLE);
+		queue = new int[rows * columns];
+	}
+
+	/**
+	 * Counts the distances from the given tile, unless they already are.
+	 * Coordinates outside the board are clamped to it.
+	 *
+	 * @param row    row of the source tile
+	 * @param column column of the source tile
+	 * @return true if the field was searched again
+	 */
+	public boolean update(int row, int column) {
+		row = Math.max(0, Math.min(rows - 1, row));
+		column = Math.max(0, Math.min(columns - 1, column));
+		int tile = row * columns + column;
+		if (tile == source)
+			return false;
+
+		source = tile;
+		searches++;
+		Arrays.fill(distances, UNREACHABLE);
+		distances[tile] = 0;
+
+		int head = 0, tail = 0;
+		queue[tail++] = tile;
+		while (head < tail) {
+			int current = queue[head++];
+			int next = distances[current] + 1;
+			for (int d = 0; d < 4; d++) {
+				int neighbour = neighbours[current * 4 + d];
+				if (neighbour >= 0 && distances[neighbour] == UNREACHABLE) {
+					distances[neighbour] = next;
+					queue[tail++] = neighbour;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the number of tile steps from a tile to the source.
+	 *
+	 * @param tile tile index (row * columns + column)
+	 * @return the distance, or {@link #UNREACHABLE}
+	 */
+	public int distance(int tile) {
+		return distances[tile];
+	}
+
+	/**
+	 * Gets the tile reached by one step from a tile.
+	 *
+	 * @param tile      tile index
+	 * @param direction index into {@link MazeDistances#DIRECTIONS}
+	 * @return the neighbouring tile, or -1 if a wall is in the way
+	 */
+	public int neighbour(int tile, int direction) {
+		return neighbours[tile * 4 + direction];
+	}
+
+	/**
+	 * Gets the tile the distances are counted from.
+	 *
+	 * @return the tile index, or -1 before the first update
+	 */
+	public int getSource() {
+		return source;
+	}
+
+	/**
+	 * Gets the number of searches run so far, one per tile Pacman reached.
+	 *
+	 * @return the search count
+	 */
+	public long getSearches() {
+		return searches;
+	}
+}
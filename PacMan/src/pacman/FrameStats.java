@@ -0,0 +1,98 @@
+package pacman;
+
+import java.util.Arrays;
+
+/**
+ * Records the most recent frame times in a fixed-size ring buffer and reports
+ * average, percentile and worst frame times over that window.
+ */
+public class FrameStats {
+	private final long[] samples; // Most recent frame times in nanoseconds
+	private final long[] sorted; // Scratch copy used for percentiles
+	private int count; // Number of valid samples, up to samples.length
+	private int next; // Index the next sample is written to
+	private long totalFrames; // Frames recorded since creation
+
+	/**
+	 * Constructs frame statistics over a window of the given size.
+	 *
+	 * @param window number of most recent frames to keep
+	 */
+	public FrameStats(int window) {
+		samples = new long[window];
+		sorted = new long[window];
+	}
+
+	/**
+	 * Records the duration of one frame.
+	 *
+	 * @param nanos time since the previous frame in nanoseconds
+	 */
+	public void record(long nanos) {
+		samples[next] = nanos;
+		next = (next + 1) % samples.length;
+		if (count < samples.length)
+			count++;
+		totalFrames++;
+	}
+
+	/**
+	 * Gets the average frame time over the window.
+	 *
+	 * @return the average in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getAverageNanos() {
+		if (count == 0)
+			return 0;
+		long sum = 0;
+		for (int i = 0; i < count; i++)
+			sum += samples[i];
+		return sum / count;
+	}
+
+	/**
+	 * Gets the frame time below which the given fraction of frames fall.
+	 *
+	 * @param fraction percentile as a fraction, e.g. 0.99
+	 * @return the percentile in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getPercentileNanos(double fraction) {
+		if (count == 0)
+			return 0;
+		System.arraycopy(samples, 0, sorted, 0, count);
+		Arrays.sort(sorted, 0, count);
+		int index = (int) Math.ceil(fraction * count) - 1;
+		return sorted[Math.max(0, Math.min(count - 1, index))];
+	}
+
+	/**
+	 * Gets the longest frame time over the window.
+	 *
+	 * @return the maximum in nanoseconds
+	 */
+	public long getMaxNanos() {
+		long max = 0;
+		for (int i = 0; i < count; i++)
+			max = Math.max(max, samples[i]);
+		return max;
+	}
+
+	/**
+	 * Gets the frame rate implied by the average frame time.
+	 *
+	 * @return frames per second, or 0 if nothing was recorded
+	 */
+	public double getFramesPerSecond() {
+		long average = getAverageNanos();
+		return average == 0 ? 0 : 1e9 / average;
+	}
+
+	/**
+	 * Gets the number of frames recorded since creation.
+	 *
+	 * @return the total frame count
+	 */
+	public long getTotalFrames() {
+		return totalFrames;
+	}
+}
@@ -0,0 +1,352 @@
+package pacman;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Main game panel responsible for rendering the game, handling user input,
+ * managing the game loop, and displaying UI elements like score and lives.
+ */
+public class Game extends JPanel implements ActionListener, KeyListener {
+	private static final long serialVersionUID = 1L;
+
+	private static final int START_DELAY = 4000; // Milliseconds of start music before the game loop starts
+	private static final int REMOTE_POLL_DELAY = 10; // Milliseconds between polls of the server in remote mode
+	private static final int TIMER_DELAY = 1000 / GameClock.TICKS_PER_SECOND; // Milliseconds between timer events
+	private static final int MAX_CATCH_UP = 5; // Most ticks run for one timer event after a stall
+
+	private final Timer gameLoop; // Timer triggering regular game updates (frame rate control)
+	private final Timer startTimer; // One-shot timer starting the game loop after the start music
+	private final GameBoard board; // Holds game objects and board state
+	private final GameController controller; // Processes game logic and input handling
+	private final GameRenderer renderer; // Draws the board, entities and UI
+	private JButton restartButton; // Button to restart the game after game over
+	private GameClient client; // Connection to a game server in remote mode, or null
+	private final TickMetrics metrics = new TickMetrics(); // Timings shown by the overlay
+	private final MetricsOverlay overlay = new MetricsOverlay(metrics); // Debug overlay toggled with F3
+	private boolean overlayShown; // Whether the overlay is shown and the game measured
+	private AutoPilot autoPilot; // Bot playing in place of the player, toggled with F2, or null
+	private boolean savingReplays; // Whether finished games are saved as replays, toggled with F4
+	private long nextTickTime; // System.nanoTime() at which the next tick is due, or 0 before the first
+
+	private int speedLevel = 1; // Speed level to display
+
+	private final SoundManager soundManager; // Controls game audio playback
+
+	/**
+	 * Constructor initializes the game, loads assets, sets up game components, and
+	 * starts background music with a delayed game loop start.
+	 */
+	public Game() {
+		this(new HighScore());
+	}
+
+	/**
+	 * Constructor for a game that continues a run, sharing its high score with the
+	 * previous games of the run.
+	 *
+	 * @param highScore the high score of the run
+	 */
+	public Game(HighScore highScore) {
+		this(createBoard(), new SoundManager(), highScore);
+
+		soundManager.playStartMusic(); // Play intro music before game starts
+		startTimer.start(); // Start the game loop once the music has played
+	}
+
+	/**
+	 * Constructor for a remote game. The panel shows a room of a
+	 * {@link GameServer} playing the classic maze and sends it the held direction,
+	 * instead of running the game itself.
+	 *
+	 * @param server address of the server
+	 * @param room   number of the room to join
+	 * @throws IOException if the server cannot be reached
+	 */
+	public Game(InetSocketAddress server, int room) throws IOException {
+		this(createBoard(), SoundManager.silent(), new HighScore());
+
+		client = new GameClient(server, room, board, controller);
+		gameLoop.setDelay(REMOTE_POLL_DELAY);
+		gameLoop.start();
+	}
+
+	/**
+	 * Creates a controller for the given board, sound manager and high score.
+	 */
+	private Game(GameBoard board, SoundManager soundManager, HighScore highScore) {
+		this(board, new GameController(board, soundManager, new GameClock(), highScore), soundManager);
+	}
+
+	/**
+	 * Sets up the panel around an existing board and controller without starting
+	 * any music or timers. Used directly for offscreen rendering.
+	 *
+	 * @param board        the game board to render
+	 * @param controller   the controller holding score, lives and game state
+	 * @param soundManager the sound manager used by the controller
+	 */
+	Game(GameBoard board, GameController controller, SoundManager soundManager) {
+		this.board = board;
+		this.controller = controller;
+		this.soundManager = soundManager;
+		this.renderer = new GameRenderer(board, controller, Assets.get().sprite("heart"));
+
+		// Setup panel size and input handling
+		setPreferredSize(new Dimension(board.getBoardWidth(), board.getBoardHeight()));
+		setBackground(Color.BLACK);
+		addKeyListener(this);
+		setFocusable(true);
+
+		// Game loop timer fires at the tick rate whatever the speed level
+		gameLoop = new Timer(TIMER_DELAY, this);
+		startTimer = new Timer(START_DELAY, e -> gameLoop.start());
+		startTimer.setRepeats(false);
+	}
+
+	/**
+	 * Creates the game board with the shared sprites for walls, ghosts, and Pacman.
+	 *
+	 * @return the new GameBoard
+	 */
+	static GameBoard createBoard() {
+		Assets assets = Assets.get();
+		return new GameBoard(assets.sprite("wall"), assets.sprite("blueGhost"), assets.sprite("orangeGhost"),
+				assets.sprite("pinkGhost"), assets.sprite("redGhost"), assets.sprite("pacmanUp"),
+				assets.sprite("pacmanDown"), assets.sprite("pacmanLeft"), assets.sprite("pacmanRight"),
+				assets.sprite("scaredGhost"));
+	}
+
+	/**
+	 * Renders all game elements through the shared game renderer.
+	 *
+	 * @param g the Graphics context to paint on
+	 */
+	@Override
+	public void paintComponent(Graphics g) {
+		super.paintComponent(g);
+		long start = overlayShown ? System.nanoTime() : 0;
+		renderer.render(g, getWidth(), getHeight(), speedLevel, 1f);
+		if (overlayShown) {
+			metrics.record(TickMetrics.RENDER, System.nanoTime() - start);
+			overlay.draw(g);
+		}
+	}
+
+	/**
+	 * Called by the game loop timer to update game state. It checks for game over
+	 * condition, runs the ticks that are due, and requests screen repaint.
+	 *
+	 * @param e the ActionEvent triggered by the Timer
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		if (client != null) {
+			pollServer();
+			repaint();
+			return;
+		}
+		if (!controller.isGameOver()) {
+			runDueTicks();
+			speedLevel = board.getSpeedLevel();
+		} else {
+			gameLoop.stop(); // Stop game updates when over
+			saveReplay();
+			showRestartUI(); // Show restart button
+		}
+		repaint(); // Refresh screen
+	}
+
+	/**
+	 * Runs the logic ticks that have fallen due since the previous timer event, so
+	 * the game keeps its pace when the timer fires late or rounds its delay. Swing
+	 * coalesces timer events when the event thread is busy; after such a stall at
+	 * most {@link #MAX_CATCH_UP} ticks are run and the rest are dropped, counted
+	 * as missed while the overlay is shown.
+	 */
+	private void runDueTicks() {
+		long now = System.nanoTime();
+		if (nextTickTime == 0)
+			nextTickTime = now;
+		if (now - nextTickTime < 0)
+			return; // The timer fired before the next tick is due
+		long due = (now - nextTickTime) / GameClock.TICK_NANOS + 1;
+		if (due > MAX_CATCH_UP) {
+			if (overlayShown)
+				metrics.addTicksMissed(due - MAX_CATCH_UP);
+			nextTickTime += (due - MAX_CATCH_UP) * GameClock.TICK_NANOS;
+			due = MAX_CATCH_UP;
+		}
+		for (; due > 0 && !controller.isGameOver(); due--) {
+			if (autoPilot != null)
+				autoPilot.play(controller);
+			controller.update(); // Update game logic
+			nextTickTime += GameClock.TICK_NANOS;
+		}
+	}
+
+	/**
+	 * Shows or hides the metrics overlay. The game is only measured while it is
+	 * shown.
+	 */
+	private void toggleOverlay() {
+		overlayShown = !overlayShown;
+		controller.setMetrics(overlayShown ? metrics : null);
+		if (overlayShown)
+			overlay.restart();
+		repaint();
+	}
+
+	/**
+	 * Hands Pacman to the autopilot, or back to the player. Not available in
+	 * remote mode, where the server runs the game.
+	 */
+	private void toggleAutoPilot() {
+		if (client != null)
+			return;
+		if (autoPilot == null) {
+			autoPilot = new AutoPilot(board);
+		} else {
+			autoPilot.release(controller);
+			autoPilot = null;
+		}
+	}
+
+	/**
+	 * Switches saving finished games as replays on or off. Recording has to start
+	 * with the game, so switching it on takes effect from the next game unless the
+	 * current one has not ticked yet. Switching it off drops the current
+	 * recording. Not available in remote mode, where the server runs the game.
+	 */
+	private void toggleReplays() {
+		if (client != null)
+			return;
+		savingReplays = !savingReplays;
+		if (savingReplays && controller.getClock().getTick() == 0) {
+			controller.startRecording(ThreadLocalRandom.current().nextLong()); // Seeded so the game can be replayed
+			renderer.setStatus("Saving replays");
+		} else if (savingReplays) {
+			renderer.setStatus("Saving replays from the next game");
+		} else {
+			controller.finishRecording();
+			renderer.setStatus("Not saving replays");
+		}
+		repaint();
+	}
+
+	/**
+	 * In remote mode, sends the held direction to the server and applies the
+	 * states it sent. The server restarts a finished game by itself.
+	 */
+	private void pollServer() {
+		try {
+			client.sendDirection(controller.getHeldDirection());
+			client.poll();
+			speedLevel = board.getSpeedLevel(); // Mirrored from the level by the client
+		} catch (IOException e) {
+			gameLoop.stop();
+			System.err.println("Disconnected from the game server: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Saves the input of the finished game to the replay directory in the
+	 * background, if it was recorded, showing the file or why it could not be
+	 * written once done.
+	 */
+	private void saveReplay() {
+		InputLog log = controller.finishRecording();
+		if (log == null)
+			return;
+		renderer.setStatus("Saving replay...");
+		log.saveInBackground(InputLog.REPLAY_DIRECTORY, message -> {
+			renderer.setStatus(message);
+			repaint();
+		});
+	}
+
+	/**
+	 * Shows a restart button centered on the panel after game over. The button
+	 * triggers restarting the game when clicked.
+	 */
+	private void showRestartUI() {
+		if (restartButton == null) {
+			restartButton = new JButton("Restart");
+			restartButton.setFont(new Font("Arial", Font.BOLD, 20));
+			restartButton.setFocusable(false);
+			restartButton.setBounds(getWidth() / 2 - 75, getHeight() / 2 + 20, 150, 40);
+			restartButton.addActionListener(e -> restartGame());
+
+			setLayout(null); // Use absolute positioning
+			add(restartButton);
+			repaint();
+		} else if (!restartButton.isVisible()) {
+			restartButton.setVisible(true);
+		}
+	}
+
+	/**
+	 * Restarts the game in place. The controller and board reset their state,
+	 * while this panel, its timers and the sound manager are reused, so nothing is
+	 * loaded or rebuilt and the window is not repacked.
+	 */
+	private void restartGame() {
+		long start = System.nanoTime();
+		restartButton.setVisible(false);
+
+		controller.reset(); // Keeps the high score of this run
+		if (savingReplays)
+			controller.startRecording(ThreadLocalRandom.current().nextLong());
+		renderer.setStatus("");
+		speedLevel = 1;
+		nextTickTime = 0; // The start music is not a missed tick
+		metrics.setLastRestart(System.nanoTime() - start); // Shown by the overlay
+
+		soundManager.playStartMusic();
+		startTimer.restart();
+		repaint();
+		requestFocusInWindow();
+	}
+
+	/**
+	 * Handles key press events by forwarding the key code to the controller. F2
+	 * toggles the autopilot, F3 the metrics overlay and F4 saving replays.
+	 *
+	 * @param e the KeyEvent triggered by pressing a key
+	 */
+	@Override
+	public void keyPressed(KeyEvent e) {
+		if (e.getKeyCode() == KeyEvent.VK_F2)
+			toggleAutoPilot();
+		else if (e.getKeyCode() == KeyEvent.VK_F3)
+			toggleOverlay();
+		else if (e.getKeyCode() == KeyEvent.VK_F4)
+			toggleReplays();
+		else
+			controller.onKeyPress(e.getKeyCode());
+	}
+
+	/**
+	 * Handles key release events by forwarding the key code to the controller.
+	 *
+	 * @param e the KeyEvent triggered by releasing a key
+	 */
+	@Override
+	public void keyReleased(KeyEvent e) {
+		controller.onKeyRelease(e.getKeyCode());
+	}
+
+	/**
+	 * Handles key typed events. Not used.
+	 *
+	 * @param e the KeyEvent triggered by typing a key
+	 */
+	@Override
+	public void keyTyped(KeyEvent e) {
+		// not used
+	}
+}
@@ -0,0 +1,361 @@
+package pacman;
+
+import java.awt.Image;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * Represents the game board including the map layout, walls, pellets, ghosts,
+ * and the player (Pacman). Builds its entities from a {@link GameMap}, the
+ * classic maze unless another map is given.
+ */
+public class GameBoard {
+	private final GameMap map; // The maze this board was built from
+	private final int tileSize = GameMap.TILE_SIZE; // Size of each tile (square) in pixels
+	private final int rows; // Number of tile rows
+	private final int columns; // Number of tile columns
+	private final int boardWidth; // Total board width in pixels
+	private final int boardHeight; // Total board height in pixels
+
+	// Speed levels rise by one per cleared level up to MAX_SPEED_LEVEL. Level n
+	// moves entities a quarter of a tile every 55 - 5n ms, the pace of the 50 ms
+	// to 5 ms timer delays the game loop used to be run at
+	static final int MAX_SPEED_LEVEL = 10;
+	private int speedLevel = 1; // Current speed level, from 1
+
+	// Collections to hold different types of entities for easy management and
+	// collision detection. Ghosts are a list so the game loop can iterate them by
+	// index without allocating iterators.
+	private final WallGrid wallGrid; // Walls indexed by tile coordinate, shared with the map
+	private final PelletGrid pellets; // Pellets indexed by tile coordinate, this board's own copy
+	private final ArrayList<Ghost> ghosts = new ArrayList<>(); // Views of the ghost slots, in slot order
+	private final EntityStore entities; // Movement state of Pacman and the ghosts
+	private Player pacman; // The player character
+	private Ghost blinky; // First red ghost, whose position Inky aims through, or null if none
+	private final MazeDistances distances; // Shortest paths between tiles, null if the maze is too large
+	private FlowField flowField; // Distances from Pacman's tile for the chasing ghosts, null until used
+
+	// Images for game entities
+	private final Image wallImage;
+	private final Image blueGhostImage, orangeGhostImage, pinkGhostImage, redGhostImage;
+	private final Image pacmanUpImage, pacmanDownImage, pacmanLeftImage, pacmanRightImage;
+	private final Image scaredGhostImage;
+
+	/**
+	 * Constructor sets images for all entities and loads the classic maze.
+	 */
+	public GameBoard(Image wallImage, Image blueGhost, Image orangeGhost, Image pinkGhost, Image redGhost, Image up,
+			Image down, Image left, Image right, Image scaredGhost) {
+		this(MapLoader.classic(), wallImage, blueGhost, orangeGhost, pinkGhost, redGhost, up, down, left, right,
+				scaredGhost);
+	}
+
+	/**
+	 * Constructor sets images for all entities and builds the board from the given
+	 * map.
+	 */
+	public GameBoard(GameMap map, Image wallImage, Image blueGhost, Image orangeGhost, Image pinkGhost,
+			Image redGhost, Image up, Image down, Image left, Image right, Image scaredGhost) {
+		this.map = map;
+		this.rows = map.getRows();
+		this.columns = map.getColumns();
+		this.boardWidth = columns * tileSize;
+		this.boardHeight = rows * tileSize;
+		this.wallGrid = map.getWalls();
+		this.pellets = new PelletGrid(map.getPellets());
+		this.entities = new EntityStore(map.getGhostCount() + EntityStore.FIRST_GHOST);
+
+		this.wallImage = wallImage;
+		this.blueGhostImage = blueGhost;
+		this.orangeGhostImage = orangeGhost;
+		this.pinkGhostImage = pinkGhost;
+		this.redGhostImage = redGhost;
+		this.pacmanUpImage = up;
+		this.pacmanDownImage = down;
+		this.pacmanLeftImage = left;
+		this.pacmanRightImage = right;
+		this.scaredGhostImage = scaredGhost;
+
+		loadEntities(); // Place Pacman and the ghosts on their starting tiles
+		entities.setSpeeds(getSpeed(speedLevel, tileSize));
+		distances = map.getDistances(); // Ghost pathfinding, computed once per map
+	}
+
+	/**
+	 * Creates Pacman and the ghosts on the starting tiles of the map. Each ghost
+	 * character ('b','o','p','r') selects the ghost's colour and its classic
+	 * targeting strategy. The first red ghost is kept for Inky, so its decisions
+	 * need no search of the ghosts.
+	 */
+	private void loadEntities() {
+		pacman = new Player(entities, map.getPacmanColumn() * tileSize, map.getPacmanRow() * tileSize, tileSize,
+				pacmanUpImage, pacmanDownImage, pacmanLeftImage, pacmanRightImage);
+
+		for (int i = 0; i < map.getGhostCount(); i++) {
+			int x = map.getGhostColumn(i) * tileSize;
+			int y = map.getGhostRow(i) * tileSize;
+			switch (map.getGhostKind(i)) {
+			case 'b': // Blue ghost
+				addGhost(x, y, blueGhostImage, ClassicGhost.INKY);
+				break;
+			case 'o': // Orange ghost
+				addGhost(x, y, orangeGhostImage, ClassicGhost.CLYDE);
+				break;
+			case 'p': // Pink ghost
+				addGhost(x, y, pinkGhostImage, ClassicGhost.PINKY);
+				break;
+			default: // Red ghost
+				addGhost(x, y, redGhostImage, ClassicGhost.BLINKY);
+				if (blinky == null)
+					blinky = ghosts.get(ghosts.size() - 1);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Adds a ghost of one colour at the given position.
+	 */
+	private void addGhost(int x, int y, Image image, GhostStrategy strategy) {
+		Ghost ghost = new Ghost(entities, x, y, tileSize, image, image, image, image, scaredGhostImage);
+		ghost.setStrategy(strategy);
+		ghosts.add(ghost);
+	}
+
+	/**
+	 * Resets Pacman's and ghosts' positions to their starting coordinates, and
+	 * clears frightened mode on ghosts.
+	 */
+	public void resetEntities() {
+		pacman.resetPosition();
+
+		for (int i = 0; i < ghosts.size(); i++) {
+			Ghost ghost = ghosts.get(i);
+			ghost.resetPosition();
+			ghost.setFrightened(false, 0);
+		}
+	}
+
+	/**
+	 * Restores the board to the state of a new game in place: every pellet back,
+	 * Pacman and the ghosts at their starting positions with no ghost timers
+	 * pending, and the starting speed level. Nothing is parsed or allocated again.
+	 */
+	public void reset() {
+		resetPellets();
+		pacman.resetPosition();
+		for (int i = 0; i < ghosts.size(); i++) {
+			ghosts.get(i).reset();
+		}
+		setSpeedLevel(1);
+	}
+
+	/**
+	 * Seeds the ghosts' random generators from a single seed, so a game with the
+	 * same seed and input plays out identically.
+	 * 
+	 * @param seed the game seed
+	 */
+	public void setSeed(long seed) {
+		SplittableRandom seeds = new SplittableRandom(seed);
+		for (int i = 0; i < ghosts.size(); i++) {
+			ghosts.get(i).setSeed(seeds.nextLong());
+		}
+	}
+
+	/**
+	 * Sets the game clock on which the ghosts' timers run.
+	 * 
+	 * @param clock the game clock
+	 */
+	public void setClock(GameClock clock) {
+		for (int i = 0; i < ghosts.size(); i++) {
+			ghosts.get(i).setClock(clock);
+		}
+	}
+
+	/**
+	 * Gets the map this board was built from.
+	 * 
+	 * @return the GameMap
+	 */
+	public GameMap getMap() {
+		return map;
+	}
+
+	/**
+	 * Gets the image drawn for each wall tile.
+	 * 
+	 * @return the wall image
+	 */
+	public Image getWallImage() {
+		return wallImage;
+	}
+
+	/**
+	 * Gets the grid-indexed wall lookup used for collision detection.
+	 * 
+	 * @return the WallGrid built from the map layout
+	 */
+	public WallGrid getWallGrid() {
+		return wallGrid;
+	}
+
+	/**
+	 * Gets the pellets available on the game board.
+	 * 
+	 * @return the PelletGrid holding every pellet and its consumed state
+	 */
+	public PelletGrid getPellets() {
+		return pellets;
+	}
+
+	/**
+	 * Gets the shortest path table of the maze, used by ghosts to steer towards
+	 * their targets.
+	 * 
+	 * @return the distance table, or null if the maze is too large for one
+	 */
+	public MazeDistances getDistances() {
+		return distances;
+	}
+
+	/**
+	 * Gets the distances from Pacman's tile, which the controller brings up to
+	 * date before the ghosts steer while chasing on a maze without a distance
+	 * table.
+	 * 
+	 * @return the flow field of this board, or null if the ghosts have not chased
+	 *         on it yet
+	 */
+	public FlowField getFlowField() {
+		return flowField;
+	}
+
+	/**
+	 * Counts the flow field from the given tile, creating the field on first use.
+	 * Must not run while ghosts steer.
+	 *
+	 * @param row    row of Pacman's tile
+	 * @param column column of Pacman's tile
+	 */
+	void updateFlowField(int row, int column) {
+		if (flowField == null)
+			flowField = new FlowField(map);
+		flowField.update(row, column);
+	}
+
+	/**
+	 * Gets the first red ghost, found once when the board was built.
+	 *
+	 * @return the ghost following {@link ClassicGhost#BLINKY}, or null if the map
+	 *         has none
+	 */
+	public Ghost getBlinky() {
+		return blinky;
+	}
+
+	/**
+	 * Gets the store holding the positions, velocities, directions and state flags
+	 * of Pacman and the ghosts. Ghost i of {@link #getGhosts()} has slot
+	 * {@link EntityStore#FIRST_GHOST} + i.
+	 * 
+	 * @return the entity store
+	 */
+	public EntityStore getEntities() {
+		return entities;
+	}
+
+	/**
+	 * Gets the list of ghost entities currently in the game.
+	 * 
+	 * @return an ArrayList containing all ghosts
+	 */
+	public ArrayList<Ghost> getGhosts() {
+		return ghosts;
+	}
+
+	/**
+	 * Gets the player (Pacman) entity.
+	 * 
+	 * @return the Player object representing Pacman
+	 */
+	public Player getPacman() {
+		return pacman;
+	}
+
+	/**
+	 * Gets the size of each tile in pixels.
+	 * 
+	 * @return the tile size
+	 */
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	/**
+	 * Gets the width of the game board in pixels.
+	 * 
+	 * @return the width of the board
+	 */
+	public int getBoardWidth() {
+		return boardWidth;
+	}
+
+	/**
+	 * Gets the height of the game board in pixels.
+	 * 
+	 * @return the height of the board
+	 */
+	public int getBoardHeight() {
+		return boardHeight;
+	}
+
+	/**
+	 * Speeds up the game by one speed level, up to {@link #MAX_SPEED_LEVEL}. The
+	 * tick rate stays the same; Pacman and the ghosts cover more pixels per tick.
+	 */
+	public void increaseGameSpeed() {
+		setSpeedLevel(Math.min(MAX_SPEED_LEVEL, speedLevel + 1));
+	}
+
+	/**
+	 * Returns the current speed level, starting at 1.
+	 */
+	public int getSpeedLevel() {
+		return speedLevel;
+	}
+
+	/**
+	 * Sets the speed level and the speed of every entity to match, also for
+	 * restoring a snapshot.
+	 * 
+	 * @param speedLevel the level, from 1 to {@link #MAX_SPEED_LEVEL}
+	 */
+	void setSpeedLevel(int speedLevel) {
+		this.speedLevel = speedLevel;
+		entities.setSpeeds(getSpeed(speedLevel, tileSize));
+	}
+
+	/**
+	 * Gets the speed of a speed level: a quarter of a tile every 55 - 5 * level
+	 * milliseconds of game time, as pixels per tick in fixed point. Rounded up, so
+	 * the carried fraction never falls short of a whole pixel. Always less than a
+	 * tile per tick.
+	 * 
+	 * @param speedLevel the level, from 1 to {@link #MAX_SPEED_LEVEL}
+	 * @param tileSize   size of a tile in pixels
+	 * @return pixels per tick with {@link EntityStore#SUBPIXEL_BITS} fraction bits
+	 */
+	static int getSpeed(int speedLevel, int tileSize) {
+		long ticksPerQuarter = 4 * (55 - 5L * speedLevel) * GameClock.TICKS_PER_SECOND; // Times 1000
+		return (int) ((((tileSize * 1000L) << EntityStore.SUBPIXEL_BITS) + ticksPerQuarter - 1) / ticksPerQuarter);
+	}
+
+	/**
+	 * Restores all pellets to unconsumed state
+	 */
+	public void resetPellets() {
+		pellets.restoreAll();
+	}
+}
@@ -0,0 +1,254 @@
+package pacman;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+
+/**
+ * Connection to a room of a {@link GameServer}. Mirrors the room's game into a
+ * local board and controller, which are never ticked locally but only follow
+ * the STATE messages, so the usual renderer can draw them. The socket is
+ * non-blocking: {@link #poll()} applies whatever has arrived and returns at
+ * once, so a client can be driven by a Swing timer or many of them by one
+ * thread.
+ */
+public class GameClient implements Closeable {
+	private static final int MIN_INPUT_CAPACITY = 16 * 1024;
+
+	private final GameBoard board; // Local mirror of the room's board
+	private final GameController controller; // Local mirror of score, lives, level and game over
+	private final EntityStore entities;
+	private final PelletGrid pellets;
+	private final ArrayList<Ghost> ghosts;
+	private final SocketChannel channel;
+	private final ByteBuffer input; // Received bytes not handled yet, in write mode
+	private final ByteBuffer output = ByteBuffer.allocate(64); // Messages not sent yet, in write mode
+	private char sentDirection = ' '; // Direction last sent to the server
+	private boolean welcomed; // Whether WELCOME has been received
+	private long tick; // Tick of the last state received
+	private long states; // STATE messages received
+	private long bytesReceived;
+
+	/**
+	 * Connects to a server and joins a room. The board must be built from the same
+	 * map as the server's.
+	 *
+	 * @param address    the server's address
+	 * @param room       number of the room to join
+	 * @param board      board to mirror the room's game into
+	 * @param controller controller to mirror the score, lives, level and game
+	 *                   over into
+	 * @throws IOException if the connection fails
+	 */
+	public GameClient(InetSocketAddress address, int room, GameBoard board, GameController controller)
+			throws IOException {
+		this.board = board;
+		this.controller = controller;
+		this.entities = board.getEntities();
+		this.pellets = board.getPellets();
+		this.ghosts = board.getGhosts();
+		this.input = ByteBuffer.allocate(Math.max(2 * NetProtocol.maxStateFrame(board.getMap()), MIN_INPUT_CAPACITY));
+
+		channel = SocketChannel.open(address); // Connects blocking, then switches to non-blocking
+		channel.socket().setTcpNoDelay(true);
+		channel.configureBlocking(false);
+
+		int start = NetProtocol.beginFrame(output, NetProtocol.JOIN);
+		output.putInt(room);
+		NetProtocol.endFrame(output, start);
+		flush();
+	}
+
+	/**
+	 * Tells the server which direction is held, if it changed since the last
+	 * call.
+	 *
+	 * @param direction 'U', 'D', 'L', 'R', or ' ' if none
+	 * @throws IOException if sending fails
+	 */
+	public void sendDirection(char direction) throws IOException {
+		if (direction == sentDirection)
+			return;
+		if (output.remaining() < NetProtocol.HEADER_BYTES + 1)
+			throw new IOException("Server is not reading input");
+		sentDirection = direction;
+		int start = NetProtocol.beginFrame(output, NetProtocol.INPUT);
+		output.put((byte) direction);
+		NetProtocol.endFrame(output, start);
+		flush();
+	}
+
+	/**
+	 * Reads whatever the server has sent and applies every complete message to
+	 * the mirrored game, without waiting.
+	 *
+	 * @return the number of STATE messages applied
+	 * @throws IOException if the connection fails, is closed by the server, or
+	 *                     carries bad data
+	 */
+	public int poll() throws IOException {
+		if (output.position() > 0)
+			flush();
+
+		int applied = 0;
+		int read;
+		while ((read = channel.read(input)) > 0) {
+			bytesReceived += read;
+			input.flip();
+			applied += handleMessages();
+			input.compact();
+		}
+		if (read < 0)
+			throw new EOFException("Server closed the connection");
+		return applied;
+	}
+
+	/**
+	 * Handles the complete messages in the input buffer, which is in read mode.
+	 */
+	private int handleMessages() throws IOException {
+		int applied = 0;
+		while (input.remaining() >= 4) {
+			int length = input.getInt(input.position());
+			if (length < 1 || length > input.capacity() - 4)
+				throw new IOException("Bad frame length " + length);
+			if (input.remaining() < 4 + length)
+				break;
+			int end = input.position() + 4 + length;
+			input.getInt();
+			byte type = input.get();
+			if (type == NetProtocol.WELCOME) {
+				welcome();
+			} else if (type == NetProtocol.STATE && welcomed) {
+				try {
+					applyState();
+				} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+					throw new IOException("Bad state message", e);
+				}
+				applied++;
+			} else {
+				throw new IOException("Unexpected message type " + type);
+			}
+			if (input.position() != end)
+				throw new IOException("Bad message of type " + type);
+		}
+		return applied;
+	}
+
+	/**
+	 * Checks that the server's map matches the local board.
+	 */
+	private void welcome() throws IOException {
+		input.getInt(); // Room number
+		int columns = input.getInt();
+		int rows = input.getInt();
+		int count = input.getInt();
+		GameMap map = board.getMap();
+		if (columns != map.getColumns() || rows != map.getRows() || count != entities.getCount())
+			throw new IOException("Server plays a different map: " + columns + " x " + rows + " with " + count
+					+ " entities");
+		welcomed = true;
+	}
+
+	/**
+	 * Applies a STATE message to the mirrored game.
+	 */
+	private void applyState() {
+		states++;
+		tick = NetProtocol.getVarint(input);
+		int changes = input.get();
+
+		int score = controller.getScore();
+		int lives = controller.getLives();
+		int level = controller.getLevel();
+		boolean gameOver = controller.isGameOver();
+		if ((changes & NetProtocol.SCORE) != 0)
+			score = (int) NetProtocol.getVarint(input);
+		if ((changes & NetProtocol.LIVES) != 0)
+			lives = (int) NetProtocol.getVarint(input);
+		if ((changes & NetProtocol.LEVEL) != 0) {
+			level = (int) NetProtocol.getVarint(input);
+			// The server's speed rises with every level up to the cap
+			board.setSpeedLevel(Math.min(GameBoard.MAX_SPEED_LEVEL, level));
+		}
+		if ((changes & NetProtocol.GAME_OVER) != 0)
+			gameOver = input.get() != 0;
+		if (gameOver && !controller.isGameOver())
+			controller.getHighScore().submit(score);
+		controller.restore(score, lives, level, gameOver);
+
+		boolean keyframe = (changes & NetProtocol.KEYFRAME) != 0;
+		int moved = (int) NetProtocol.getVarint(input);
+		for (int n = 0; n < moved; n++) {
+			int i = (int) NetProtocol.getVarint(input);
+			int x = NetProtocol.getSignedVarint(input) + (keyframe ? 0 : entities.getX(i));
+			int y = NetProtocol.getSignedVarint(input) + (keyframe ? 0 : entities.getY(i));
+			entities.setPosition(i, x, y);
+			GameSnapshot.unpackState(entities, i, input.get());
+			if (i == EntityStore.PACMAN)
+				board.getPacman().updateSprite();
+			else
+				ghosts.get(i - EntityStore.FIRST_GHOST).updateSprite();
+		}
+
+		if ((changes & NetProtocol.PELLETS) != 0)
+			pellets.restoreAll();
+		int eaten = (int) NetProtocol.getVarint(input);
+		int tile = 0;
+		for (int n = 0; n < eaten; n++) {
+			tile += (int) NetProtocol.getVarint(input);
+			pellets.consume(tile);
+		}
+	}
+
+	/**
+	 * Writes pending messages as far as the socket takes them.
+	 */
+	private void flush() throws IOException {
+		output.flip();
+		channel.write(output);
+		output.compact();
+	}
+
+	/**
+	 * Closes the connection, which leaves the room.
+	 *
+	 * @throws IOException if closing fails
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Gets the server tick of the last state received.
+	 *
+	 * @return the tick
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gets the number of STATE messages received.
+	 *
+	 * @return the message count
+	 */
+	public long getStates() {
+		return states;
+	}
+
+	/**
+	 * Gets the number of bytes received from the server.
+	 *
+	 * @return the byte count
+	 */
+	public long getBytesReceived() {
+		return bytesReceived;
+	}
+}
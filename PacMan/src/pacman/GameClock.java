@@ -0,0 +1,65 @@
+package pacman;
+
+/**
+ * Game time counted in logic ticks rather than wall-clock milliseconds. Game
+ * rules schedule their timers here, so they expire after the same number of
+ * ticks however fast the game is simulated. Played live, the game ticks at the
+ * constant rate of {@value #TICKS_PER_SECOND} per second at every level; the
+ * level only changes how far entities move in a tick.
+ */
+public class GameClock {
+	/** Logic ticks per second of game time. */
+	public static final int TICKS_PER_SECOND = 60;
+	/** Length of a tick in nanoseconds, rounded down. */
+	public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+
+	private final TimerWheel timers = new TimerWheel(256); // Pending game timers
+	private long tick; // Number of ticks elapsed
+
+	/**
+	 * Advances the clock by one tick and fires the timers that are due.
+	 */
+	public void advance() {
+		tick++;
+		timers.advance(tick);
+	}
+
+	/**
+	 * Cancels every pending timer and rewinds the clock to tick zero, for a new
+	 * game.
+	 */
+	public void reset() {
+		timers.reset();
+		tick = 0;
+	}
+
+	/**
+	 * Cancels every pending timer and sets the clock to the given tick, for
+	 * restoring a snapshot. The snapshot's timers are scheduled again afterwards.
+	 *
+	 * @param tick the tick to continue from
+	 */
+	public void restore(long tick) {
+		timers.reset(tick);
+		this.tick = tick;
+	}
+
+	/**
+	 * Schedules a timer to fire after the given number of ticks.
+	 *
+	 * @param timer the timer to schedule
+	 * @param ticks delay in ticks
+	 */
+	public void schedule(GameTimer timer, long ticks) {
+		timers.schedule(timer, ticks);
+	}
+
+	/**
+	 * Gets the number of ticks elapsed.
+	 *
+	 * @return the current tick
+	 */
+	public long getTick() {
+		return tick;
+	}
+}
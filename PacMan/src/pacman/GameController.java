@@ -0,0 +1,646 @@
+package pacman;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Controls the game logic, including player movement, ghost behavior, collision
+ * detection, scoring, lives, and game state management.
+ */
+public class GameController {
+	// Durations of timed ghost states, in game ticks
+	static final int FRIGHTENED_TICKS = 6 * GameClock.TICKS_PER_SECOND;
+	static final int RESPAWN_TICKS = 3 * GameClock.TICKS_PER_SECOND;
+	// Ghosts alternate between scattering to their corners and chasing Pacman
+	static final int SCATTER_TICKS = 7 * GameClock.TICKS_PER_SECOND;
+	static final int CHASE_TICKS = 20 * GameClock.TICKS_PER_SECOND;
+	// Ghost count from which ghost movement is split into chunks across cores
+	static final int PARALLEL_GHOSTS = 256;
+	private static final int GHOST_CHUNK = 64; // Ghosts moved by one task
+	private static final int EVENT_CAPACITY = 256; // Events kept for consumers that fall behind
+
+	private int score; // Current player's score
+	private int lives; // Number of lives remaining
+	private int level; // Current level, increased each time the board is cleared
+	private boolean gameOver; // Flag to indicate if the game has ended
+
+	private final GameBoard board; // Reference to the game board and its entities
+	private final DirectionQueue directionQueue; // Tracks player input directions
+	private final GameClock clock; // Counts ticks and runs the game timers
+
+	private final HighScore highScore; // High score shared by the games of this run
+
+	private final GameEventRing events = new GameEventRing(EVENT_CAPACITY); // What happened, for other threads
+	private InputLog recording; // Input of the current game, or null when not recording
+	private TickMetrics metrics; // Receives phase timings and counters, or null when not measuring
+
+	private final GhostTask[] ghostTasks; // Ranges of ghost slots moved by one task each, null below PARALLEL_GHOSTS
+	private boolean ghostScatter; // Phase of the ghost pass in progress, read by the ghost tasks
+
+	/**
+	 * Initializes the controller with a game board, sound manager, a new game clock
+	 * and a high score of its own. Starts the player with 3 lives and zero score.
+	 */
+	public GameController(GameBoard board, SoundManager soundManager) {
+		this(board, soundManager, new GameClock(), new HighScore());
+	}
+
+	/**
+	 * Initializes the controller with a game board, sound manager, the game clock
+	 * its timers run on and the high score of the run it belongs to. Starts the
+	 * player with 3 lives and zero score. The sound manager follows the events of
+	 * the game.
+	 */
+	public GameController(GameBoard board, SoundManager soundManager, GameClock clock, HighScore highScore) {
+		this.board = board;
+		this.clock = clock;
+		this.highScore = highScore;
+		board.setClock(clock);
+		this.directionQueue = new DirectionQueue();
+		this.score = 0;
+		this.lives = 3;
+		this.level = 1;
+		this.gameOver = false;
+		soundManager.follow(events);
+
+		int count = board.getEntities().getCount();
+		if (count - EntityStore.FIRST_GHOST >= PARALLEL_GHOSTS) {
+			ghostTasks = new GhostTask[(count - EntityStore.FIRST_GHOST + GHOST_CHUNK - 1) / GHOST_CHUNK];
+			for (int i = 0; i < ghostTasks.length; i++) {
+				int from = EntityStore.FIRST_GHOST + i * GHOST_CHUNK;
+				ghostTasks[i] = new GhostTask(from, Math.min(count, from + GHOST_CHUNK));
+			}
+		} else {
+			ghostTasks = null;
+		}
+	}
+
+	/**
+	 * Starts a new game in place: the board, clock, score, lives and level return
+	 * to their starting values while every object, including the sound manager,
+	 * is kept. The high score of the run is kept too.
+	 */
+	public void reset() {
+		board.reset();
+		clock.reset();
+		directionQueue.clear();
+		score = 0;
+		lives = 3;
+		level = 1;
+		gameOver = false;
+		recording = null;
+	}
+
+	/**
+	 * Seeds the ghosts and starts recording the input of the game, so it can be
+	 * replayed exactly. Call before the first tick of a new game.
+	 *
+	 * @param seed seed for the ghosts' random generators
+	 */
+	public void startRecording(long seed) {
+		board.setSeed(seed);
+		recording = new InputLog(seed);
+	}
+
+	/**
+	 * Stops recording and stores the outcome of the game in the log.
+	 *
+	 * @return the input of the game, or null if it was not recorded
+	 */
+	public InputLog finishRecording() {
+		InputLog log = recording;
+		if (log != null)
+			log.finish(this);
+		recording = null;
+		return log;
+	}
+
+	/**
+	 * Main update method called on each game loop tick. - Stops if game is over. -
+	 * Records the positions the tick starts from. - Advances the game clock,
+	 * firing due timers. - Moves the player and consumes pellets, moves the
+	 * ghosts and checks collisions between player and ghosts, each once however
+	 * fast the entities are. - Resets and speeds up the game if all pellets are
+	 * eaten. - Publishes the events of the tick in one batch.
+	 */
+	public void update() {
+		if (gameOver) {
+			return; // Skip update logic if the game has ended
+		}
+
+		long start = metrics != null ? System.nanoTime() : 0;
+		board.getEntities().savePositions(); // For interpolation, and read by Inky
+		clock.advance();
+		if (recording != null)
+			recording.record(directionQueue.getCurrent());
+		long time = lap(TickMetrics.CLOCK, start);
+
+		handlePlayerMovement();
+		time = lap(TickMetrics.PLAYER, time);
+		handlePelletConsumption();
+		time = lap(TickMetrics.PELLETS, time);
+		handleGhostMovement();
+		time = lap(TickMetrics.GHOSTS, time);
+		checkCollisions();
+		lap(TickMetrics.COLLISIONS, time);
+
+		// When all pellets are consumed, reset and increase difficulty
+		if (allPelletsConsumed()) {
+			level++;
+			increaseGameSpeed();
+			board.resetPellets();
+			board.resetEntities();
+			addEvent(GameEvent.LEVEL_CLEARED, level);
+		}
+		events.publish();
+		lap(TickMetrics.TICK, start);
+	}
+
+	/**
+	 * Records the time since the given start as a phase, if measuring.
+	 *
+	 * @return the current time, the start of the next phase
+	 */
+	private long lap(int phase, long start) {
+		if (metrics == null)
+			return 0;
+		long now = System.nanoTime();
+		metrics.record(phase, now - start);
+		return now;
+	}
+
+	/**
+	 * Sets where phase timings and counters are recorded. Without metrics the tick
+	 * does not read the time at all.
+	 *
+	 * @param metrics the metrics, or null to stop measuring
+	 */
+	public void setMetrics(TickMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Checks if all pellets on the board are consumed, using the pellet counter.
+	 */
+	private boolean allPelletsConsumed() {
+		return board.getPellets().allConsumed();
+	}
+
+	/**
+	 * Instructs the board to increase the game speed (more pixels per tick).
+	 */
+	private void increaseGameSpeed() {
+		board.increaseGameSpeed();
+	}
+
+	/**
+	 * Processes one tick of player movement based on input directions. Uses
+	 * direction queue to get the latest direction key pressed. Moves the player
+	 * by a tick's worth of pixels within board boundaries, avoiding walls, and
+	 * updates the player's direction before setting off and at each tile reached
+	 * on the way.
+	 */
+	void handlePlayerMovement() {
+		if (gameOver)
+			return;
+
+		char held = directionQueue.getCurrent(); // Current direction from input
+		Player pacman = board.getPacman();
+		EntityStore entities = board.getEntities();
+		WallGrid walls = board.getWallGrid();
+		int width = board.getBoardWidth();
+		int height = board.getBoardHeight();
+
+		int pixels = entities.takePixels(EntityStore.PACMAN);
+		while (pixels > 0) {
+			if (held != ' ') {
+				pacman.updateDirection(held, walls); // Change direction if valid
+			}
+			int moved = entities.advance(EntityStore.PACMAN, pixels, walls, width, height);
+			if (moved == 0)
+				break; // Standing or against a wall
+			pixels -= moved;
+		}
+	}
+
+	/**
+	 * Checks if Pacman intersects with any pellets on the tiles it covers. Consumes
+	 * the pellet, triggers frightened mode if power pellet, increments score, and
+	 * adds the matching event.
+	 */
+	void handlePelletConsumption() {
+		if (gameOver)
+			return;
+
+		Player pacman = board.getPacman();
+		PelletGrid pellets = board.getPellets();
+
+		int tile;
+		while ((tile = pellets.consumeAt(pacman.getX(), pacman.getY(), pacman.getWidth(), pacman.getHeight())) >= 0) {
+			// If power pellet, set all ghosts to frightened state
+			boolean power = pellets.isPowerPellet(tile);
+			if (power) {
+				ArrayList<Ghost> ghosts = board.getGhosts();
+				for (int j = 0; j < ghosts.size(); j++) {
+					ghosts.get(j).setFrightened(true, FRIGHTENED_TICKS);
+				}
+			}
+			increaseScore(10); // Increase score for eating pellet
+			addEvent(power ? GameEvent.POWER_PELLET_EATEN : GameEvent.PELLET_EATEN, tile);
+			if (metrics != null)
+				metrics.addPelletsEaten(1);
+		}
+	}
+
+	/**
+	 * Moves every ghost on the board by a tick's worth of pixels, steered by its
+	 * strategy, skipping ghosts that are currently respawning. Runs over the ghost
+	 * slots of the entity store by index. Ghosts only read Pacman, who has already
+	 * moved, and the positions the other ghosts started the tick from, so from
+	 * {@link #PARALLEL_GHOSTS} ghosts on the slots are split into chunks run
+	 * across cores by tasks built once with the controller, and the outcome is
+	 * the same however the chunks are scheduled, and on one core. While chasing
+	 * on a maze without a distance table, the board's flow field is brought up to
+	 * date first, so the ghosts only read it.
+	 */
+	void handleGhostMovement() {
+		if (gameOver)
+			return;
+
+		boolean scatter = isScatterPhase();
+		if (!scatter && board.getDistances() == null)
+			updateFlowField();
+		if (ghostTasks != null && ForkJoinPool.getCommonPoolParallelism() > 1) {
+			ghostScatter = scatter;
+			runGhostTasks();
+		} else {
+			moveGhosts(EntityStore.FIRST_GHOST, board.getEntities().getCount(), scatter);
+		}
+	}
+
+	/**
+	 * Counts the flow field from Pacman's tile again if he has reached another
+	 * tile since the last search, once for all ghosts.
+	 */
+	private void updateFlowField() {
+		Player pacman = board.getPacman();
+		int tileSize = board.getTileSize();
+		board.updateFlowField(ClassicGhost.centreRow(pacman, tileSize), ClassicGhost.centreColumn(pacman, tileSize));
+	}
+
+	/**
+	 * Moves the ghosts in a range of slots that are not respawning by a tick's
+	 * worth of pixels each. A ghost steers before setting off and again at each
+	 * tile it reaches on the way, the only places where it can turn.
+	 */
+	private void moveGhosts(int from, int to, boolean scatter) {
+		EntityStore entities = board.getEntities();
+		ArrayList<Ghost> ghosts = board.getGhosts();
+		WallGrid walls = board.getWallGrid();
+		int width = board.getBoardWidth();
+		int height = board.getBoardHeight();
+		for (int i = from; i < to; i++) {
+			if (entities.hasFlag(i, EntityStore.RESPAWNING))
+				continue;
+
+			Ghost ghost = ghosts.get(i - EntityStore.FIRST_GHOST);
+			int pixels = entities.takePixels(i);
+			while (pixels > 0) {
+				ghost.steer(board, scatter); // Choose next move direction
+				int moved = entities.advance(i, pixels, walls, width, height);
+				if (moved == 0)
+					break; // Against a wall until the next tick
+				pixels -= moved;
+			}
+		}
+	}
+
+	/**
+	 * Runs every ghost task on the common pool, the game thread taking a share.
+	 * The tasks are reused from tick to tick, and the game thread never blocks in
+	 * a join, which allocates a wait node: it runs the tasks no worker has taken
+	 * yet itself and waits for the short ones a worker is running.
+	 */
+	private void runGhostTasks() {
+		for (int i = 1; i < ghostTasks.length; i++) {
+			ghostTasks[i].reinitialize();
+			ghostTasks[i].fork();
+		}
+		ghostTasks[0].reinitialize();
+		ghostTasks[0].invoke();
+		for (int i = ghostTasks.length - 1; i > 0; i--) {
+			GhostTask task = ghostTasks[i];
+			if (task.tryUnfork())
+				task.invoke(); // Not taken by a worker yet
+			else
+				while (!task.isDone())
+					Thread.yield(); // Lets the worker finish on a busy machine
+			task.join(); // Rethrows what the task threw
+		}
+	}
+
+	/**
+	 * Moves a range of at most {@link #GHOST_CHUNK} ghost slots in the phase of
+	 * the pass in progress. Each ghost only writes its own slot, so the ranges run
+	 * without locking.
+	 */
+	private final class GhostTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int from; // First slot of the range
+		private final int to; // Slot after the range
+
+		/**
+		 * Constructs a task for the slots from {@code from} up to {@code to}.
+		 */
+		GhostTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Moves the range.
+		 */
+		@Override
+		protected void compute() {
+			moveGhosts(from, to, ghostScatter);
+		}
+	}
+
+	/**
+	 * Checks whether the ghosts are in a scatter phase rather than chasing. Each
+	 * cycle starts with {@link #SCATTER_TICKS} of scatter followed by
+	 * {@link #CHASE_TICKS} of chase.
+	 * 
+	 * @return true while scattering
+	 */
+	boolean isScatterPhase() {
+		return clock.getTick() % (SCATTER_TICKS + CHASE_TICKS) < SCATTER_TICKS;
+	}
+
+	/**
+	 * Checks for collisions between Pacman and ghosts. If Pacman collides with a
+	 * frightened ghost, ghost is eaten and score increases. If Pacman collides with
+	 * a normal ghost, player loses a life. Overlaps are found with an indexed scan
+	 * of the entity store; respawning ghosts are off the board and never collide.
+	 */
+	void checkCollisions() {
+		if (gameOver)
+			return;
+
+		EntityStore entities = board.getEntities();
+		int hit = EntityStore.PACMAN;
+		while ((hit = entities.findOverlap(EntityStore.PACMAN, hit + 1)) >= 0) {
+			if (!entities.hasFlag(hit, EntityStore.RESPAWNING) && !collideWithGhost(hit)) {
+				if (metrics != null)
+					metrics.addCollisionTests(hit - EntityStore.PACMAN); // The scan stopped here
+				return;
+			}
+		}
+		if (metrics != null)
+			metrics.addCollisionTests(entities.getCount() - EntityStore.FIRST_GHOST);
+	}
+
+	/**
+	 * Handles Pacman running into the ghost in the given slot.
+	 *
+	 * @return false if Pacman lost a life, so no further ghosts are checked
+	 */
+	private boolean collideWithGhost(int slot) {
+		if (board.getEntities().hasFlag(slot, EntityStore.FRIGHTENED)) {
+			// Ghost is eaten and goes to respawn mode
+			board.getGhosts().get(slot - EntityStore.FIRST_GHOST).eatGhost(RESPAWN_TICKS, board.getBoardWidth(),
+					board.getBoardHeight());
+			increaseScore(200);
+			addEvent(GameEvent.GHOST_EATEN, slot);
+			return true;
+		}
+		// Pacman hit by a normal ghost - lose a life and reset or end game
+		loseLife();
+		return false; // Stop checking after losing life to avoid multiple deductions
+	}
+
+	/**
+	 * Handles key press input by mapping key codes to directions and adding them to
+	 * the direction queue.
+	 */
+	public void onKeyPress(int keyCode) {
+		char dir = mapKeyToDirection(keyCode);
+		if (dir != ' ') {
+			directionQueue.press(dir);
+		}
+	}
+
+	/**
+	 * Replaces the held directions with the given one, as if every other key had
+	 * been released. Used to feed recorded input back into the game.
+	 *
+	 * @param direction 'U', 'D', 'L', 'R', or ' ' to hold none
+	 */
+	public void holdDirection(char direction) {
+		if (directionQueue.getCurrent() == direction)
+			return;
+		directionQueue.clear();
+		if (direction != ' ')
+			directionQueue.press(direction);
+	}
+
+	/**
+	 * Gets the direction currently held by the player.
+	 * 
+	 * @return 'U', 'D', 'L', 'R', or ' ' if none
+	 */
+	public char getHeldDirection() {
+		return directionQueue.getCurrent();
+	}
+
+	/**
+	 * Handles key release input by removing direction from the direction queue.
+	 */
+	public void onKeyRelease(int keyCode) {
+		char dir = mapKeyToDirection(keyCode);
+		if (dir != ' ') {
+			directionQueue.release(dir);
+		}
+	}
+
+	/**
+	 * Maps key codes (arrows and WASD) to directional characters used internally:
+	 * 'U' = Up, 'D' = Down, 'L' = Left, 'R' = Right, ' ' = no direction.
+	 */
+	private char mapKeyToDirection(int keyCode) {
+		return switch (keyCode) {
+		case KeyEvent.VK_UP, KeyEvent.VK_W -> 'U';
+		case KeyEvent.VK_DOWN, KeyEvent.VK_S -> 'D';
+		case KeyEvent.VK_LEFT, KeyEvent.VK_A -> 'L';
+		case KeyEvent.VK_RIGHT, KeyEvent.VK_D -> 'R';
+		default -> ' ';
+		};
+	}
+
+	/**
+	 * Increases the player's score by a given amount.
+	 */
+	private void increaseScore(int amount) {
+		score += amount;
+	}
+
+	/**
+	 * Decrements player's lives. If no lives left, sets game over and updates high
+	 * score. If lives remain, resets entities. Adds the matching event.
+	 */
+	private void loseLife() {
+		if (lives > 0) {
+			lives--;
+
+			if (lives == 0) {
+				gameOver = true;
+				addEvent(GameEvent.GAME_OVER, score);
+
+				// Update the run's high score if current score exceeds it
+				highScore.submit(score);
+			} else {
+				board.resetEntities(); // Reset player and ghosts positions for new life
+			}
+
+			if (!gameOver)
+				addEvent(GameEvent.LIFE_LOST, lives);
+		}
+	}
+
+	/**
+	 * Adds an event of the current tick, published with the others at the end of
+	 * the tick.
+	 */
+	private void addEvent(GameEvent event, int value) {
+		events.add(event, clock.getTick(), value, score);
+	}
+
+	/**
+	 * Gets the events of the game, which consumers read on their own threads
+	 * through a reader or a {@link GameEventPump} each.
+	 * 
+	 * @return the event ring of this controller
+	 */
+	public GameEventRing getEvents() {
+		return events;
+	}
+
+	/**
+	 * Gets the current player's score.
+	 * 
+	 * @return the current score
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Gets the remaining number of lives the player has.
+	 * 
+	 * @return the number of lives left
+	 */
+	public int getLives() {
+		return lives;
+	}
+
+	/**
+	 * Checks whether the game is over.
+	 * 
+	 * @return true if the game is over, false otherwise
+	 */
+	public boolean isGameOver() {
+		return gameOver;
+	}
+
+	/**
+	 * Gets the game board the controller plays on.
+	 * 
+	 * @return the GameBoard
+	 */
+	public GameBoard getBoard() {
+		return board;
+	}
+
+	/**
+	 * Sets the score, lives, level and game over flag, for restoring a snapshot.
+	 */
+	void restore(int score, int lives, int level, boolean gameOver) {
+		this.score = score;
+		this.lives = lives;
+		this.level = level;
+		this.gameOver = gameOver;
+	}
+
+	/**
+	 * Gets the game clock the controller advances on every tick.
+	 * 
+	 * @return the GameClock
+	 */
+	public GameClock getClock() {
+		return clock;
+	}
+
+	/**
+	 * Gets the current level, starting at 1 and increased each time every pellet
+	 * has been eaten.
+	 * 
+	 * @return the current level
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Gets the high score of the run this game belongs to.
+	 * 
+	 * @return the HighScore shared by the games of this run
+	 */
+	public HighScore getHighScore() {
+		return highScore;
+	}
+
+	/**
+	 * Computes a 64-bit FNV-1a hash over the game state: score, lives, level,
+	 * tick, the position, direction and flags of every entity, and the live
+	 * pellets. Two games in the same state have the same hash, so it tells
+	 * whether a replay ended where the recorded game did.
+	 * 
+	 * @return the state hash
+	 */
+	public long getStateHash() {
+		long hash = 0xcbf29ce484222325L;
+		hash = mix(hash, score);
+		hash = mix(hash, lives);
+		hash = mix(hash, level);
+		hash = mix(hash, gameOver ? 1 : 0);
+		hash = mix(hash, clock.getTick());
+
+		EntityStore entities = board.getEntities();
+		for (int i = 0; i < entities.getCount(); i++) {
+			hash = mix(hash, entities.getX(i));
+			hash = mix(hash, entities.getY(i));
+			hash = mix(hash, entities.getDirection(i));
+			hash = mix(hash, entities.hasFlag(i, EntityStore.FRIGHTENED) ? 1 : 0);
+			hash = mix(hash, entities.hasFlag(i, EntityStore.RESPAWNING) ? 1 : 0);
+		}
+
+		PelletGrid pellets = board.getPellets();
+		for (int word = 0; word < pellets.getWordCount(); word++)
+			hash = mix(hash, pellets.getLiveWord(word));
+		return hash;
+	}
+
+	/**
+	 * Folds one value into an FNV-1a hash, a byte at a time.
+	 */
+	private static long mix(long hash, long value) {
+		for (int i = 0; i < 8; i++) {
+			hash ^= (value >>> (i * 8)) & 0xFF;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+}
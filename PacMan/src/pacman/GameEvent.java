@@ -0,0 +1,38 @@
+package pacman;
+
+/**
+ * Things that happen in a game and that parts of the program other than the
+ * game logic react to, such as sound, the HUD or statistics. The
+ * {@link GameController} publishes them through a {@link GameEventRing}. Each
+ * event carries one value whose meaning depends on its type, and the score
+ * after it happened.
+ */
+public enum GameEvent {
+	/** A pellet was eaten. The value is its tile. */
+	PELLET_EATEN,
+	/**
+	 * A power pellet was eaten and the ghosts became frightened. The value is its
+	 * tile.
+	 */
+	POWER_PELLET_EATEN,
+	/** A frightened ghost was eaten. The value is its slot in the entity store. */
+	GHOST_EATEN,
+	/** Pacman was caught with lives to spare. The value is the lives left. */
+	LIFE_LOST,
+	/** Every pellet was eaten and the board refilled. The value is the new level. */
+	LEVEL_CLEARED,
+	/** Pacman was caught on his last life. The value is the final score. */
+	GAME_OVER;
+
+	private static final GameEvent[] VALUES = values(); // Shared, values() copies the array
+
+	/**
+	 * Gets the event type of an ordinal, without allocating.
+	 *
+	 * @param ordinal the ordinal of the type
+	 * @return the event type
+	 */
+	static GameEvent of(int ordinal) {
+		return VALUES[ordinal];
+	}
+}
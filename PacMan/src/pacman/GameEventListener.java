@@ -0,0 +1,18 @@
+package pacman;
+
+/**
+ * Reacts to the events of a game, called by a {@link GameEventPump} on the
+ * consumer's own thread.
+ */
+public interface GameEventListener {
+
+	/**
+	 * Handles one event.
+	 *
+	 * @param event the event type
+	 * @param tick  tick of the game clock on which the event happened
+	 * @param value value of the event, see {@link GameEvent}
+	 * @param score score after the event
+	 */
+	void onEvent(GameEvent event, long tick, int value, int score);
+}
@@ -0,0 +1,94 @@
+package pacman;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands the events of a {@link GameEventRing} to a listener on a thread of its
+ * own, so whatever the listener does never runs on the game's tick. The thread
+ * drains every published event, then sleeps for {@value #IDLE_NANOS} ns when
+ * none is left. Consumers with a loop of their own can call {@link #drain()}
+ * from it instead of starting the thread.
+ */
+public class GameEventPump implements Runnable {
+	private static final long IDLE_NANOS = 1_000_000; // Pause when no event is pending
+
+	private final GameEventRing.Reader reader; // Position of this consumer in the ring
+	private final GameEventListener listener; // Receives the events
+	private volatile boolean running; // Cleared to stop the thread
+	private Thread thread; // Thread draining the ring, null unless started
+
+	/**
+	 * Constructs a pump for the events published from now on.
+	 *
+	 * @param events   the ring to read
+	 * @param listener the listener to hand the events to
+	 */
+	public GameEventPump(GameEventRing events, GameEventListener listener) {
+		this.reader = events.reader();
+		this.listener = listener;
+	}
+
+	/**
+	 * Starts the thread handing the events to the listener.
+	 *
+	 * @param name name of the thread
+	 */
+	public void start(String name) {
+		running = true;
+		thread = new Thread(this, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops the thread after the events it is handling.
+	 */
+	public void close() {
+		running = false;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+			try {
+				thread.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			thread = null;
+		}
+	}
+
+	/**
+	 * Pump loop: drains the ring, then sleeps briefly if it was empty.
+	 */
+	@Override
+	public void run() {
+		while (running) {
+			if (drain() == 0)
+				LockSupport.parkNanos(IDLE_NANOS);
+		}
+	}
+
+	/**
+	 * Hands every published event not yet read to the listener. Must only be
+	 * called by one thread at a time.
+	 *
+	 * @return the number of events handed over
+	 */
+	public int drain() {
+		int count = 0;
+		while (reader.poll()) {
+			listener.onEvent(reader.polledEvent(), reader.polledTick(), reader.polledValue(), reader.polledScore());
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the number of events this consumer missed because it fell too far
+	 * behind the game.
+	 *
+	 * @return the lost event count
+	 */
+	public long getLost() {
+		return reader.getLost();
+	}
+}
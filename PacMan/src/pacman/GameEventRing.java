@@ -0,0 +1,201 @@
+package pacman;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated ring of the events of one game, written by the thread running
+ * the game and read by any number of consumers on their own threads. The
+ * writer adds the events of a tick, then publishes them all at once with a
+ * single ordered store; it never waits for the readers, takes no lock and
+ * allocates nothing. Each {@link Reader} keeps its own position, so adding a
+ * consumer costs the writer nothing. A reader that falls more than the
+ * capacity behind has been lapped: it skips the overwritten events and counts
+ * them as lost, without holding up the game or the other readers.
+ */
+public class GameEventRing {
+	private final int capacity; // Number of slots, a power of two
+	private final int mask; // Capacity - 1, for cheap index wrapping
+	private final byte[] types; // Event type ordinal of each slot
+	private final long[] ticks; // Tick of each event
+	private final int[] values; // Value of each event
+	private final int[] scores; // Score after each event
+
+	private long written; // Positions the writer has filled, only touched by the writer
+	private final AtomicLong claimed = new AtomicLong(); // Positions the writer has started to fill
+	private final AtomicLong published = new AtomicLong(); // Positions readers may read
+
+	/**
+	 * Constructs an empty ring.
+	 *
+	 * @param capacity number of events kept for slow readers, a power of two
+	 */
+	public GameEventRing(int capacity) {
+		if (Integer.bitCount(capacity) != 1)
+			throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+
+		this.capacity = capacity;
+		mask = capacity - 1;
+		types = new byte[capacity];
+		ticks = new long[capacity];
+		values = new int[capacity];
+		scores = new int[capacity];
+	}
+
+	/**
+	 * Adds an event, which readers see once it is published. Must only be called
+	 * by the writer thread.
+	 *
+	 * @param event the event type
+	 * @param tick  tick of the game clock on which it happened
+	 * @param value value of the event, see {@link GameEvent}
+	 * @param score score after the event
+	 */
+	public void add(GameEvent event, long tick, int value, int score) {
+		long position = written++;
+		// Announce the slot before overwriting it, so a lapped reader notices
+		claimed.lazySet(position + 1);
+		VarHandle.storeStoreFence();
+
+		int index = (int) position & mask;
+		types[index] = (byte) event.ordinal();
+		ticks[index] = tick;
+		values[index] = value;
+		scores[index] = score;
+	}
+
+	/**
+	 * Makes every event added so far visible to the readers. Must only be called
+	 * by the writer thread.
+	 */
+	public void publish() {
+		if (published.get() != written)
+			published.lazySet(written);
+	}
+
+	/**
+	 * Creates a reader that sees the events published from now on.
+	 *
+	 * @return the new reader
+	 */
+	public Reader reader() {
+		return new Reader(published.get());
+	}
+
+	/**
+	 * Gets the number of events published so far.
+	 *
+	 * @return the published event count
+	 */
+	public long getPublished() {
+		return published.get();
+	}
+
+	/**
+	 * Reads the published events in order on one consumer thread.
+	 */
+	public final class Reader {
+		private long position; // Next position to read
+		private long available; // Published positions seen at the last check
+		private long lost; // Events overwritten before they were read
+
+		// Last event returned by poll, read by the consumer right afterwards
+		private GameEvent polledEvent;
+		private long polledTick;
+		private int polledValue;
+		private int polledScore;
+
+		/**
+		 * Constructs a reader starting at the given position.
+		 */
+		private Reader(long position) {
+			this.position = position;
+			this.available = position;
+		}
+
+		/**
+		 * Takes the oldest unread event, making it available through the polled
+		 * getters. Must only be called by the thread owning this reader.
+		 *
+		 * @return true if an event was taken, false if none is published
+		 */
+		public boolean poll() {
+			while (true) {
+				if (position >= available) {
+					available = published.get();
+					if (position >= available)
+						return false;
+				}
+
+				long oldest = claimed.get() - capacity;
+				if (position < oldest) {
+					lost += oldest - position; // Lapped by the writer
+					position = oldest;
+					continue;
+				}
+
+				int index = (int) position & mask;
+				int type = types[index];
+				long tick = ticks[index];
+				int value = values[index];
+				int score = scores[index];
+				VarHandle.loadLoadFence();
+				if (claimed.get() - capacity > position)
+					continue; // Overwritten while being read
+
+				polledEvent = GameEvent.of(type);
+				polledTick = tick;
+				polledValue = value;
+				polledScore = score;
+				position++;
+				return true;
+			}
+		}
+
+		/**
+		 * Gets the type of the event taken by the last successful poll.
+		 *
+		 * @return the event type
+		 */
+		public GameEvent polledEvent() {
+			return polledEvent;
+		}
+
+		/**
+		 * Gets the tick of the event taken by the last successful poll.
+		 *
+		 * @return the tick of the game clock
+		 */
+		public long polledTick() {
+			return polledTick;
+		}
+
+		/**
+		 * Gets the value of the event taken by the last successful poll.
+		 *
+		 * @return the value, see {@link GameEvent}
+		 */
+		public int polledValue() {
+			return polledValue;
+		}
+
+		/**
+		 * Gets the score after the event taken by the last successful poll.
+		 *
+		 * @return the score
+		 */
+		public int polledScore() {
+			return polledScore;
+		}
+
+		/**
+		 * Gets the number of events this reader missed because the writer lapped
+		 * it.
+		 *
+		 * @return the lost event count
+		 */
+		public long getLost() {
+			return lost;
+		}
+	}
+}
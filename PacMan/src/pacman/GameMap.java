@@ -0,0 +1,198 @@
+package pacman;
+
+import java.util.Arrays;
+
+/**
+ * A maze as read from a map file: its walls, the pellets a level starts with,
+ * and where Pacman and the ghosts start. A map is never changed once loaded, so
+ * any number of boards can be built from it; each board copies the pellets and
+ * shares the walls, the neighbour table and the distance table.
+ */
+public class GameMap {
+	/** Size of each tile in pixels. */
+	public static final int TILE_SIZE = 32;
+
+	private final int rows; // Number of tile rows
+	private final int columns; // Number of tile columns
+	private final WallGrid walls; // Wall tiles
+	private final PelletGrid pellets; // Pellets when a level starts
+	private int pacmanRow = -1; // Starting tile of Pacman, -1 until set
+	private int pacmanColumn = -1;
+	private int ghostCount; // Number of ghosts
+	private int[] ghostRows = new int[4]; // Starting tile of each ghost
+	private int[] ghostColumns = new int[4];
+	private char[] ghostKinds = new char[4]; // Map character of each ghost ('b', 'o', 'p', 'r')
+	private MazeDistances distances; // Shortest paths between tiles, built on first use
+	private boolean distancesBuilt; // Whether the distance table has been built, it may be null
+	private int[] neighbours; // Neighbour tile per tile and direction index, built on first use
+
+	/**
+	 * Constructs an empty map of the given dimensions, filled in by
+	 * {@link MapLoader}.
+	 */
+	GameMap(int rows, int columns) {
+		this.rows = rows;
+		this.columns = columns;
+		this.walls = new WallGrid(rows, columns, TILE_SIZE);
+		this.pellets = new PelletGrid(rows, columns, TILE_SIZE);
+	}
+
+	/**
+	 * Sets the starting tile of Pacman.
+	 */
+	void setPacman(int row, int column) {
+		pacmanRow = row;
+		pacmanColumn = column;
+	}
+
+	/**
+	 * Adds a ghost starting on the given tile.
+	 */
+	void addGhost(int row, int column, char kind) {
+		if (ghostCount == ghostKinds.length) {
+			ghostRows = Arrays.copyOf(ghostRows, ghostCount * 2);
+			ghostColumns = Arrays.copyOf(ghostColumns, ghostCount * 2);
+			ghostKinds = Arrays.copyOf(ghostKinds, ghostCount * 2);
+		}
+		ghostRows[ghostCount] = row;
+		ghostColumns[ghostCount] = column;
+		ghostKinds[ghostCount] = kind;
+		ghostCount++;
+	}
+
+	/**
+	 * Gets the shortest path table of the maze, built the first time it is asked
+	 * for and then shared by every board of this map.
+	 *
+	 * @return the distance table, or null if the maze is too large for one
+	 */
+	public synchronized MazeDistances getDistances() {
+		if (!distancesBuilt) {
+			distances = MazeDistances.build(walls);
+			distancesBuilt = true;
+		}
+		return distances;
+	}
+
+	/**
+	 * Gets the tile reached by one step from each tile in each direction, built
+	 * the first time it is asked for and then shared by every board of this map.
+	 * The entry of a tile and a direction index into
+	 * {@link MazeDistances#DIRECTIONS} is at {@code tile * 4 + direction}, -1 if a
+	 * wall is in the way. Stepping off an edge wraps around, like
+	 * {@link EntityStore#move}. The array must not be modified.
+	 *
+	 * @return the neighbour table
+	 */
+	synchronized int[] getNeighbours() {
+		if (neighbours == null) {
+			int tiles = rows * columns;
+			int[] table = new int[tiles * 4];
+			for (int tile = 0; tile < tiles; tile++) {
+				int row = tile / columns;
+				int column = tile % columns;
+				for (int d = 0; d < 4; d++) {
+					int nextRow = Math.floorMod(row + (d == 0 ? -1 : d == 2 ? 1 : 0), rows);
+					int nextColumn = Math.floorMod(column + (d == 1 ? -1 : d == 3 ? 1 : 0), columns);
+					boolean open = !walls.isWall(row, column) && !walls.isWall(nextRow, nextColumn);
+					table[tile * 4 + d] = open ? nextRow * columns + nextColumn : -1;
+				}
+			}
+			neighbours = table;
+		}
+		return neighbours;
+	}
+
+	/**
+	 * Gets the number of tile rows.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Gets the number of tile columns.
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Gets the wall tiles of the maze.
+	 *
+	 * @return the wall grid, shared by every board of this map
+	 */
+	public WallGrid getWalls() {
+		return walls;
+	}
+
+	/**
+	 * Gets the pellets a level starts with. Boards eat from a copy.
+	 *
+	 * @return the pellet layout
+	 */
+	public PelletGrid getPellets() {
+		return pellets;
+	}
+
+	/**
+	 * Gets the tile row Pacman starts on.
+	 *
+	 * @return the row
+	 */
+	public int getPacmanRow() {
+		return pacmanRow;
+	}
+
+	/**
+	 * Gets the tile column Pacman starts on.
+	 *
+	 * @return the column
+	 */
+	public int getPacmanColumn() {
+		return pacmanColumn;
+	}
+
+	/**
+	 * Gets the number of ghosts on the map.
+	 *
+	 * @return the ghost count
+	 */
+	public int getGhostCount() {
+		return ghostCount;
+	}
+
+	/**
+	 * Gets the tile row a ghost starts on.
+	 *
+	 * @param ghost index of the ghost, in map order
+	 * @return the row
+	 */
+	public int getGhostRow(int ghost) {
+		return ghostRows[ghost];
+	}
+
+	/**
+	 * Gets the tile column a ghost starts on.
+	 *
+	 * @param ghost index of the ghost, in map order
+	 * @return the column
+	 */
+	public int getGhostColumn(int ghost) {
+		return ghostColumns[ghost];
+	}
+
+	/**
+	 * Gets the map character of a ghost, which decides its colour and strategy.
+	 *
+	 * @param ghost index of the ghost, in map order
+	 * @return 'b', 'o', 'p' or 'r'
+	 */
+	public char getGhostKind(int ghost) {
+		return ghostKinds[ghost];
+	}
+}
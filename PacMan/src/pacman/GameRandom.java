@@ -0,0 +1,85 @@
+package pacman;
+
+/**
+ * Random generator of the ghosts. Produces exactly the sequences of
+ * {@link java.util.Random} for the same seed, but its 48-bit state can be read
+ * and restored, so a snapshot of the game includes where every generator is.
+ * Not thread-safe; each ghost owns one.
+ */
+public class GameRandom {
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	private long state; // Current 48-bit state of the linear congruential generator
+
+	/**
+	 * Constructs a generator with the given seed.
+	 *
+	 * @param seed the seed, scrambled as {@link java.util.Random#setSeed} does
+	 */
+	public GameRandom(long seed) {
+		setSeed(seed);
+	}
+
+	/**
+	 * Reseeds the generator.
+	 *
+	 * @param seed the seed, scrambled as {@link java.util.Random#setSeed} does
+	 */
+	public void setSeed(long seed) {
+		state = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	/**
+	 * Gets the raw state of the generator.
+	 *
+	 * @return the 48-bit state
+	 */
+	public long getState() {
+		return state;
+	}
+
+	/**
+	 * Sets the raw state of the generator, as returned by {@link #getState()}.
+	 *
+	 * @param state the 48-bit state
+	 */
+	public void setState(long state) {
+		this.state = state & MASK;
+	}
+
+	/**
+	 * Advances the generator and returns its top bits.
+	 */
+	private int next(int bits) {
+		state = (state * MULTIPLIER + ADDEND) & MASK;
+		return (int) (state >>> (48 - bits));
+	}
+
+	/**
+	 * Returns a uniformly distributed value between zero and the bound.
+	 *
+	 * @param bound upper bound (exclusive), positive
+	 * @return the next value, as {@link java.util.Random#nextInt(int)} would
+	 */
+	public int nextInt(int bound) {
+		int r = next(31);
+		int m = bound - 1;
+		if ((bound & m) == 0) // Power of two
+			return (int) ((bound * (long) r) >> 31);
+		for (int u = r; u - (r = u % bound) + m < 0; u = next(31))
+			;
+		return r;
+	}
+
+	/**
+	 * Returns a uniformly distributed value between 0.0 and 1.0.
+	 *
+	 * @return the next value, as {@link java.util.Random#nextDouble()} would
+	 */
+	public double nextDouble() {
+		return (((long) next(26) << 27) + next(27)) * DOUBLE_UNIT;
+	}
+}
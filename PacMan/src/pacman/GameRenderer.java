@@ -0,0 +1,116 @@
+package pacman;
+
+import java.awt.*;
+import java.util.ArrayList;
+
+/**
+ * Draws a complete frame of the game: the cached board layers, Pacman, ghosts,
+ * the UI (score, speed, lives, a status message) and the game over messages.
+ * Shared by the Swing panel and the active-rendering canvas.
+ */
+public class GameRenderer {
+	// Fonts used for the UI, created once instead of on every frame
+	static final int HEART_SIZE = 20; // Size of each life icon in pixels
+	private static final Font HUD_FONT = new Font("Arial", Font.PLAIN, 18);
+	private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 36);
+	private static final Font SUBTITLE_FONT = new Font("Arial", Font.PLAIN, 24);
+	private static final Font STATUS_FONT = new Font("Arial", Font.PLAIN, 12);
+
+	private final GameBoard board; // Holds game objects and board state
+	private final GameController controller; // Source of score, lives and game state
+	private final BoardRenderer boardRenderer; // Draws the cached maze and pellet layers
+	private final Image heartImage; // Icon representing player lives
+	private volatile String status = ""; // Short message shown at the top, empty for none
+
+	/**
+	 * Constructs a renderer for the given board and controller.
+	 *
+	 * @param board      the game board to draw
+	 * @param controller the controller holding score, lives and game state
+	 * @param heartImage icon used to show the remaining lives
+	 */
+	public GameRenderer(GameBoard board, GameController controller, Image heartImage) {
+		this.board = board;
+		this.controller = controller;
+		this.boardRenderer = new BoardRenderer(board);
+		this.heartImage = heartImage;
+	}
+
+	/**
+	 * Renders all game elements: the cached maze and pellet layers, Pacman, ghosts,
+	 * UI (score, speed, lives), and game over messages if applicable. Moving
+	 * entities are drawn between their previous and current positions.
+	 *
+	 * @param g          the Graphics context to paint on
+	 * @param width      width of the drawing surface in pixels
+	 * @param height     height of the drawing surface in pixels
+	 * @param speedLevel speed level to display
+	 * @param alpha      fraction of the way from the previous tick's positions to
+	 *                   the current ones, 1 to draw the current positions
+	 */
+	public void render(Graphics g, int width, int height, int speedLevel, float alpha) {
+		// Draw the pre-rendered walls and the incrementally updated pellets
+		boardRenderer.draw(g);
+
+		// Draw main character
+		board.getPacman().draw(g, alpha);
+
+		// Draw all ghosts in their current states and positions
+		ArrayList<Ghost> ghosts = board.getGhosts();
+		for (int i = 0; i < ghosts.size(); i++) {
+			ghosts.get(i).draw(g, alpha);
+		}
+
+		// Draw score in white, top-left corner
+		g.setColor(Color.WHITE);
+		g.setFont(HUD_FONT);
+		g.drawString("Score: " + controller.getScore(), 10, 20);
+
+		// Draw current speed level in yellow, bottom-left corner
+		g.setColor(Color.YELLOW);
+		g.drawString("Speed: " + speedLevel, 10, board.getBoardHeight() - 10);
+
+		// Draw the status message in grey, centred at the top
+		String statusMessage = status;
+		if (!statusMessage.isEmpty()) {
+			g.setColor(Color.GRAY);
+			g.setFont(STATUS_FONT);
+			g.drawString(statusMessage, (width - g.getFontMetrics().stringWidth(statusMessage)) / 2, 20);
+		}
+
+		// Draw player lives as heart icons in the top-right corner
+		int heartSize = HEART_SIZE;
+		for (int i = 0; i < controller.getLives(); i++) {
+			g.drawImage(heartImage, width - (heartSize * (i + 1)) - 10, 10, heartSize, heartSize, null);
+		}
+
+		// If the game is over, display centered "Game Over" and high score messages
+		if (controller.isGameOver()) {
+			g.setColor(Color.WHITE);
+			g.setFont(TITLE_FONT);
+			String message = "Game Over";
+			FontMetrics fm = g.getFontMetrics();
+			int x = (width - fm.stringWidth(message)) / 2;
+			int y = height / 2 - 40;
+			g.drawString(message, x, y);
+
+			// Draw high score slightly below the game over text
+			String highScoreMessage = "High Score: " + controller.getHighScore().get();
+			g.setFont(SUBTITLE_FONT);
+			fm = g.getFontMetrics();
+			x = (width - fm.stringWidth(highScoreMessage)) / 2;
+			y = height / 2 - 10;
+			g.drawString(highScoreMessage, x, y);
+		}
+	}
+
+	/**
+	 * Sets the status message shown at the top of the board until it is replaced,
+	 * such as the outcome of saving a replay. Safe to call from any thread.
+	 *
+	 * @param message the message, or an empty string to show none
+	 */
+	public void setStatus(String message) {
+		status = message;
+	}
+}
@@ -0,0 +1,451 @@
+package pacman;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Authoritative game server. Runs one headless game per room on a single
+ * thread, and talks to its {@link GameClient}s over non-blocking sockets with
+ * one selector. Clients join a room by number, creating it if needed, and send
+ * the direction they hold; the room's game ticks at the fixed game tick rate
+ * and sends every client in it a STATE delta after each tick (see
+ * {@link NetProtocol}). Everyone in a room steers the same Pacman, the last
+ * direction received winning. A room restarts its game shortly after it is
+ * over and closes when its last client leaves.
+ * <p>
+ * The whole server is one thread, so it uses one core; to use more, run one
+ * server per core. Ticking, encoding and broadcasting allocate nothing; a
+ * client too slow to take its deltas is disconnected rather than buffered for.
+ */
+public class GameServer implements Runnable {
+	public static final int DEFAULT_PORT = 7777;
+
+	private static final int RESTART_TICKS = 3 * GameClock.TICKS_PER_SECOND; // Ticks a finished game is shown before it restarts
+	private static final int MAX_CATCH_UP = 5; // Ticks a room may run back to back after a stall
+	private static final int INPUT_CAPACITY = 64; // Client messages are a few bytes
+
+	private final GameMap map; // Map every room plays on
+	private final Selector selector;
+	private final ServerSocketChannel server;
+	private final ByteBuffer frame; // Frame being sent, encoded once per room and tick
+	private final int outputCapacity; // Bytes buffered for a slow client before it is dropped
+	private final HashMap<Integer, Room> rooms = new HashMap<>(); // Open rooms by number
+	private final ArrayList<Room> roomList = new ArrayList<>(); // Open rooms, for ticking
+	private volatile boolean running = true; // Cleared by stop()
+
+	// Statistics, written by the server thread only
+	private volatile long roomTicks; // Ticks run over all rooms
+	private volatile long tickNanos; // Time spent ticking, encoding and sending
+	private volatile long bytesSent; // Bytes written to clients
+	private volatile int clients; // Clients connected
+	private volatile int openRooms; // Rooms open
+
+	/**
+	 * One game and the clients watching it.
+	 */
+	private static final class Room {
+		final int number; // Number clients join by
+		final HeadlessGame game;
+		final StateEncoder encoder;
+		final ArrayList<Connection> members = new ArrayList<>();
+		char direction = ' '; // Direction held for Pacman
+		long nextTick; // System.nanoTime() at which the next tick is due
+		int overTicks; // Ticks since the game ended
+
+		/**
+		 * Constructs a room with a new game.
+		 */
+		Room(int number, GameMap map) {
+			this.number = number;
+			this.game = new HeadlessGame(map, ThreadLocalRandom.current().nextLong(), new HighScore());
+			this.encoder = new StateEncoder(game.getController());
+		}
+	}
+
+	/**
+	 * One connected client.
+	 */
+	private static final class Connection {
+		final SocketChannel channel;
+		final SelectionKey key;
+		final ByteBuffer input = ByteBuffer.allocate(INPUT_CAPACITY);
+		final ByteBuffer output; // Frames not written yet, in write mode
+		Room room; // Room joined, or null
+
+		/**
+		 * Constructs the connection state of an accepted channel.
+		 */
+		Connection(SocketChannel channel, SelectionKey key, int outputCapacity) {
+			this.channel = channel;
+			this.key = key;
+			this.output = ByteBuffer.allocateDirect(outputCapacity);
+		}
+	}
+
+	/**
+	 * Opens a server for games on the given map, listening on all interfaces.
+	 *
+	 * @param map  the map every room plays on
+	 * @param port TCP port, or 0 for any free port
+	 * @throws IOException if the port cannot be opened
+	 */
+	public GameServer(GameMap map, int port) throws IOException {
+		this(map, new InetSocketAddress(port));
+	}
+
+	/**
+	 * Opens a server for games on the given map.
+	 *
+	 * @param map     the map every room plays on
+	 * @param address address to listen on
+	 * @throws IOException if the address cannot be bound
+	 */
+	public GameServer(GameMap map, InetSocketAddress address) throws IOException {
+		this.map = map;
+		int maxFrame = NetProtocol.maxStateFrame(map);
+		this.frame = ByteBuffer.allocateDirect(maxFrame);
+		this.outputCapacity = Math.max(2 * maxFrame, 16 * 1024);
+		this.selector = Selector.open();
+		this.server = ServerSocketChannel.open();
+		server.bind(address);
+		server.configureBlocking(false);
+		server.register(selector, SelectionKey.OP_ACCEPT);
+	}
+
+	/**
+	 * Gets the port the server listens on.
+	 *
+	 * @return the local port
+	 * @throws IOException if the port cannot be read
+	 */
+	public int getPort() throws IOException {
+		return ((InetSocketAddress) server.getLocalAddress()).getPort();
+	}
+
+	/**
+	 * Runs the server until {@link #stop()} is called, then closes every
+	 * connection.
+	 */
+	@Override
+	public void run() {
+		try {
+			while (running) {
+				long wait = tickRooms(System.nanoTime());
+				if (wait <= 0)
+					selector.selectNow();
+				else
+					selector.select(Math.max(1, wait / 1_000_000));
+				handleSelected();
+			}
+		} catch (IOException e) {
+			System.err.println("Game server stopped: " + e.getMessage());
+		} finally {
+			for (SelectionKey key : selector.keys()) {
+				try {
+					key.channel().close();
+				} catch (IOException e) {
+					// Closing anyway
+				}
+			}
+			try {
+				selector.close();
+			} catch (IOException e) {
+				// Closing anyway
+			}
+		}
+	}
+
+	/**
+	 * Makes {@link #run()} return. Safe to call from any thread.
+	 */
+	public void stop() {
+		running = false;
+		selector.wakeup();
+	}
+
+	/**
+	 * Runs the ticks that are due in every room.
+	 *
+	 * @return nanoseconds until the next tick is due, or a second if no room is
+	 *         open
+	 */
+	private long tickRooms(long now) {
+		long next = now + 1_000_000_000L;
+		long start = System.nanoTime();
+		int ticks = 0;
+		for (int i = roomList.size() - 1; i >= 0; i--) { // Backwards, as a room closes when its last client drops
+			Room room = roomList.get(i);
+			for (int n = 0; now - room.nextTick >= 0 && n < MAX_CATCH_UP; n++) {
+				tick(room);
+				room.nextTick += GameClock.TICK_NANOS;
+				ticks++;
+			}
+			if (now - room.nextTick >= 0)
+				room.nextTick = now; // Give up catching up after a stall
+			if (room.nextTick - next < 0)
+				next = room.nextTick;
+		}
+		if (ticks > 0) {
+			roomTicks += ticks;
+			tickNanos += System.nanoTime() - start;
+		}
+		return next - now;
+	}
+
+	/**
+	 * Runs one tick of a room's game and sends the delta to its members.
+	 */
+	private void tick(Room room) {
+		GameController controller = room.game.getController();
+		if (controller.isGameOver()) {
+			if (++room.overTicks < RESTART_TICKS)
+				return;
+			room.overTicks = 0;
+			room.game.reset(ThreadLocalRandom.current().nextLong());
+		} else {
+			controller.holdDirection(room.direction);
+			controller.update();
+		}
+
+		frame.clear();
+		room.encoder.encodeDelta(frame);
+		frame.flip();
+		for (int i = room.members.size() - 1; i >= 0; i--) // Backwards, as send may remove the member
+			send(room.members.get(i), frame);
+	}
+
+	/**
+	 * Handles the channels the selector found ready.
+	 */
+	private void handleSelected() throws IOException {
+		Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+		while (keys.hasNext()) {
+			SelectionKey key = keys.next();
+			keys.remove();
+			if (!key.isValid())
+				continue;
+			if (key.isAcceptable()) {
+				accept();
+				continue;
+			}
+			Connection connection = (Connection) key.attachment();
+			try {
+				if (key.isReadable())
+					read(connection);
+				if (key.isValid() && key.isWritable())
+					flush(connection);
+			} catch (IOException e) {
+				disconnect(connection);
+			}
+		}
+	}
+
+	/**
+	 * Accepts a waiting client.
+	 */
+	private void accept() throws IOException {
+		SocketChannel channel = server.accept();
+		if (channel == null)
+			return;
+		channel.configureBlocking(false);
+		channel.socket().setTcpNoDelay(true); // Deltas are small and due now
+		SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+		key.attach(new Connection(channel, key, outputCapacity));
+		clients++;
+	}
+
+	/**
+	 * Reads what a client sent and handles every complete message.
+	 */
+	private void read(Connection connection) throws IOException {
+		ByteBuffer input = connection.input;
+		if (connection.channel.read(input) < 0) {
+			disconnect(connection);
+			return;
+		}
+		input.flip();
+		while (input.remaining() >= 4 && connection.channel.isOpen()) {
+			int length = input.getInt(input.position());
+			if (length < 1 || length > INPUT_CAPACITY - 4)
+				throw new IOException("Bad frame length " + length);
+			if (input.remaining() < 4 + length)
+				break;
+			int end = input.position() + 4 + length;
+			input.getInt();
+			byte type = input.get();
+			if (type == NetProtocol.JOIN && length == 5) {
+				join(connection, input.getInt());
+			} else if (type == NetProtocol.INPUT && length == 2) {
+				char direction = (char) input.get();
+				if (connection.room != null && "UDLR ".indexOf(direction) >= 0)
+					connection.room.direction = direction;
+			} else {
+				throw new IOException("Bad message type " + type);
+			}
+			input.position(end);
+		}
+		input.compact();
+	}
+
+	/**
+	 * Moves a client into a room, creating the room if needed, and sends it the
+	 * room's full state.
+	 */
+	private void join(Connection connection, int number) {
+		leave(connection);
+		Room room = rooms.get(number);
+		if (room == null) {
+			room = new Room(number, map);
+			room.nextTick = System.nanoTime() + GameClock.TICK_NANOS;
+			rooms.put(number, room);
+			roomList.add(room);
+			openRooms++;
+		}
+		room.members.add(connection);
+		connection.room = room;
+
+		frame.clear();
+		int start = NetProtocol.beginFrame(frame, NetProtocol.WELCOME);
+		frame.putInt(number);
+		frame.putInt(map.getColumns());
+		frame.putInt(map.getRows());
+		frame.putInt(room.game.getBoard().getEntities().getCount());
+		NetProtocol.endFrame(frame, start);
+		room.encoder.encodeKeyframe(frame);
+		frame.flip();
+		send(connection, frame);
+	}
+
+	/**
+	 * Takes a client out of its room, closing the room if it was the last.
+	 */
+	private void leave(Connection connection) {
+		Room room = connection.room;
+		if (room == null)
+			return;
+		room.members.remove(connection);
+		connection.room = null;
+		if (room.members.isEmpty()) {
+			rooms.remove(room.number);
+			roomList.remove(room);
+			openRooms--;
+		}
+	}
+
+	/**
+	 * Queues frames for a client and writes as much as the socket takes,
+	 * disconnecting the client if it has fallen too far behind.
+	 *
+	 * @param frames frames to send, left unchanged
+	 */
+	private void send(Connection connection, ByteBuffer frames) {
+		if (connection.output.remaining() < frames.remaining()) {
+			disconnect(connection);
+			return;
+		}
+		int position = frames.position();
+		connection.output.put(frames);
+		frames.position(position);
+		try {
+			flush(connection);
+		} catch (IOException e) {
+			disconnect(connection);
+		}
+	}
+
+	/**
+	 * Writes queued frames to a client, waiting for the socket to become
+	 * writable if it does not take them all.
+	 */
+	private void flush(Connection connection) throws IOException {
+		ByteBuffer output = connection.output;
+		output.flip();
+		bytesSent += connection.channel.write(output);
+		boolean pending = output.hasRemaining();
+		output.compact();
+		connection.key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+	}
+
+	/**
+	 * Closes a client's connection and takes it out of its room.
+	 */
+	private void disconnect(Connection connection) {
+		if (!connection.channel.isOpen())
+			return;
+		leave(connection);
+		connection.key.cancel();
+		try {
+			connection.channel.close();
+		} catch (IOException e) {
+			// Closing anyway
+		}
+		clients--;
+	}
+
+	/**
+	 * Gets the controller of a room's game, for checking clients against it once
+	 * the server has stopped.
+	 *
+	 * @param number the room number
+	 * @return the controller, or null if the room is not open
+	 */
+	GameController getRoomController(int number) {
+		Room room = rooms.get(number);
+		return room == null ? null : room.game.getController();
+	}
+
+	/**
+	 * Gets the number of open rooms.
+	 *
+	 * @return the room count
+	 */
+	public int getRoomCount() {
+		return openRooms;
+	}
+
+	/**
+	 * Gets the number of connected clients.
+	 *
+	 * @return the client count
+	 */
+	public int getClientCount() {
+		return clients;
+	}
+
+	/**
+	 * Gets the number of ticks run, summed over all rooms.
+	 *
+	 * @return the tick count
+	 */
+	public long getRoomTicks() {
+		return roomTicks;
+	}
+
+	/**
+	 * Gets the time spent running ticks, including encoding and sending the
+	 * deltas.
+	 *
+	 * @return the time in nanoseconds
+	 */
+	public long getTickNanos() {
+		return tickNanos;
+	}
+
+	/**
+	 * Gets the number of bytes written to clients.
+	 *
+	 * @return the byte count
+	 */
+	public long getBytesSent() {
+		return bytesSent;
+	}
+}
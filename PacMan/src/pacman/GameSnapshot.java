@@ -0,0 +1,217 @@
+package pacman;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+
+/**
+ * Saves the complete state of one game into a byte array and restores it. The
+ * layout only holds what changes while playing, packed tightly: the pellets as
+ * their live bits, positions as 16-bit values where the board is small enough,
+ * direction, movement and state flags of an entity in one byte, the fraction
+ * of a pixel each entity carries to the next tick, and each ghost's random
+ * generator and pending timers. Everything fixed by the map, such as sizes and
+ * starting positions, and the speeds, which follow from the speed level, are
+ * left out. For the classic maze a snapshot is 158 bytes.
+ * <p>
+ * A snapshot has the same length throughout a game and only fits the board it
+ * was taken from. Held keys are input rather than game state and are not part
+ * of it. Saving and restoring allocate nothing.
+ *
+ * <pre>
+ * int   score        byte  lives        int  level
+ * byte  game over    byte  speed level  long tick
+ * long  live pellet bits, one word per 64 tiles
+ * per entity, Pacman first:
+ *       x, y         16 bits each, or 32 on boards over 65535 pixels
+ *       state        bits 0-1 direction (U, L, D, R), bit 2 moving,
+ *                    bits 3-4 EntityStore flags
+ *       subpixel     16 bits, the fraction of a pixel carried over
+ * per ghost:
+ *       long  random generator state
+ *       short ticks until the frightened state ends, 0 if none
+ *       short ticks until the ghost respawns, 0 if none
+ * </pre>
+ */
+public class GameSnapshot {
+	// Little-endian views for reading and writing primitives in a byte array
+	private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class,
+			ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private static final int HEADER_BYTES = 4 + 1 + 4 + 1 + 1 + 8;
+	private static final int GHOST_BYTES = 8 + 2 + 2;
+	private static final int MOVING = 4; // State bit of an entity with a velocity
+	private static final int FLAG_SHIFT = 3; // Position of the EntityStore flags in the state byte
+
+	private final GameController controller; // Game whose state is saved
+	private final GameBoard board;
+	private final boolean wide; // Whether positions take 32 bits
+	private final int size; // Length of a snapshot in bytes
+
+	/**
+	 * Constructs a snapshot codec for the game of the given controller.
+	 *
+	 * @param controller the game to save and restore
+	 */
+	public GameSnapshot(GameController controller) {
+		this.controller = controller;
+		this.board = controller.getBoard();
+		this.wide = board.getBoardWidth() > 0xFFFF || board.getBoardHeight() > 0xFFFF;
+		int entityBytes = (wide ? 8 : 4) + 1 + 2;
+		this.size = HEADER_BYTES + board.getPellets().getWordCount() * 8
+				+ board.getEntities().getCount() * entityBytes + board.getGhosts().size() * GHOST_BYTES;
+	}
+
+	/**
+	 * Gets the length of every snapshot of this game.
+	 *
+	 * @return the snapshot size in bytes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Saves the game into a new array.
+	 *
+	 * @return the snapshot
+	 */
+	public byte[] save() {
+		byte[] snapshot = new byte[size];
+		save(snapshot);
+		return snapshot;
+	}
+
+	/**
+	 * Saves the game into the start of the given array.
+	 *
+	 * @param out array of at least {@link #size()} bytes
+	 */
+	public void save(byte[] out) {
+		if (out.length < size)
+			throw new IllegalArgumentException("Snapshot needs " + size + " bytes, got " + out.length);
+
+		int at = 0;
+		INT.set(out, at, controller.getScore());
+		out[at + 4] = (byte) controller.getLives();
+		INT.set(out, at + 5, controller.getLevel());
+		out[at + 9] = (byte) (controller.isGameOver() ? 1 : 0);
+		out[at + 10] = (byte) board.getSpeedLevel();
+		LONG.set(out, at + 11, controller.getClock().getTick());
+		at += HEADER_BYTES;
+
+		PelletGrid pellets = board.getPellets();
+		for (int word = 0; word < pellets.getWordCount(); word++, at += 8)
+			LONG.set(out, at, pellets.getLiveWord(word));
+
+		EntityStore entities = board.getEntities();
+		for (int i = 0; i < entities.getCount(); i++) {
+			if (wide) {
+				INT.set(out, at, entities.getX(i));
+				INT.set(out, at + 4, entities.getY(i));
+				at += 8;
+			} else {
+				SHORT.set(out, at, (short) entities.getX(i));
+				SHORT.set(out, at + 2, (short) entities.getY(i));
+				at += 4;
+			}
+			out[at] = (byte) packState(entities, i);
+			SHORT.set(out, at + 1, (short) entities.getSubpixel(i));
+			at += 3;
+		}
+
+		ArrayList<Ghost> ghosts = board.getGhosts();
+		for (int i = 0; i < ghosts.size(); i++, at += GHOST_BYTES) {
+			Ghost ghost = ghosts.get(i);
+			LONG.set(out, at, ghost.getRandom().getState());
+			SHORT.set(out, at + 8, (short) ghost.getFrightenedTicksLeft());
+			SHORT.set(out, at + 10, (short) ghost.getRespawnTicksLeft());
+		}
+	}
+
+	/**
+	 * Puts the game back into the state saved in the given array.
+	 *
+	 * @param in a snapshot of this game
+	 */
+	public void restore(byte[] in) {
+		if (in.length < size)
+			throw new IllegalArgumentException("Snapshot needs " + size + " bytes, got " + in.length);
+
+		int at = 0;
+		controller.restore((int) INT.get(in, at), in[at + 4], (int) INT.get(in, at + 5), in[at + 9] != 0);
+		board.setSpeedLevel(in[at + 10]); // Sets the speeds
+		controller.getClock().restore((long) LONG.get(in, at + 11)); // Cancels every timer
+		at += HEADER_BYTES;
+
+		PelletGrid pellets = board.getPellets();
+		for (int word = 0; word < pellets.getWordCount(); word++, at += 8)
+			pellets.setLiveWord(word, (long) LONG.get(in, at));
+
+		EntityStore entities = board.getEntities();
+		for (int i = 0; i < entities.getCount(); i++) {
+			if (wide) {
+				entities.setPosition(i, (int) INT.get(in, at), (int) INT.get(in, at + 4));
+				at += 8;
+			} else {
+				entities.setPosition(i, (char) (short) SHORT.get(in, at), (char) (short) SHORT.get(in, at + 2));
+				at += 4;
+			}
+			entities.savePosition(i);
+			unpackState(entities, i, in[at]);
+			entities.setSubpixel(i, (char) (short) SHORT.get(in, at + 1));
+			at += 3;
+		}
+		board.getPacman().updateSprite();
+
+		ArrayList<Ghost> ghosts = board.getGhosts();
+		for (int i = 0; i < ghosts.size(); i++, at += GHOST_BYTES) {
+			Ghost ghost = ghosts.get(i);
+			ghost.getRandom().setState((long) LONG.get(in, at));
+			ghost.restoreTimers((char) (short) SHORT.get(in, at + 8), (char) (short) SHORT.get(in, at + 10));
+			ghost.updateSprite();
+		}
+	}
+
+	/**
+	 * Packs the direction, movement and flags of an entity into the state byte
+	 * of a snapshot. Also used for entities sent by a {@link GameServer}.
+	 *
+	 * @param entities the entity store
+	 * @param index    index of the entity
+	 * @return the state byte
+	 */
+	static int packState(EntityStore entities, int index) {
+		int state = Math.max(0, MazeDistances.directionIndex(entities.getDirection(index)));
+		if (entities.getVelocityX(index) != 0 || entities.getVelocityY(index) != 0)
+			state |= MOVING;
+		if (entities.hasFlag(index, EntityStore.FRIGHTENED))
+			state |= EntityStore.FRIGHTENED << FLAG_SHIFT;
+		if (entities.hasFlag(index, EntityStore.RESPAWNING))
+			state |= EntityStore.RESPAWNING << FLAG_SHIFT;
+		return state;
+	}
+
+	/**
+	 * Applies a state byte made by {@link #packState(EntityStore, int)} to an
+	 * entity. Its position must already be set, as the velocity follows from the
+	 * direction.
+	 *
+	 * @param entities the entity store
+	 * @param index    index of the entity
+	 * @param state    the state byte
+	 */
+	static void unpackState(EntityStore entities, int index, int state) {
+		entities.setDirection(index, MazeDistances.DIRECTIONS[state & 3]);
+		if ((state & MOVING) != 0)
+			entities.updateVelocity(index);
+		else
+			entities.setVelocity(index, 0, 0);
+		int flags = state >>> FLAG_SHIFT;
+		entities.setFlag(index, EntityStore.FRIGHTENED, (flags & EntityStore.FRIGHTENED) != 0);
+		entities.setFlag(index, EntityStore.RESPAWNING, (flags & EntityStore.RESPAWNING) != 0);
+	}
+}
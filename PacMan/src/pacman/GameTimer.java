@@ -0,0 +1,57 @@
+package pacman;
+
+/**
+ * A reusable one-shot timer that can be scheduled on a {@link TimerWheel}. The
+ * timer is its own list node in the wheel, so scheduling and cancelling never
+ * allocate.
+ */
+public class GameTimer {
+	private final Runnable action; // Called when the timer expires
+
+	// Links and state managed by the TimerWheel
+	GameTimer next, previous; // Neighbours in the wheel slot
+	TimerWheel wheel; // Wheel this timer is scheduled on, or null
+	long deadline; // Tick at which the timer fires
+
+	/**
+	 * Constructs a timer that runs the given action when it expires.
+	 *
+	 * @param action the action to run on expiry
+	 */
+	public GameTimer(Runnable action) {
+		this.action = action;
+	}
+
+	/**
+	 * Checks whether the timer is waiting to fire.
+	 *
+	 * @return true if scheduled, false otherwise
+	 */
+	public boolean isScheduled() {
+		return wheel != null;
+	}
+
+	/**
+	 * Cancels the timer if it is scheduled.
+	 */
+	public void cancel() {
+		if (wheel != null)
+			wheel.cancel(this);
+	}
+
+	/**
+	 * Gets the tick at which the timer fires.
+	 *
+	 * @return the deadline tick, only meaningful while scheduled
+	 */
+	public long getDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * Runs the timer's action.
+	 */
+	void fire() {
+		action.run();
+	}
+}
@@ -0,0 +1,360 @@
+package pacman;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.awt.*;
+
+/**
+ * Represents a Ghost entity in the game. Ghosts move autonomously, can become
+ * frightened (vulnerable), and can respawn after being eaten.
+ */
+public class Ghost extends MovableEntity {
+	// Directions perpendicular to horizontal and vertical movement
+	private static final char[] VERTICAL = { 'U', 'D' };
+	private static final char[] HORIZONTAL = { 'L', 'R' };
+
+	private final GameRandom random; // Random generator for movement decisions
+	private GameClock clock; // Game clock the ghost's timers run on
+	private GhostStrategy strategy = GhostStrategy.RANDOM; // Chooses where the ghost heads for
+	private final GameTimer frightenedTimer = new GameTimer(this::endFrightened); // Ends frightened state
+	private final GameTimer respawnTimer = new GameTimer(this::respawn); // Ends respawn state
+
+	private Image scared; // Image to display when frightened
+
+	/**
+	 * Constructs a Ghost at given position with given size and images, in a new
+	 * slot of the entity store.
+	 * 
+	 * @param store      store holding the movement state
+	 * @param x          initial x-coordinate
+	 * @param y          initial y-coordinate
+	 * @param size       width and height (square)
+	 * @param upImage    image when facing up
+	 * @param downImage  image when facing down
+	 * @param leftImage  image when facing left
+	 * @param rightImage image when facing right
+	 * @param scared     image when frightened
+	 */
+	public Ghost(EntityStore store, int x, int y, int size, Image upImage, Image downImage, Image leftImage,
+			Image rightImage, Image scared) {
+		super(store, store.allocate(), x, y, size, size, 'R', upImage, downImage, leftImage, rightImage);
+		random = new GameRandom(ThreadLocalRandom.current().nextLong()); // Unseeded until setSeed is called
+		this.scared = scared;
+	}
+
+	/**
+	 * Updates the ghost's direction if possible. Checks collisions with walls
+	 * before confirming direction change. If new direction leads to collision,
+	 * reverts to previous direction.
+	 */
+	@Override
+	public void updateDirection(char newDir, WallGrid walls) {
+		// The store reverts direction and velocity if the turn runs into a wall
+		if (getStore().turn(getIndex(), newDir, walls))
+			updateSprite(); // No collision, update sprite to match new direction
+	}
+
+	/**
+	 * Chooses a movement direction randomly at times: - when ghost hits a wall - or
+	 * 10% chance on each tile it reaches to change direction, so it turns as
+	 * often at any speed. Movement is restricted to perpendicular directions: If
+	 * moving horizontally, next direction can only be vertical, and vice versa.
+	 */
+	public void randomMovement(WallGrid walls) {
+		EntityStore store = getStore();
+		int index = getIndex();
+		boolean canMove = !store.isBlocked(index, walls);
+		int tileSize = walls.getTileSize();
+		boolean aligned = store.getX(index) % tileSize == 0 && store.getY(index) % tileSize == 0;
+
+		// Change direction if collision ahead or randomly 10% of the time on a tile
+		if (!canMove || (aligned && random.nextDouble() < 0.1)) {
+			char currentDir = getDirection();
+			char[] possibleDirections;
+
+			// Restrict movement direction to perpendicular axis
+			if (currentDir == 'L' || currentDir == 'R') {
+				possibleDirections = VERTICAL;
+			} else { // currentDir == 'U' || currentDir == 'D'
+				possibleDirections = HORIZONTAL;
+			}
+
+			// Randomly pick one of the two possible directions
+			char nextDir = possibleDirections[random.nextInt(2)];
+			updateDirection(nextDir, walls);
+		}
+	}
+
+	/**
+	 * Steers the ghost towards the target of its strategy. Decisions are only made
+	 * when the ghost is aligned with a tile: it then takes the open neighbour
+	 * closest to the target, never turning back unless it is in a dead end. On
+	 * boards without a distance table, ghosts chase Pacman himself through the
+	 * board's flow field and have no corners to scatter to. Frightened ghosts,
+	 * ghosts without a target and scattering ghosts on boards without a distance
+	 * table fall back to random movement.
+	 * 
+	 * @param board   the game board
+	 * @param scatter true during scatter phases
+	 */
+	public void steer(GameBoard board, boolean scatter) {
+		WallGrid walls = board.getWallGrid();
+		MazeDistances maze = board.getDistances();
+		if (isFrightened() || (maze == null && scatter)) {
+			randomMovement(walls);
+			return;
+		}
+
+		// Read the slot once rather than through the getters
+		EntityStore store = getStore();
+		int index = getIndex();
+		int x = store.getX(index);
+		int y = store.getY(index);
+
+		int tileSize = walls.getTileSize();
+		if (x % tileSize != 0 || y % tileSize != 0) {
+			// Between tiles: keep going, unless something blocks the way
+			if (store.isBlocked(index, walls))
+				randomMovement(walls);
+			return;
+		}
+
+		boolean moving = store.getVelocityX(index) != 0 || store.getVelocityY(index) != 0;
+		int reverse = moving ? MazeDistances.directionIndex(store.getDirection(index)) ^ 2 : -1;
+		int tile = (y / tileSize) * walls.getColumns() + x / tileSize;
+		if (maze == null) {
+			followField(board.getFlowField(), tile, reverse, walls);
+			return;
+		}
+
+		int cell = maze.cellOfTile(tile);
+		int target = cell < 0 ? -1 : strategy.chooseTarget(this, board, scatter);
+		if (target < 0) {
+			randomMovement(walls);
+			return;
+		}
+
+		int best = -1;
+		int bestDistance = Integer.MAX_VALUE;
+		for (int d = 0; d < 4; d++) {
+			int next = maze.neighbour(cell, d);
+			if (d == reverse || next < 0)
+				continue;
+			int distance = maze.distance(next, target);
+			if (distance < bestDistance) {
+				best = d;
+				bestDistance = distance;
+			}
+		}
+		turn(best, reverse, walls);
+	}
+
+	/**
+	 * Takes the open neighbour of the ghost's tile that is closest to the source
+	 * of the flow field, never turning back unless in a dead end. Ties go the same
+	 * way as with a distance table. Wanders randomly if Pacman cannot be reached
+	 * from the tile.
+	 */
+	private void followField(FlowField field, int tile, int reverse, WallGrid walls) {
+		if (field == null || field.distance(tile) == FlowField.UNREACHABLE) {
+			randomMovement(walls); // Not searched yet, or cut off from Pacman
+			return;
+		}
+		int best = -1;
+		int bestDistance = Integer.MAX_VALUE;
+		for (int d = 0; d < 4; d++) {
+			int next = field.neighbour(tile, d);
+			if (d == reverse || next < 0)
+				continue;
+			int distance = field.distance(next);
+			if (distance < bestDistance) {
+				best = d;
+				bestDistance = distance;
+			}
+		}
+		turn(best, reverse, walls);
+	}
+
+	/**
+	 * Turns towards the chosen direction, or back if there was no choice.
+	 */
+	private void turn(int best, int reverse, WallGrid walls) {
+		if (best < 0)
+			best = reverse; // Dead end, turn back
+		if (best >= 0)
+			updateDirection(MazeDistances.DIRECTIONS[best], walls);
+	}
+
+	/**
+	 * Sets the strategy that chooses the ghost's targets.
+	 * 
+	 * @param strategy the strategy, {@link GhostStrategy#RANDOM} to wander
+	 */
+	public void setStrategy(GhostStrategy strategy) {
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Gets the strategy that chooses the ghost's targets.
+	 * 
+	 * @return the ghost's strategy
+	 */
+	public GhostStrategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * Reseeds the ghost's random generator so its movement can be reproduced.
+	 * 
+	 * @param seed the new seed
+	 */
+	public void setSeed(long seed) {
+		random.setSeed(seed);
+	}
+
+	/**
+	 * Gets the ghost's random generator, whose state is part of a snapshot.
+	 * 
+	 * @return the generator
+	 */
+	GameRandom getRandom() {
+		return random;
+	}
+
+	/**
+	 * Gets the number of ticks until the frightened state ends.
+	 * 
+	 * @return ticks left, or 0 if no frightened timer is pending
+	 */
+	int getFrightenedTicksLeft() {
+		return frightenedTimer.isScheduled() ? (int) (frightenedTimer.getDeadline() - clock.getTick()) : 0;
+	}
+
+	/**
+	 * Gets the number of ticks until the ghost respawns.
+	 * 
+	 * @return ticks left, or 0 if no respawn timer is pending
+	 */
+	int getRespawnTicksLeft() {
+		return respawnTimer.isScheduled() ? (int) (respawnTimer.getDeadline() - clock.getTick()) : 0;
+	}
+
+	/**
+	 * Schedules the ghost's timers again when a snapshot is restored. The clock
+	 * must already be at the snapshot's tick.
+	 * 
+	 * @param frightenedTicksLeft ticks until the frightened state ends, or 0
+	 * @param respawnTicksLeft    ticks until the ghost respawns, or 0
+	 */
+	void restoreTimers(int frightenedTicksLeft, int respawnTicksLeft) {
+		frightenedTimer.cancel();
+		respawnTimer.cancel();
+		if (frightenedTicksLeft > 0)
+			clock.schedule(frightenedTimer, frightenedTicksLeft);
+		if (respawnTicksLeft > 0)
+			clock.schedule(respawnTimer, respawnTicksLeft);
+	}
+
+	/**
+	 * Sets the game clock the ghost's frightened and respawn timers run on.
+	 * 
+	 * @param clock the game clock
+	 */
+	public void setClock(GameClock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Sets the frightened state for the ghost for a given duration. Only applies if
+	 * ghost is not currently respawning.
+	 * 
+	 * @param frightened    true to frighten, false to clear frightened
+	 * @param durationTicks duration in game ticks for frightened state
+	 */
+	public void setFrightened(boolean frightened, long durationTicks) {
+		if (!isRespawning()) {
+			getStore().setFlag(getIndex(), EntityStore.FRIGHTENED, frightened);
+			if (frightened)
+				clock.schedule(frightenedTimer, durationTicks);
+			else
+				frightenedTimer.cancel();
+		}
+	}
+
+	/**
+	 * Checks whether ghost is currently frightened. The state is cleared by a timer
+	 * when its duration expires.
+	 * 
+	 * @return true if frightened, false otherwise
+	 */
+	public boolean isFrightened() {
+		return getStore().hasFlag(getIndex(), EntityStore.FRIGHTENED);
+	}
+
+	/**
+	 * Called when ghost is eaten by Pacman. Parks the ghost just past the
+	 * bottom-right corner of the board, where it is neither drawn nor hit on a
+	 * board of any size, clears frightened state, and starts respawn timer.
+	 * 
+	 * @param durationTicks time in game ticks to respawn
+	 * @param boardWidth    width of the board in pixels
+	 * @param boardHeight   height of the board in pixels
+	 */
+	public void eatGhost(long durationTicks, int boardWidth, int boardHeight) {
+		setPosition(boardWidth, boardHeight); // Move ghost off the board
+		getStore().savePosition(getIndex()); // Leave at once rather than slide across the board
+		setFrightened(false, 0); // Clear frightened state
+		clock.schedule(respawnTimer, durationTicks);
+		getStore().setFlag(getIndex(), EntityStore.RESPAWNING, true);
+	}
+
+	/**
+	 * Checks if ghost is currently respawning. A timer returns the ghost to its
+	 * starting position when the respawn time has passed.
+	 * 
+	 * @return true if still respawning, false if active
+	 */
+	public boolean isRespawning() {
+		return getStore().hasFlag(getIndex(), EntityStore.RESPAWNING);
+	}
+
+	/**
+	 * Returns the ghost to its starting state for a new game: back at its starting
+	 * position, neither frightened nor respawning, with no timers pending.
+	 */
+	public void reset() {
+		frightenedTimer.cancel();
+		respawnTimer.cancel();
+		getStore().setFlag(getIndex(), EntityStore.FRIGHTENED | EntityStore.RESPAWNING, false);
+		resetPosition();
+	}
+
+	/**
+	 * Ends the frightened state when its timer expires.
+	 */
+	private void endFrightened() {
+		getStore().setFlag(getIndex(), EntityStore.FRIGHTENED, false);
+	}
+
+	/**
+	 * Ends the respawn state when its timer expires and places the ghost back at
+	 * its starting position.
+	 */
+	private void respawn() {
+		getStore().setFlag(getIndex(), EntityStore.RESPAWNING, false);
+		resetPosition(); // Place ghost back at starting position
+	}
+
+	/**
+	 * Draws the ghost on the screen. Displays frightened (scared) sprite if
+	 * frightened, otherwise shows normal sprite according to direction.
+	 */
+	@Override
+	public void draw(Graphics g, float alpha) {
+		if (isFrightened()) {
+			setCurrentSprite(scared);
+		} else {
+			updateSprite();
+		}
+		super.draw(g, alpha);
+	}
+}
@@ -0,0 +1,26 @@
+package pacman;
+
+/**
+ * Decides where a ghost heads for. The ghost asks its strategy for a target
+ * whenever it reaches the centre of a tile, then takes the step that brings it
+ * closest to that target according to the board's maze distances.
+ */
+public interface GhostStrategy {
+
+	/**
+	 * Strategy that never picks a target, leaving the ghost to wander randomly.
+	 */
+	GhostStrategy RANDOM = (ghost, board, scatter) -> -1;
+
+	/**
+	 * Chooses the cell the ghost should head for.
+	 * 
+	 * @param ghost   the ghost making the decision
+	 * @param board   the game board, with Pacman and the maze distances
+	 * @param scatter true during scatter phases, when ghosts retreat to their
+	 *                corners instead of chasing
+	 * @return the target cell index in the board's {@link MazeDistances}, or -1 to
+	 *         move randomly
+	 */
+	int chooseTarget(Ghost ghost, GameBoard board, boolean scatter);
+}
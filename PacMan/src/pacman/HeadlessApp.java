@@ -0,0 +1,64 @@
+package pacman;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Command line entry point that runs the game without a display and reports
+ * simulation throughput in ticks per second. Pac Man is steered by a random
+ * player; a new game starts whenever the previous one ends.
+ * <p>
+ * Usage: {@code java pacman.HeadlessApp [ticks] [seed] [map file]} (default
+ * one million ticks, random seed, the classic maze).
+ */
+public class HeadlessApp {
+	private static final int STEER_INTERVAL = 8; // Ticks between random key presses
+
+	/**
+	 * The main method runs the requested number of ticks and prints the results.
+	 */
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		long target = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+		GameMap map = MapLoader.classic();
+		if (args.length > 2) {
+			long loadStart = System.nanoTime();
+			map = MapLoader.load(Paths.get(args[2]));
+			System.out.printf("Loaded %d x %d map in %.1f ms%n", map.getColumns(), map.getRows(),
+					(System.nanoTime() - loadStart) / 1e6);
+		}
+
+		HighScore highScore = new HighScore();
+		HeadlessGame game = newGame(map, seed, highScore);
+		long total = 0;
+		int games = 1;
+
+		long start = System.nanoTime();
+		while (total < target) {
+			total += game.advance((int) Math.min(Integer.MAX_VALUE, target - total));
+
+			if (game.getController().isGameOver()) {
+				game.reset(seed + games); // Reuse the game instead of building a new one
+				game.setPlayer(new RandomPlayer(seed + games, STEER_INTERVAL));
+				games++;
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		highScore.submit(game.getController().getScore());
+
+		double seconds = elapsed / 1e9;
+		System.out.printf("Simulated %,d ticks in %.3f s (%,.0f ticks/s)%n", total, seconds, total / seconds);
+		System.out.printf("Games played: %d, best score: %d%n", games, highScore.get());
+	}
+
+	/**
+	 * Creates a seeded game driven by a random player.
+	 */
+	private static HeadlessGame newGame(GameMap map, long seed, HighScore highScore) {
+		HeadlessGame game = new HeadlessGame(map, seed, highScore);
+		game.setPlayer(new RandomPlayer(seed, STEER_INTERVAL));
+		return game;
+	}
+}
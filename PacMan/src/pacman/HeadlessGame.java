@@ -0,0 +1,143 @@
+package pacman;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+/**
+ * Display-free simulation core. Owns a game board and controller and advances
+ * the game logic tick by tick without Swing, image loading or audio, so that
+ * games can run as fast as the CPU allows.
+ */
+public class HeadlessGame {
+	// Shared placeholder sprite, never drawn but keeps entities fully initialised
+	private static final Image NO_SPRITE = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+	private final GameBoard board; // Holds game objects and board state
+	private final GameController controller; // Processes game logic and input handling
+	private SimulatedPlayer player; // Simulated player giving input before each tick, or null
+	private long ticks; // Number of ticks simulated so far
+
+	/**
+	 * Constructs a headless game with placeholder sprites and silent audio.
+	 */
+	public HeadlessGame() {
+		this(MapLoader.classic(), new HighScore());
+	}
+
+	/**
+	 * Constructs a headless game whose ghosts are seeded, so that the game plays
+	 * out identically for the same seed and input.
+	 *
+	 * @param seed      seed for the ghosts' random generators
+	 * @param highScore high score of the run the game belongs to
+	 */
+	public HeadlessGame(long seed, HighScore highScore) {
+		this(MapLoader.classic(), seed, highScore);
+	}
+
+	/**
+	 * Constructs a seeded headless game on the given map.
+	 *
+	 * @param map       the maze to play on
+	 * @param seed      seed for the ghosts' random generators
+	 * @param highScore high score of the run the game belongs to
+	 */
+	public HeadlessGame(GameMap map, long seed, HighScore highScore) {
+		this(map, highScore);
+		board.setSeed(seed);
+	}
+
+	/**
+	 * Constructs a headless game on the given map that belongs to the given run.
+	 */
+	private HeadlessGame(GameMap map, HighScore highScore) {
+		board = new GameBoard(map, NO_SPRITE, NO_SPRITE, NO_SPRITE, NO_SPRITE, NO_SPRITE, NO_SPRITE, NO_SPRITE,
+				NO_SPRITE, NO_SPRITE, NO_SPRITE);
+		controller = new GameController(board, SoundManager.silent(), new GameClock(), highScore);
+	}
+
+	/**
+	 * Starts a new game in place with a new seed, reusing the board and
+	 * controller. Plays out exactly like a new game constructed with that seed.
+	 *
+	 * @param seed seed for the ghosts' random generators
+	 */
+	public void reset(long seed) {
+		controller.reset();
+		board.setSeed(seed);
+		ticks = 0;
+	}
+
+	/**
+	 * Plays a recorded game again from the start, feeding the recorded direction
+	 * of every tick to the controller, as fast as the CPU allows. Check the
+	 * outcome with {@link InputLog#matches(GameController)}.
+	 *
+	 * @param log the recorded game
+	 * @return the number of ticks replayed
+	 */
+	public long replay(InputLog log) {
+		reset(log.getSeed());
+		player = null;
+		for (int run = 0; run < log.getRunCount() && !controller.isGameOver(); run++) {
+			controller.holdDirection(log.getRunDirection(run));
+			advance(log.getRunLength(run));
+		}
+		return ticks;
+	}
+
+	/**
+	 * Sets a simulated player that gets its turn before every tick.
+	 *
+	 * @param player the player, or null for no input
+	 */
+	public void setPlayer(SimulatedPlayer player) {
+		this.player = player;
+	}
+
+	/**
+	 * Advances the simulation by up to the given number of ticks, stopping early
+	 * if the game ends.
+	 *
+	 * @param count maximum number of ticks to simulate
+	 * @return the number of ticks actually simulated
+	 */
+	public int advance(int count) {
+		int done = 0;
+		while (done < count && !controller.isGameOver()) {
+			if (player != null)
+				player.play(controller);
+			controller.update();
+			done++;
+		}
+		ticks += done;
+		return done;
+	}
+
+	/**
+	 * Gets the game board driven by this simulation.
+	 *
+	 * @return the GameBoard
+	 */
+	public GameBoard getBoard() {
+		return board;
+	}
+
+	/**
+	 * Gets the controller driven by this simulation, e.g. to feed input.
+	 *
+	 * @return the GameController
+	 */
+	public GameController getController() {
+		return controller;
+	}
+
+	/**
+	 * Gets the number of ticks simulated so far.
+	 *
+	 * @return the tick count
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+}
@@ -0,0 +1,39 @@
+package pacman;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Best score of a run of games. Shared by every game of the run, e.g. all
+ * restarts in one window or all games of a batch simulation, and safe to update
+ * and merge from several threads.
+ */
+public class HighScore {
+	private final AtomicInteger best = new AtomicInteger(); // Highest score submitted so far
+
+	/**
+	 * Records a final score, keeping it if it beats the current high score.
+	 *
+	 * @param score the score to submit
+	 */
+	public void submit(int score) {
+		best.accumulateAndGet(score, Math::max);
+	}
+
+	/**
+	 * Merges the high score of another run into this one.
+	 *
+	 * @param other the high score to merge
+	 */
+	public void merge(HighScore other) {
+		submit(other.get());
+	}
+
+	/**
+	 * Gets the highest score submitted so far.
+	 *
+	 * @return the high score
+	 */
+	public int get() {
+		return best.get();
+	}
+}
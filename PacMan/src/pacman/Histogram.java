@@ -0,0 +1,139 @@
+package pacman;
+
+/**
+ * Fixed-width bucket histogram of non-negative values. Values beyond the last
+ * bucket are counted in an overflow bucket. Histograms filled on different
+ * threads can be merged afterwards.
+ */
+public class Histogram {
+	private final long bucketWidth; // Range of values covered by each bucket
+	private final long[] counts; // Count per bucket, the last one collects overflow
+	private long total; // Number of recorded values
+	private long sum; // Sum of recorded values
+	private long min = Long.MAX_VALUE; // Smallest recorded value
+	private long max = Long.MIN_VALUE; // Largest recorded value
+
+	/**
+	 * Constructs an empty histogram.
+	 *
+	 * @param bucketWidth range of values covered by each bucket
+	 * @param buckets     number of buckets before the overflow bucket
+	 */
+	public Histogram(long bucketWidth, int buckets) {
+		this.bucketWidth = bucketWidth;
+		this.counts = new long[buckets + 1];
+	}
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value the value to record
+	 */
+	public void record(long value) {
+		int bucket = (int) Math.min(counts.length - 1, Math.max(0, value) / bucketWidth);
+		counts[bucket]++;
+		total++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Adds the values recorded by another histogram with the same layout.
+	 *
+	 * @param other the histogram to merge
+	 */
+	public void merge(Histogram other) {
+		if (other.bucketWidth != bucketWidth || other.counts.length != counts.length)
+			throw new IllegalArgumentException("Histogram layouts differ");
+
+		for (int i = 0; i < counts.length; i++)
+			counts[i] += other.counts[i];
+		total += other.total;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Estimates the value below which the given fraction of values fall, as the
+	 * upper bound of the bucket containing it.
+	 *
+	 * @param fraction percentile as a fraction, e.g. 0.5 for the median
+	 * @return the estimated percentile, or 0 if nothing was recorded
+	 */
+	public long getPercentile(double fraction) {
+		if (total == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(fraction * total));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank)
+				return Math.min(max, (i + 1) * bucketWidth - 1);
+		}
+		return max;
+	}
+
+	/**
+	 * Gets the number of recorded values.
+	 *
+	 * @return the count
+	 */
+	public long getCount() {
+		return total;
+	}
+
+	/**
+	 * Gets the mean of the recorded values.
+	 *
+	 * @return the mean, or 0 if nothing was recorded
+	 */
+	public double getMean() {
+		return total == 0 ? 0 : (double) sum / total;
+	}
+
+	/**
+	 * Gets the smallest recorded value.
+	 *
+	 * @return the minimum, or 0 if nothing was recorded
+	 */
+	public long getMin() {
+		return total == 0 ? 0 : min;
+	}
+
+	/**
+	 * Gets the largest recorded value.
+	 *
+	 * @return the maximum, or 0 if nothing was recorded
+	 */
+	public long getMax() {
+		return total == 0 ? 0 : max;
+	}
+
+	/**
+	 * Renders the non-empty buckets as a text bar chart.
+	 *
+	 * @param label name of the recorded quantity
+	 * @return the chart, one line per bucket
+	 */
+	public String toChart(String label) {
+		StringBuilder out = new StringBuilder();
+		out.append(String.format("%s: n=%d mean=%.1f min=%d p50=%d p99=%d max=%d%n", label, total, getMean(),
+				getMin(), getPercentile(0.5), getPercentile(0.99), getMax()));
+
+		long largest = 1;
+		for (long count : counts)
+			largest = Math.max(largest, count);
+
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] == 0)
+				continue;
+			String range = i == counts.length - 1 ? String.format(">= %d", i * bucketWidth)
+					: String.format("%d-%d", i * bucketWidth, (i + 1) * bucketWidth - 1);
+			int bar = (int) Math.max(1, counts[i] * 40 / largest);
+			out.append(String.format("  %16s | %-40s %d%n", range, "#".repeat(bar), counts[i]));
+		}
+		return out.toString();
+	}
+}
@@ -0,0 +1,354 @@
+package pacman;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Everything needed to play a game again exactly: the seed of the ghosts and the
+ * direction held on every tick, plus the outcome to check a replay against.
+ * Ghost decisions only depend on the seed and timers only on the tick count, so
+ * a replay of the same input reaches the same state.
+ * <p>
+ * Held directions change rarely, so they are stored as runs. A log file is
+ * big-endian binary:
+ *
+ * <pre>
+ * int   magic 0x504D494C ("PMIL")
+ * byte  version (3)
+ * long  seed
+ * long  number of ticks
+ * int   number of runs
+ * runs  one byte direction (0 none, 1 'U', 2 'D', 3 'L', 4 'R') followed by
+ *       the run length in ticks as an unsigned LEB128 varint
+ * int   final score
+ * int   final lives
+ * int   final level
+ * byte  1 if the game was over, else 0
+ * long  final {@link GameController#getStateHash() state hash}
+ * </pre>
+ *
+ * A ten-minute game is 36,000 ticks and typically a few hundred runs, i.e.
+ * about a kilobyte. Version 3 logs come from games that move entities by a
+ * number of pixels per tick. Older logs, from when a tick was one step at the
+ * game speed (version 1) or a number of quarter-tile steps (version 2), do not
+ * replay and are rejected.
+ */
+public class InputLog {
+	/** Directory finished games are saved to, relative to the working directory. */
+	public static final Path REPLAY_DIRECTORY = Paths.get("replays");
+	// Writes logs in the background, one at a time, so a game thread never waits for the disk
+	private static final ExecutorService SAVER = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "replay-saver");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static final int MAGIC = 0x504D494C; // "PMIL"
+	private static final byte VERSION = 3;
+	private static final char[] DIRECTIONS = { ' ', 'U', 'D', 'L', 'R' }; // By direction code
+
+	private final long seed; // Seed of the ghosts' random generators
+	private byte[] runDirections = new byte[64]; // Direction code of each run
+	private int[] runLengths = new int[64]; // Ticks in each run
+	private int runCount; // Number of runs, including the open one
+	private long ticks; // Number of ticks recorded
+
+	// Outcome of the game, set by finish()
+	private int score;
+	private int lives;
+	private int level;
+	private boolean gameOver;
+	private long stateHash;
+
+	/**
+	 * Constructs an empty log for a game played with the given seed.
+	 *
+	 * @param seed seed of the ghosts' random generators
+	 */
+	public InputLog(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Records the direction held on one tick, extending the current run if it is
+	 * the same as on the previous tick.
+	 *
+	 * @param direction 'U', 'D', 'L', 'R', or ' ' if none
+	 */
+	public void record(char direction) {
+		byte code = code(direction);
+		if (runCount > 0 && runDirections[runCount - 1] == code && runLengths[runCount - 1] < Integer.MAX_VALUE) {
+			runLengths[runCount - 1]++;
+		} else {
+			if (runCount == runLengths.length) {
+				runDirections = Arrays.copyOf(runDirections, runCount * 2);
+				runLengths = Arrays.copyOf(runLengths, runCount * 2);
+			}
+			runDirections[runCount] = code;
+			runLengths[runCount] = 1;
+			runCount++;
+		}
+		ticks++;
+	}
+
+	/**
+	 * Records the outcome of the game, to be checked by a replay.
+	 *
+	 * @param controller the controller that played the recorded game
+	 */
+	public void finish(GameController controller) {
+		score = controller.getScore();
+		lives = controller.getLives();
+		level = controller.getLevel();
+		gameOver = controller.isGameOver();
+		stateHash = controller.getStateHash();
+	}
+
+	/**
+	 * Checks whether a replayed game ended in the recorded outcome.
+	 *
+	 * @param controller the controller that replayed the log
+	 * @return true if score, lives, level, game over and state hash all match
+	 */
+	public boolean matches(GameController controller) {
+		return controller.getScore() == score && controller.getLives() == lives && controller.getLevel() == level
+				&& controller.isGameOver() == gameOver && controller.getStateHash() == stateHash;
+	}
+
+	/**
+	 * Writes the log to a file, replacing it if it exists.
+	 *
+	 * @param file the file to write
+	 * @throws IOException if writing fails
+	 */
+	public void save(Path file) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+			write(out);
+		}
+	}
+
+	/**
+	 * Writes the log into a directory, named after its seed, creating the
+	 * directory if needed.
+	 *
+	 * @param directory where the log goes
+	 * @return the file written
+	 * @throws IOException if writing fails
+	 */
+	public Path saveTo(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		Path file = directory.resolve(String.format("game-%016x.pmil", seed));
+		save(file);
+		return file;
+	}
+
+	/**
+	 * Writes the log into a directory like {@link #saveTo(Path)}, but on a
+	 * background thread, and reports the outcome there as a one-line message. The
+	 * log must not be changed afterwards.
+	 *
+	 * @param directory where the log goes
+	 * @param report    receives the file written or why it could not be written,
+	 *                  on the background thread
+	 */
+	public void saveInBackground(Path directory, Consumer<String> report) {
+		SAVER.execute(() -> {
+			try {
+				report.accept("Replay saved to " + saveTo(directory));
+			} catch (IOException e) {
+				report.accept("Cannot save replay: " + e.getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Writes the log to a stream, which is flushed but not closed.
+	 *
+	 * @param stream where the log goes
+	 * @throws IOException if writing fails
+	 */
+	public void write(OutputStream stream) throws IOException {
+		DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeLong(seed);
+		out.writeLong(ticks);
+		out.writeInt(runCount);
+		for (int i = 0; i < runCount; i++) {
+			out.writeByte(runDirections[i]);
+			int length = runLengths[i];
+			while ((length & ~0x7F) != 0) {
+				out.writeByte((length & 0x7F) | 0x80);
+				length >>>= 7;
+			}
+			out.writeByte(length);
+		}
+		out.writeInt(score);
+		out.writeInt(lives);
+		out.writeInt(level);
+		out.writeBoolean(gameOver);
+		out.writeLong(stateHash);
+		out.flush();
+	}
+
+	/**
+	 * Reads a log from a file.
+	 *
+	 * @param file the file to read
+	 * @return the log
+	 * @throws IOException if the file cannot be read or is not an input log
+	 */
+	public static InputLog load(Path file) throws IOException {
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+			return read(in);
+		}
+	}
+
+	/**
+	 * Reads a log from a stream, which is not closed.
+	 *
+	 * @param stream the log data
+	 * @return the log
+	 * @throws IOException if reading fails or the data is not an input log
+	 */
+	public static InputLog read(InputStream stream) throws IOException {
+		DataInputStream in = new DataInputStream(stream);
+		if (in.readInt() != MAGIC)
+			throw new IOException("Not an input log");
+		int version = in.readByte();
+		if (version != VERSION)
+			throw new IOException("Unsupported input log version " + version);
+
+		InputLog log = new InputLog(in.readLong());
+		long ticks = in.readLong();
+		int runs = in.readInt();
+		if (runs < 0 || runs > ticks)
+			throw new IOException("Corrupt input log: " + runs + " runs");
+		log.runDirections = new byte[Math.max(1, runs)];
+		log.runLengths = new int[Math.max(1, runs)];
+		for (int i = 0; i < runs; i++) {
+			byte code = in.readByte();
+			if (code < 0 || code >= DIRECTIONS.length)
+				throw new IOException("Corrupt input log: direction code " + code);
+			int length = 0;
+			for (int shift = 0;; shift += 7) {
+				int b = in.readUnsignedByte();
+				if (shift > 28)
+					throw new IOException("Corrupt input log: run length too long");
+				length |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+					break;
+			}
+			if (length <= 0)
+				throw new IOException("Corrupt input log: run of " + length + " ticks");
+			log.runDirections[i] = code;
+			log.runLengths[i] = length;
+			log.ticks += length;
+		}
+		log.runCount = runs;
+		if (log.ticks != ticks)
+			throw new IOException("Corrupt input log: runs add up to " + log.ticks + " ticks, expected " + ticks);
+
+		log.score = in.readInt();
+		log.lives = in.readInt();
+		log.level = in.readInt();
+		log.gameOver = in.readBoolean();
+		log.stateHash = in.readLong();
+		return log;
+	}
+
+	/**
+	 * Gets the direction code stored for a held direction.
+	 */
+	private static byte code(char direction) {
+		switch (direction) {
+		case 'U':
+			return 1;
+		case 'D':
+			return 2;
+		case 'L':
+			return 3;
+		case 'R':
+			return 4;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Gets the seed of the ghosts' random generators.
+	 *
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the number of ticks recorded.
+	 *
+	 * @return the tick count
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Gets the number of runs of equal held directions.
+	 *
+	 * @return the run count
+	 */
+	public int getRunCount() {
+		return runCount;
+	}
+
+	/**
+	 * Gets the direction held during a run.
+	 *
+	 * @param run index of the run
+	 * @return 'U', 'D', 'L', 'R', or ' ' if none
+	 */
+	public char getRunDirection(int run) {
+		return DIRECTIONS[runDirections[run]];
+	}
+
+	/**
+	 * Gets the length of a run.
+	 *
+	 * @param run index of the run
+	 * @return the number of ticks
+	 */
+	public int getRunLength(int run) {
+		return runLengths[run];
+	}
+
+	/**
+	 * Gets the recorded final score.
+	 *
+	 * @return the score
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Gets the recorded final state hash.
+	 *
+	 * @return the state hash
+	 */
+	public long getStateHash() {
+		return stateHash;
+	}
+}
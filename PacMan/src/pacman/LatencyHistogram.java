@@ -0,0 +1,117 @@
+package pacman;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in nanoseconds with a fixed memory footprint. Values
+ * are counted in log-linear buckets: every power of two is split into
+ * {@value #SUB_BUCKETS} equal buckets, so a percentile is exact to within about
+ * 3% whatever its magnitude, from nanoseconds to hours. Recording is an index
+ * computation and an increment; nothing is allocated after construction.
+ */
+public class LatencyHistogram {
+	private static final int SUB_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS; // Buckets per power of two
+	private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS; // Enough for any positive long
+
+	private final long[] counts = new long[BUCKETS]; // Values counted per bucket
+	private long total; // Values recorded
+	private long max; // Largest value recorded
+	private long sum; // Sum of the values recorded
+
+	/**
+	 * Records one duration.
+	 *
+	 * @param nanos the duration in nanoseconds; negative values count as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts[bucket(value)]++;
+		total++;
+		sum += value;
+		if (value > max)
+			max = value;
+	}
+
+	/**
+	 * Gets the bucket a value falls in. Values below {@value #SUB_BUCKETS} have a
+	 * bucket each; above, the top {@value #SUB_BITS} bits after the highest one
+	 * select the bucket within the value's power of two.
+	 */
+	private static int bucket(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value); // At least SUB_BITS
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * Gets the largest value that falls in a bucket.
+	 */
+	private static long bucketLimit(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		long sub = bucket % SUB_BUCKETS;
+		long start = (1L << exponent) | (sub << (exponent - SUB_BITS));
+		return start + (1L << (exponent - SUB_BITS)) - 1;
+	}
+
+	/**
+	 * Gets the duration below which the given fraction of recorded values fall,
+	 * rounded up to the end of its bucket and capped at the maximum.
+	 *
+	 * @param fraction percentile as a fraction, e.g. 0.99
+	 * @return the percentile in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getPercentile(double fraction) {
+		if (total == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(fraction * total));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += counts[bucket];
+			if (seen >= rank)
+				return Math.min(bucketLimit(bucket), max);
+		}
+		return max;
+	}
+
+	/**
+	 * Gets the largest duration recorded.
+	 *
+	 * @return the maximum in nanoseconds
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Gets the average duration recorded.
+	 *
+	 * @return the mean in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getMean() {
+		return total == 0 ? 0 : sum / total;
+	}
+
+	/**
+	 * Gets the number of durations recorded.
+	 *
+	 * @return the count
+	 */
+	public long getCount() {
+		return total;
+	}
+
+	/**
+	 * Forgets every recorded value.
+	 */
+	public void reset() {
+		Arrays.fill(counts, 0);
+		total = 0;
+		max = 0;
+		sum = 0;
+	}
+}
@@ -0,0 +1,34 @@
+package pacman;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a map file does not follow the format read by {@link MapLoader}.
+ * The message names the source and the line the problem was found on.
+ */
+public class MapFormatException extends IOException {
+	private static final long serialVersionUID = 1L;
+
+	private final int line; // Line of the map file the problem was found on, starting at 1
+
+	/**
+	 * Constructs an exception for a problem on the given line of a map file.
+	 *
+	 * @param source  name of the map file or resource
+	 * @param line    line number, starting at 1
+	 * @param message description of the problem
+	 */
+	public MapFormatException(String source, int line, String message) {
+		super(source + ":" + line + ": " + message);
+		this.line = line;
+	}
+
+	/**
+	 * Gets the line of the map file the problem was found on.
+	 *
+	 * @return the line number, starting at 1
+	 */
+	public int getLine() {
+		return line;
+	}
+}
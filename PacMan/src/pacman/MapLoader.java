@@ -0,0 +1,194 @@
+package pacman;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads maps from text files. A map file is ASCII and looks like this:
+ *
+ * <pre>
+ * # Lines starting with '#' before the size line are comments
+ * 19 21
+ * XXXXXXXXXXXXXXXXXXX
+ * X.       X       .X
+ * ...
+ * </pre>
+ *
+ * The first line that is not a comment gives the number of columns and rows,
+ * separated by a space. It is followed by exactly that many rows of exactly
+ * that many characters, one character per tile: 'X' a wall, ' ' a pellet, '.' a
+ * power pellet, 'O' an empty tile, 'P' Pacman's start (exactly one), and 'b',
+ * 'o', 'p', 'r' the blue, orange, pink and red ghosts. Blank lines may follow
+ * the last row. Rows are read one at a time straight into the wall and pellet
+ * bits, so the text of a large map is never held in memory at once.
+ */
+public final class MapLoader {
+	/** Resource path of the classic maze. */
+	public static final String CLASSIC = "/res/maps/classic.txt";
+	/** Largest number of tiles a map may have. */
+	public static final long MAX_TILES = 1L << 30;
+
+	private static GameMap classic; // The classic maze, once loaded
+
+	/**
+	 * Not instantiable.
+	 */
+	private MapLoader() {
+	}
+
+	/**
+	 * Gets the classic maze, loading it the first time.
+	 *
+	 * @return the classic map, shared by every caller
+	 */
+	public static synchronized GameMap classic() {
+		if (classic == null) {
+			try {
+				classic = loadResource(CLASSIC);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot load the classic map", e);
+			}
+		}
+		return classic;
+	}
+
+	/**
+	 * Loads a map from a file.
+	 *
+	 * @param path the map file
+	 * @return the map
+	 * @throws MapFormatException if the file is not a valid map
+	 * @throws IOException        if the file cannot be read
+	 */
+	public static GameMap load(Path path) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.US_ASCII)) {
+			return load(reader, path.toString());
+		}
+	}
+
+	/**
+	 * Loads a map from a class path resource.
+	 *
+	 * @param path absolute resource path, e.g. {@link #CLASSIC}
+	 * @return the map
+	 * @throws MapFormatException if the resource is not a valid map
+	 * @throws IOException        if the resource is missing or cannot be read
+	 */
+	public static GameMap loadResource(String path) throws IOException {
+		InputStream in = MapLoader.class.getResourceAsStream(path);
+		if (in == null)
+			throw new IOException("Map resource not found: " + path);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+			return load(reader, path);
+		}
+	}
+
+	/**
+	 * Loads a map from a reader, which is read to the end but not closed.
+	 *
+	 * @param reader the map text
+	 * @param source name of the map for error messages
+	 * @return the map
+	 * @throws MapFormatException if the text is not a valid map
+	 * @throws IOException        if reading fails
+	 */
+	public static GameMap load(Reader reader, String source) throws IOException {
+		BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		int lineNumber = 0;
+
+		// Skip comments up to the size line
+		String line;
+		do {
+			line = in.readLine();
+			lineNumber++;
+			if (line == null)
+				throw new MapFormatException(source, lineNumber, "missing size line");
+		} while (line.startsWith("#"));
+
+		GameMap map = createMap(line, source, lineNumber);
+		int rows = map.getRows();
+		int columns = map.getColumns();
+		WallGrid walls = map.getWalls();
+		PelletGrid pellets = map.getPellets();
+
+		for (int row = 0; row < rows; row++) {
+			line = in.readLine();
+			lineNumber++;
+			if (line == null)
+				throw new MapFormatException(source, lineNumber, "expected " + rows + " rows, found " + row);
+			if (line.length() != columns)
+				throw new MapFormatException(source, lineNumber,
+						"expected " + columns + " columns, found " + line.length());
+
+			for (int column = 0; column < columns; column++) {
+				char tile = line.charAt(column);
+				switch (tile) {
+				case 'X': // Wall tile
+					walls.setWall(row, column);
+					break;
+				case ' ': // Regular pellet (small dot)
+					pellets.addPellet(row, column);
+					break;
+				case '.': // Power pellet (larger dot)
+					pellets.addPowerPellet(row, column);
+					break;
+				case 'P': // Player start position
+					if (map.getPacmanRow() >= 0)
+						throw new MapFormatException(source, lineNumber, "second Pacman at column " + (column + 1));
+					map.setPacman(row, column);
+					break;
+				case 'b': // Ghosts
+				case 'o':
+				case 'p':
+				case 'r':
+					map.addGhost(row, column, tile);
+					break;
+				case 'O': // Empty tile
+					break;
+				default:
+					throw new MapFormatException(source, lineNumber,
+							"invalid character '" + tile + "' at column " + (column + 1));
+				}
+			}
+		}
+
+		while ((line = in.readLine()) != null) {
+			lineNumber++;
+			if (!line.isBlank())
+				throw new MapFormatException(source, lineNumber, "unexpected text after the last row");
+		}
+		if (map.getPacmanRow() < 0)
+			throw new MapFormatException(source, lineNumber, "no Pacman ('P') on the map");
+		return map;
+	}
+
+	/**
+	 * Parses the size line and creates an empty map of that size.
+	 */
+	private static GameMap createMap(String line, String source, int lineNumber) throws MapFormatException {
+		String[] size = line.trim().split(" +");
+		if (size.length != 2)
+			throw new MapFormatException(source, lineNumber, "expected '<columns> <rows>', found '" + line + "'");
+
+		int columns;
+		int rows;
+		try {
+			columns = Integer.parseInt(size[0]);
+			rows = Integer.parseInt(size[1]);
+		} catch (NumberFormatException e) {
+			throw new MapFormatException(source, lineNumber, "expected '<columns> <rows>', found '" + line + "'");
+		}
+		if (columns <= 0 || rows <= 0)
+			throw new MapFormatException(source, lineNumber, "map size must be positive");
+		if ((long) columns * rows > MAX_TILES)
+			throw new MapFormatException(source, lineNumber, "map has more than " + MAX_TILES + " tiles");
+		return new GameMap(rows, columns);
+	}
+}
@@ -0,0 +1,229 @@
+package pacman;
+
+import java.util.Arrays;
+
+/**
+ * All-pairs shortest path lengths between the walkable tiles of a maze,
+ * computed once when the map is loaded. Distances count tile steps and follow
+ * the wrap-around tunnels at the board edges. Lookups are plain array reads,
+ * so ghosts can aim for a target at no extra cost per decision.
+ */
+public class MazeDistances {
+	/** Largest maze for which a table is built (the table grows with its square). */
+	public static final int MAX_CELLS = 4096;
+	/** Distance reported between tiles that cannot reach each other. */
+	public static final int UNREACHABLE = Short.MAX_VALUE;
+
+	// Step directions in the order used to break ties between equal choices
+	public static final char[] DIRECTIONS = { 'U', 'L', 'D', 'R' };
+	private static final int[] ROW_STEP = { -1, 0, 1, 0 };
+	private static final int[] COLUMN_STEP = { 0, -1, 0, 1 };
+
+	private final int rows; // Number of tile rows
+	private final int columns; // Number of tile columns
+	private final int cellCount; // Number of walkable tiles
+	private final int[] cellOfTile; // Cell index of each tile, -1 for walls
+	private final int[] tileOfCell; // Tile index of each cell
+	private final int[] nearestCell; // Closest walkable cell of each tile, for targets inside walls
+	private final int[] neighbours; // Neighbour cell per cell and direction, -1 if blocked
+	private final short[] distances; // Distance between every pair of cells
+
+	/**
+	 * Builds the table for the walls of a board.
+	 *
+	 * @param walls the wall grid of the board
+	 */
+	private MazeDistances(WallGrid walls) {
+		rows = walls.getRows();
+		columns = walls.getColumns();
+
+		int tiles = rows * columns;
+		cellOfTile = new int[tiles];
+		int cells = 0;
+		for (int tile = 0; tile < tiles; tile++) {
+			cellOfTile[tile] = walls.isWall(tile / columns, tile % columns) ? -1 : cells++;
+		}
+		cellCount = cells;
+
+		tileOfCell = new int[cellCount];
+		for (int tile = 0; tile < tiles; tile++) {
+			if (cellOfTile[tile] >= 0)
+				tileOfCell[cellOfTile[tile]] = tile;
+		}
+
+		neighbours = new int[cellCount * 4];
+		for (int cell = 0; cell < cellCount; cell++) {
+			int row = tileOfCell[cell] / columns;
+			int column = tileOfCell[cell] % columns;
+			for (int d = 0; d < 4; d++) {
+				// Stepping off an edge wraps around, like MovableEntity.move
+				int nextRow = Math.floorMod(row + ROW_STEP[d], rows);
+				int nextColumn = Math.floorMod(column + COLUMN_STEP[d], columns);
+				neighbours[cell * 4 + d] = cellOfTile[nextRow * columns + nextColumn];
+			}
+		}
+
+		distances = new short[cellCount * cellCount];
+		int[] queue = new int[cellCount];
+		for (int source = 0; source < cellCount; source++) {
+			breadthFirst(source, queue);
+		}
+
+		nearestCell = new int[tiles];
+		fillNearestCells();
+	}
+
+	/**
+	 * Builds the distance table for the given walls, unless the maze has more
+	 * walkable tiles than {@link #MAX_CELLS}.
+	 *
+	 * @param walls the wall grid of the board
+	 * @return the table, or null if the maze is too large
+	 */
+	public static MazeDistances build(WallGrid walls) {
+		int cells = 0;
+		for (int row = 0; row < walls.getRows(); row++) {
+			for (int column = 0; column < walls.getColumns(); column++) {
+				if (!walls.isWall(row, column))
+					cells++;
+			}
+		}
+		return cells <= MAX_CELLS ? new MazeDistances(walls) : null;
+	}
+
+	/**
+	 * Fills one row of the table with a breadth-first search from a cell.
+	 */
+	private void breadthFirst(int source, int[] queue) {
+		int base = source * cellCount;
+		Arrays.fill(distances, base, base + cellCount, (short) UNREACHABLE);
+		distances[base + source] = 0;
+
+		int head = 0, tail = 0;
+		queue[tail++] = source;
+		while (head < tail) {
+			int cell = queue[head++];
+			int next = distances[base + cell] + 1;
+			for (int d = 0; d < 4; d++) {
+				int neighbour = neighbours[cell * 4 + d];
+				if (neighbour >= 0 && distances[base + neighbour] == UNREACHABLE) {
+					distances[base + neighbour] = (short) next;
+					queue[tail++] = neighbour;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the closest walkable cell of every tile with a breadth-first search
+	 * over the whole grid that starts from all walkable tiles at once.
+	 */
+	private void fillNearestCells() {
+		int tiles = rows * columns;
+		int[] queue = new int[tiles];
+		int head = 0, tail = 0;
+		for (int tile = 0; tile < tiles; tile++) {
+			nearestCell[tile] = cellOfTile[tile];
+			if (cellOfTile[tile] >= 0)
+				queue[tail++] = tile;
+		}
+
+		while (head < tail) {
+			int tile = queue[head++];
+			int row = tile / columns;
+			int column = tile % columns;
+			for (int d = 0; d < 4; d++) {
+				int nextRow = row + ROW_STEP[d];
+				int nextColumn = column + COLUMN_STEP[d];
+				if (nextRow < 0 || nextRow >= rows || nextColumn < 0 || nextColumn >= columns)
+					continue;
+				int next = nextRow * columns + nextColumn;
+				if (nearestCell[next] < 0) {
+					nearestCell[next] = nearestCell[tile];
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of tile steps between two cells.
+	 *
+	 * @param from cell index of the start
+	 * @param to   cell index of the destination
+	 * @return the distance, or {@link #UNREACHABLE}
+	 */
+	public int distance(int from, int to) {
+		return distances[from * cellCount + to];
+	}
+
+	/**
+	 * Gets the cell reached by one step from a cell.
+	 *
+	 * @param cell      cell index
+	 * @param direction index into {@link #DIRECTIONS}
+	 * @return the neighbouring cell, or -1 if a wall is in the way
+	 */
+	public int neighbour(int cell, int direction) {
+		return neighbours[cell * 4 + direction];
+	}
+
+	/**
+	 * Gets the cell of a tile, or of the closest walkable tile if the tile is a
+	 * wall. Coordinates outside the board are clamped to it.
+	 *
+	 * @param row    tile row
+	 * @param column tile column
+	 * @return the cell index, or -1 if the maze has no walkable tile
+	 */
+	public int cellAt(int row, int column) {
+		row = Math.max(0, Math.min(rows - 1, row));
+		column = Math.max(0, Math.min(columns - 1, column));
+		return nearestCell[row * columns + column];
+	}
+
+	/**
+	 * Gets the cell of a walkable tile.
+	 *
+	 * @param tile tile index (row * columns + column)
+	 * @return the cell index, or -1 if the tile is a wall
+	 */
+	public int cellOfTile(int tile) {
+		return cellOfTile[tile];
+	}
+
+	/**
+	 * Gets the tile of a cell.
+	 *
+	 * @param cell cell index
+	 * @return the tile index (row * columns + column)
+	 */
+	public int tileOfCell(int cell) {
+		return tileOfCell[cell];
+	}
+
+	/**
+	 * Gets the number of walkable tiles.
+	 *
+	 * @return the cell count
+	 */
+	public int getCellCount() {
+		return cellCount;
+	}
+
+	/**
+	 * Gets the direction index of a direction character.
+	 *
+	 * @param direction 'U', 'L', 'D' or 'R'
+	 * @return the index into {@link #DIRECTIONS}, or -1 if unknown
+	 */
+	public static int directionIndex(char direction) {
+		return switch (direction) {
+		case 'U' -> 0;
+		case 'L' -> 1;
+		case 'D' -> 2;
+		case 'R' -> 3;
+		default -> -1;
+		};
+	}
+}
@@ -0,0 +1,100 @@
+package pacman;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+
+/**
+ * Debug overlay drawing the {@link TickMetrics} of a game over the board: p50,
+ * p99 and maximum of every tick phase and of rendering, in microseconds, plus
+ * the counters and the duration of the last restart. The timings cover the
+ * last second: once a second the overlay reads them into its text and clears
+ * the histograms, so a slow phase shows up as it happens. Toggled with F3 in both game views.
+ */
+public class MetricsOverlay {
+	private static final long REFRESH_NANOS = 1_000_000_000L; // Window covered by the timings
+	private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+	private static final Color BACKGROUND = new Color(0, 0, 0, 190);
+	private static final int MARGIN = 6; // Space around the text in pixels
+
+	private final TickMetrics metrics; // Metrics shown
+	private final String[] lines = new String[TickMetrics.PHASES + 3]; // Header, phases, counters, restart
+	private long lastRefresh; // System.nanoTime() of the last refresh
+
+	/**
+	 * Constructs an overlay for the given metrics.
+	 *
+	 * @param metrics the metrics to show
+	 */
+	public MetricsOverlay(TickMetrics metrics) {
+		this.metrics = metrics;
+		restart();
+	}
+
+	/**
+	 * Clears the metrics and starts a new window, for when the overlay is shown
+	 * again.
+	 */
+	public void restart() {
+		metrics.reset();
+		lastRefresh = System.nanoTime();
+		lines[0] = String.format("%-10s %7s %7s %7s", "us", "p50", "p99", "max");
+		for (int phase = 0; phase < TickMetrics.PHASES; phase++)
+			lines[phase + 1] = TickMetrics.getName(phase);
+		lines[lines.length - 2] = "";
+		lines[lines.length - 1] = restartLine();
+	}
+
+	/**
+	 * Draws the overlay in the top-left corner, below the score, refreshing its
+	 * text once a second.
+	 *
+	 * @param g the Graphics context to draw on
+	 */
+	public void draw(Graphics g) {
+		long now = System.nanoTime();
+		if (now - lastRefresh >= REFRESH_NANOS)
+			refresh(now);
+
+		g.setFont(FONT);
+		FontMetrics fm = g.getFontMetrics();
+		int width = 0;
+		for (String line : lines)
+			width = Math.max(width, fm.stringWidth(line));
+		int x = 10;
+		int y = 30;
+		g.setColor(BACKGROUND);
+		g.fillRect(x, y, width + 2 * MARGIN, lines.length * fm.getHeight() + 2 * MARGIN);
+		g.setColor(Color.GREEN);
+		for (int i = 0; i < lines.length; i++)
+			g.drawString(lines[i], x + MARGIN, y + MARGIN + fm.getAscent() + i * fm.getHeight());
+	}
+
+	/**
+	 * Reads the timings of the window that ended into the text and clears them.
+	 */
+	private void refresh(long now) {
+		double seconds = (now - lastRefresh) / 1e9;
+		long ticks = metrics.getHistogram(TickMetrics.TICK).getCount();
+		for (int phase = 0; phase < TickMetrics.PHASES; phase++) {
+			LatencyHistogram histogram = metrics.getHistogram(phase);
+			lines[phase + 1] = String.format("%-10s %7.1f %7.1f %7.1f", TickMetrics.getName(phase),
+					histogram.getPercentile(0.50) / 1e3, histogram.getPercentile(0.99) / 1e3,
+					histogram.getMax() / 1e3);
+		}
+		lines[lines.length - 2] = String.format("%.0f ticks/s  %d pellets  %d collision tests  %d missed",
+				ticks / seconds, metrics.getPelletsEaten(), metrics.getCollisionTests(), metrics.getTicksMissed());
+		lines[lines.length - 1] = restartLine();
+		metrics.resetLatencies();
+		lastRefresh = now;
+	}
+
+	/**
+	 * Formats the duration of the last restart.
+	 */
+	private String restartLine() {
+		long nanos = metrics.getLastRestart();
+		return nanos < 0 ? "restart    -" : String.format("restart    %.1f us", nanos / 1e3);
+	}
+}
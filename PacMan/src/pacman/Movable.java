@@ -1,4 +1,4 @@
-import java.util.HashSet;
+package pacman;
 
 /**
  * Interface for any entity that can move within the game board. Provides
@@ -12,17 +12,17 @@ public interface Movable {
 	 * the new direction is valid, e.g., does not collide with walls.
 	 * 
 	 * @param direction the new direction character ('U', 'D', 'L', 'R')
-	 * @param walls     set of wall tiles to check for collisions
+	 * @param walls     grid of wall tiles to check for collisions
 	 */
-	void updateDirection(char direction, HashSet<Tile> walls);
+	void updateDirection(char direction, WallGrid walls);
 
 	/**
 	 * Moves the entity based on its current velocity/direction. Must handle
 	 * collision detection against walls and respect board boundaries.
 	 * 
-	 * @param walls       set of wall tiles to check for collisions
+	 * @param walls       grid of wall tiles to check for collisions
 	 * @param boardWidth  total width of the game board in pixels
 	 * @param boardHeight total height of the game board in pixels
 	 */
-	void move(HashSet<Tile> walls, int boardWidth, int boardHeight);
+	void move(WallGrid walls, int boardWidth, int boardHeight);
 }
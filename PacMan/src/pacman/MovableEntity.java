@@ -0,0 +1,270 @@
+package pacman;
+
+import java.awt.*;
+
+/**
+ * Abstract class for entities that can move on the game board. Implements
+ * movement logic, velocity updates, collision detection with walls, direction
+ * handling, and sprite updating. Position, velocity and direction live in a
+ * slot of an {@link EntityStore}; the entity itself only keeps its sprites.
+ */
+public abstract class MovableEntity extends Entity implements Movable {
+	// Store holding the movement state, and the slot of this entity in it
+	private final EntityStore store;
+	private final int index;
+
+	// Sprites representing the entity facing each direction
+	private final Image upImage, downImage, leftImage, rightImage;
+
+	// The sprite currently used for rendering
+	private Image currentSprite;
+
+	/**
+	 * Constructor for a movable entity.
+	 * 
+	 * @param store      Store holding the entity's movement state
+	 * @param index      Slot of the entity in the store
+	 * @param x          Initial x-coordinate on the board
+	 * @param y          Initial y-coordinate on the board
+	 * @param width      Width of the entity
+	 * @param height     Height of the entity
+	 * @param direction  Initial facing direction ('U', 'D', 'L', 'R')
+	 * @param upImage    Sprite facing upwards
+	 * @param downImage  Sprite facing downwards
+	 * @param leftImage  Sprite facing left
+	 * @param rightImage Sprite facing right
+	 */
+	public MovableEntity(EntityStore store, int index, int x, int y, int width, int height, char direction,
+			Image upImage, Image downImage, Image leftImage, Image rightImage) {
+		super(x, y, width, height);
+		this.store = store;
+		this.index = index;
+		this.upImage = upImage;
+		this.downImage = downImage;
+		this.leftImage = leftImage;
+		this.rightImage = rightImage;
+		this.currentSprite = rightImage; // Default sprite facing right
+		store.init(index, x, y, width, height, direction);
+	}
+
+	/**
+	 * Abstract method to update movement direction with collision checks.
+	 * 
+	 * @param newDir New direction to move in ('U', 'D', 'L', 'R')
+	 * @param walls  Grid of wall tiles to check collisions against
+	 */
+	public abstract void updateDirection(char newDir, WallGrid walls);
+
+	/**
+	 * Updates velocity components based on the current direction: one pixel
+	 * along the axis of movement. How far the entity gets in a tick follows from
+	 * its speed.
+	 */
+	public void updateVelocity() {
+		store.updateVelocity(index);
+	}
+
+	/**
+	 * Updates the sprite image based on the current direction.
+	 */
+	public void updateSprite() {
+		switch (getDirection()) {
+		case 'U':
+			currentSprite = upImage;
+			break;
+		case 'D':
+			currentSprite = downImage;
+			break;
+		case 'L':
+			currentSprite = leftImage;
+			break;
+		case 'R':
+			currentSprite = rightImage;
+			break;
+		}
+	}
+
+	/**
+	 * Moves the entity by a tick's worth of pixels in its current direction,
+	 * checking for wall collisions and enforcing board wrapping when moving off
+	 * the edges.
+	 * 
+	 * @param walls       Grid of wall tiles for collision detection
+	 * @param boardWidth  Width of the board in pixels
+	 * @param boardHeight Height of the board in pixels
+	 */
+	public void move(WallGrid walls, int boardWidth, int boardHeight) {
+		store.move(index, walls, boardWidth, boardHeight);
+	}
+
+	/**
+	 * Sets velocity components.
+	 * 
+	 * @param vx Velocity in x direction
+	 * @param vy Velocity in y direction
+	 */
+	protected void setVelocity(int vx, int vy) {
+		store.setVelocity(index, vx, vy);
+	}
+
+	/**
+	 * Gets the current direction of movement.
+	 * 
+	 * @return direction character ('U', 'D', 'L', 'R')
+	 */
+	public char getDirection() {
+		return store.getDirection(index);
+	}
+
+	/**
+	 * Sets the current direction of movement.
+	 * 
+	 * @param direction new direction character
+	 */
+	public void setDirection(char direction) {
+		store.setDirection(index, direction);
+	}
+
+	/**
+	 * Gets the current direction of movement along the X-axis.
+	 * 
+	 * @return -1, 0 or 1 along the X-axis
+	 */
+	public int getVelocityX() {
+		return store.getVelocityX(index);
+	}
+
+	/**
+	 * Gets the current direction of movement along the Y-axis.
+	 * 
+	 * @return -1, 0 or 1 along the Y-axis
+	 */
+	public int getVelocityY() {
+		return store.getVelocityY(index);
+	}
+
+	/**
+	 * Gets the current sprite image used for rendering.
+	 * 
+	 * @return current Image representing the entity's direction
+	 */
+	public Image getCurrentSprite() {
+		return currentSprite;
+	}
+
+	/**
+	 * Changes the current sprite for rendering.
+	 * 
+	 * @param newImage New sprite image to display
+	 */
+	public void setCurrentSprite(Image newImage) {
+		this.currentSprite = newImage;
+	}
+
+	/**
+	 * Resets the entity to its starting position and default direction.
+	 */
+	public void resetPosition() {
+		store.resetPosition(index); // Back to start position, standing and facing right
+		updateSprite(); // Update sprite accordingly
+	}
+
+	/**
+	 * Remembers the current position as the start of the next tick, so rendering
+	 * can interpolate between ticks.
+	 */
+	public void savePosition() {
+		store.savePosition(index);
+	}
+
+	/**
+	 * Gets the store holding this entity's movement state.
+	 * 
+	 * @return the entity store
+	 */
+	public EntityStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Gets the slot of this entity in its store.
+	 * 
+	 * @return the slot index
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Reads the x-coordinate from the entity store.
+	 */
+	@Override
+	public int getX() {
+		return store.getX(index);
+	}
+
+	/**
+	 * Reads the y-coordinate from the entity store.
+	 */
+	@Override
+	public int getY() {
+		return store.getY(index);
+	}
+
+	/**
+	 * Reads the width from the entity store.
+	 */
+	@Override
+	public int getWidth() {
+		return store.getWidth(index);
+	}
+
+	/**
+	 * Reads the height from the entity store.
+	 */
+	@Override
+	public int getHeight() {
+		return store.getHeight(index);
+	}
+
+	/**
+	 * Writes the position to the entity store.
+	 */
+	@Override
+	public void setPosition(int x, int y) {
+		store.setPosition(index, x, y);
+	}
+
+	/**
+	 * Draws the entity's current sprite on the provided graphics context.
+	 * 
+	 * @param g Graphics context to draw on
+	 */
+	public void draw(Graphics g) {
+		draw(g, 1f);
+	}
+
+	/**
+	 * Draws the entity's current sprite between its previous and current
+	 * positions.
+	 * 
+	 * @param g     Graphics context to draw on
+	 * @param alpha Fraction of the way from the previous position to the current
+	 *              one, between 0 and 1
+	 */
+	public void draw(Graphics g, float alpha) {
+		g.drawImage(getCurrentSprite(), interpolate(store.getPreviousX(index), getX(), alpha),
+				interpolate(store.getPreviousY(index), getY(), alpha), getWidth(), getHeight(), null);
+	}
+
+	/**
+	 * Interpolates one coordinate between ticks. Jumps larger than the entity,
+	 * such as wrapping through a tunnel or respawning, are not interpolated.
+	 */
+	private int interpolate(int from, int to, float alpha) {
+		int delta = to - from;
+		if (Math.abs(delta) > getWidth())
+			return to;
+		return from + Math.round(delta * alpha);
+	}
+}
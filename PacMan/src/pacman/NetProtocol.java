@@ -0,0 +1,148 @@
+package pacman;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format between a {@link GameServer} and its {@link GameClient}s. Every
+ * message is a frame of a big-endian int length, counting the type byte and
+ * payload, then the type byte and the payload.
+ *
+ * <pre>
+ * client to server
+ *   JOIN     int room                   leaves any previous room
+ *   INPUT    byte direction             'U', 'D', 'L', 'R' or ' ', held until changed
+ * server to client
+ *   WELCOME  int room, int columns, int rows, int entities
+ *   STATE    varint tick, byte changes, then per set change bit:
+ *              SCORE varint, LIVES varint, LEVEL varint, GAME_OVER byte
+ *            varint moved entities, each
+ *              varint index, zigzag varint dx, zigzag varint dy, byte state
+ *            varint eaten pellets, each
+ *              varint tile as the distance to the previous one in the list
+ * </pre>
+ *
+ * A STATE frame carries what changed since the previous one: the entities that
+ * moved or changed state, relative to their last sent position, and the pellets
+ * eaten. When pellets come back, on a new level or game, PELLETS is set and the
+ * list holds every pellet eaten so far. A KEYFRAME carries the whole state, with
+ * positions relative to 0; the server sends one after WELCOME. The entity state
+ * byte is the one of a {@link GameSnapshot}.
+ */
+public final class NetProtocol {
+	// Message types
+	public static final byte JOIN = 1;
+	public static final byte INPUT = 2;
+	public static final byte WELCOME = 3;
+	public static final byte STATE = 4;
+
+	// Change bits of a STATE message
+	public static final int SCORE = 1;
+	public static final int LIVES = 2;
+	public static final int LEVEL = 4;
+	public static final int GAME_OVER = 8;
+	public static final int PELLETS = 16; // Pellets were restored; the list holds every eaten one
+	public static final int KEYFRAME = 32; // Positions are absolute
+
+	public static final int HEADER_BYTES = 5; // Length and type of a frame
+	private static final int VARINT_BYTES = 5; // Longest varint of an int
+
+	/**
+	 * Not instantiable.
+	 */
+	private NetProtocol() {
+	}
+
+	/**
+	 * Computes the longest STATE frame a game on the given map can produce, with
+	 * every field changed and every pellet eaten.
+	 *
+	 * @param map the map played on
+	 * @return the frame size in bytes, including the header
+	 */
+	public static int maxStateFrame(GameMap map) {
+		long entities = map.getGhostCount() + 1L;
+		long bytes = HEADER_BYTES + 10 + 1 + 4 * VARINT_BYTES + 1 + VARINT_BYTES
+				+ entities * (3 * VARINT_BYTES + 1) + VARINT_BYTES + (long) map.getRows() * map.getColumns() * VARINT_BYTES;
+		if (bytes > Integer.MAX_VALUE / 2)
+			throw new IllegalArgumentException("Map too large to send: " + map.getColumns() + " x " + map.getRows());
+		return (int) bytes;
+	}
+
+	/**
+	 * Writes an unsigned varint, seven bits per byte, lowest first.
+	 *
+	 * @param out   the buffer to write to
+	 * @param value the value, treated as unsigned
+	 */
+	public static void putVarint(ByteBuffer out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.put((byte) value);
+	}
+
+	/**
+	 * Writes a signed value as a zigzag varint, so small negative values stay
+	 * short.
+	 *
+	 * @param out   the buffer to write to
+	 * @param value the value
+	 */
+	public static void putSignedVarint(ByteBuffer out, int value) {
+		putVarint(out, ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Reads an unsigned varint.
+	 *
+	 * @param in the buffer to read from
+	 * @return the value
+	 */
+	public static long getVarint(ByteBuffer in) {
+		long value = 0;
+		for (int shift = 0;; shift += 7) {
+			byte b = in.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0)
+				return value;
+		}
+	}
+
+	/**
+	 * Reads a zigzag varint written by {@link #putSignedVarint(ByteBuffer, int)}.
+	 *
+	 * @param in the buffer to read from
+	 * @return the value
+	 */
+	public static int getSignedVarint(ByteBuffer in) {
+		int zigzag = (int) getVarint(in);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	/**
+	 * Starts a frame of the given type. Finish it with
+	 * {@link #endFrame(ByteBuffer, int)} once the payload is written.
+	 *
+	 * @param out  the buffer to write to
+	 * @param type message type
+	 * @return the position of the frame, for endFrame
+	 */
+	public static int beginFrame(ByteBuffer out, byte type) {
+		int start = out.position();
+		out.putInt(0);
+		out.put(type);
+		return start;
+	}
+
+	/**
+	 * Fills in the length of a frame started by
+	 * {@link #beginFrame(ByteBuffer, byte)}.
+	 *
+	 * @param out   the buffer written to
+	 * @param start the position returned by beginFrame
+	 */
+	public static void endFrame(ByteBuffer out, int start) {
+		out.putInt(start, out.position() - start - 4);
+	}
+}
@@ -1,17 +1,29 @@
+package pacman;
+
 import java.awt.*;
 
+/**
+ * A view of a single pellet stored in a {@link PelletGrid}. The consumed state
+ * lives in the grid, so views can be created on demand without the board
+ * keeping one object per pellet.
+ */
 public class Pellet extends Entity implements Consumable {
-	private boolean consumed = false; // Tracks if the pellet has been eaten
+	private final PelletGrid grid; // Grid holding the consumed state
+	private final int tile; // Index of the pellet's tile in the grid
 
 	/**
 	 * Constructor to create a Pellet at the given position with specified size.
 	 * 
+	 * @param grid The grid that stores the pellet's state.
+	 * @param tile The index of the pellet's tile in the grid.
 	 * @param x    The x-coordinate of the pellet.
 	 * @param y    The y-coordinate of the pellet.
 	 * @param size The width and height of the pellet.
 	 */
-	public Pellet(int x, int y, int size) {
+	public Pellet(PelletGrid grid, int tile, int x, int y, int size) {
 		super(x, y, size, size);
+		this.grid = grid;
+		this.tile = tile;
 	}
 
 	/**
@@ -20,7 +32,7 @@ public class Pellet extends Entity implements Consumable {
 	 * @param g The Graphics object used for drawing.
 	 */
 	public void draw(Graphics g) {
-		if (!consumed) {
+		if (!isConsumed()) {
 			g.setColor(Color.WHITE); // Pellets are white squares
 			g.fillRect(getX(), getY(), getWidth(), getHeight());
 		}
@@ -33,7 +45,7 @@ public class Pellet extends Entity implements Consumable {
 	 */
 	@Override
 	public boolean isConsumed() {
-		return consumed;
+		return grid.isConsumed(tile);
 	}
 
 	/**
@@ -41,13 +53,14 @@ public class Pellet extends Entity implements Consumable {
 	 */
 	@Override
 	public void consume() {
-		consumed = true;
+		grid.consume(tile);
 	}
 
 	/**
 	 * Restores the pellet to its initial state (not consumed).
 	 */
+	@Override
 	public void restore() {
-		consumed = false;
+		grid.restore(tile);
 	}
 }
@@ -0,0 +1,343 @@
+package pacman;
+
+import java.awt.Color;
+import java.awt.Graphics;
+
+/**
+ * Stores the pellets of the board as bits indexed by tile, together with a
+ * counter of pellets left. Pickup only inspects the tiles Pacman overlaps, the
+ * level is cleared when the counter reaches zero, and restoring every pellet is
+ * a single array copy.
+ */
+public class PelletGrid {
+	// Pellet geometry inside a tile, matching the original pellet layout
+	public static final int PELLET_SIZE = 4;
+	public static final int PELLET_OFFSET = 14;
+	public static final int POWER_SIZE = PELLET_SIZE * 4;
+	public static final int POWER_OFFSET = PELLET_OFFSET - POWER_SIZE / 2;
+
+	private final int rows; // Number of tile rows
+	private final int columns; // Number of tile columns
+	private final int tileSize; // Size of each tile in pixels
+
+	private final long[] initial; // Tiles that hold a pellet when the level starts
+	private final long[] power; // Tiles whose pellet is a power pellet
+	private final long[] live; // Tiles whose pellet has not been eaten yet
+	private int total; // Number of pellets when the level starts
+	private int remaining; // Number of pellets not eaten yet
+
+	/**
+	 * Constructs an empty pellet grid for a board of the given dimensions.
+	 *
+	 * @param rows     number of tile rows
+	 * @param columns  number of tile columns
+	 * @param tileSize size of each tile in pixels
+	 */
+	public PelletGrid(int rows, int columns, int tileSize) {
+		this.rows = rows;
+		this.columns = columns;
+		this.tileSize = tileSize;
+		int words = (rows * columns + 63) >>> 6;
+		this.initial = new long[words];
+		this.power = new long[words];
+		this.live = new long[words];
+	}
+
+	/**
+	 * Constructs a grid with the same pellets as another, all of them live. Each
+	 * board gets its own copy of a map's pellets to eat.
+	 *
+	 * @param layout the grid whose pellets are copied
+	 */
+	public PelletGrid(PelletGrid layout) {
+		this.rows = layout.rows;
+		this.columns = layout.columns;
+		this.tileSize = layout.tileSize;
+		this.initial = layout.initial.clone();
+		this.power = layout.power.clone();
+		this.live = layout.initial.clone();
+		this.total = layout.total;
+		this.remaining = layout.total;
+	}
+
+	/**
+	 * Places a regular pellet on the given tile.
+	 *
+	 * @param row    tile row
+	 * @param column tile column
+	 */
+	public void addPellet(int row, int column) {
+		add(row * columns + column);
+	}
+
+	/**
+	 * Places a power pellet on the given tile.
+	 *
+	 * @param row    tile row
+	 * @param column tile column
+	 */
+	public void addPowerPellet(int row, int column) {
+		int tile = row * columns + column;
+		power[tile >>> 6] |= 1L << tile;
+		add(tile);
+	}
+
+	/**
+	 * Registers a live pellet on the tile with the given index.
+	 */
+	private void add(int tile) {
+		long bit = 1L << tile;
+		if ((initial[tile >>> 6] & bit) == 0) {
+			initial[tile >>> 6] |= bit;
+			live[tile >>> 6] |= bit;
+			total++;
+			remaining++;
+		}
+	}
+
+	/**
+	 * Consumes one live pellet whose bounds overlap the given rectangle, if any.
+	 * Only the tiles covered by the rectangle are inspected. Call repeatedly until
+	 * it returns -1 to consume every overlapping pellet.
+	 *
+	 * @param x      left edge in pixels
+	 * @param y      top edge in pixels
+	 * @param width  width in pixels
+	 * @param height height in pixels
+	 * @return the tile index of the consumed pellet, or -1 if none overlapped
+	 */
+	public int consumeAt(int x, int y, int width, int height) {
+		int firstColumn = Math.max(0, Math.floorDiv(x, tileSize));
+		int lastColumn = Math.min(columns - 1, Math.floorDiv(x + width - 1, tileSize));
+		int firstRow = Math.max(0, Math.floorDiv(y, tileSize));
+		int lastRow = Math.min(rows - 1, Math.floorDiv(y + height - 1, tileSize));
+
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				int tile = row * columns + column;
+				if (isConsumed(tile))
+					continue;
+
+				int offset = isPowerPellet(tile) ? POWER_OFFSET : PELLET_OFFSET;
+				int size = isPowerPellet(tile) ? POWER_SIZE : PELLET_SIZE;
+				if (Entity.overlaps(x, y, width, height, column * tileSize + offset, row * tileSize + offset, size,
+						size)) {
+					consume(tile);
+					return tile;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks whether the tile held a pellet when the level started.
+	 *
+	 * @param tile tile index (row * columns + column)
+	 * @return true if the tile has a pellet, consumed or not
+	 */
+	public boolean isPellet(int tile) {
+		return (initial[tile >>> 6] & (1L << tile)) != 0;
+	}
+
+	/**
+	 * Checks whether the pellet on the tile is a power pellet.
+	 *
+	 * @param tile tile index (row * columns + column)
+	 * @return true if the tile has a power pellet
+	 */
+	public boolean isPowerPellet(int tile) {
+		return (power[tile >>> 6] & (1L << tile)) != 0;
+	}
+
+	/**
+	 * Checks whether the tile has no live pellet, either because it never had one
+	 * or because it was eaten.
+	 *
+	 * @param tile tile index (row * columns + column)
+	 * @return true if there is nothing left to eat on the tile
+	 */
+	public boolean isConsumed(int tile) {
+		return (live[tile >>> 6] & (1L << tile)) == 0;
+	}
+
+	/**
+	 * Marks the pellet on the tile as consumed.
+	 *
+	 * @param tile tile index (row * columns + column)
+	 */
+	public void consume(int tile) {
+		long bit = 1L << tile;
+		if ((live[tile >>> 6] & bit) != 0) {
+			live[tile >>> 6] &= ~bit;
+			remaining--;
+		}
+	}
+
+	/**
+	 * Restores the pellet on the tile to its unconsumed state.
+	 *
+	 * @param tile tile index (row * columns + column)
+	 */
+	public void restore(int tile) {
+		long bit = 1L << tile;
+		if ((initial[tile >>> 6] & bit) != 0 && (live[tile >>> 6] & bit) == 0) {
+			live[tile >>> 6] |= bit;
+			remaining++;
+		}
+	}
+
+	/**
+	 * Restores every pellet to its unconsumed state with a single array copy.
+	 */
+	public void restoreAll() {
+		System.arraycopy(initial, 0, live, 0, live.length);
+		remaining = total;
+	}
+
+	/**
+	 * Checks whether every pellet has been consumed.
+	 *
+	 * @return true if no pellets are left
+	 */
+	public boolean allConsumed() {
+		return remaining == 0;
+	}
+
+	/**
+	 * Gets the number of pellets not consumed yet.
+	 *
+	 * @return the remaining pellet count
+	 */
+	public int getRemaining() {
+		return remaining;
+	}
+
+	/**
+	 * Gets the number of pellets on the board when the level starts.
+	 *
+	 * @return the total pellet count
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * Gets a view of the pellet on the given tile.
+	 *
+	 * @param tile tile index (row * columns + column) of a tile with a pellet
+	 * @return a Pellet, or PowerPellet, backed by this grid
+	 */
+	public Pellet getPellet(int tile) {
+		int x = (tile % columns) * tileSize;
+		int y = (tile / columns) * tileSize;
+		if (isPowerPellet(tile))
+			return new PowerPellet(this, tile, x + POWER_OFFSET, y + POWER_OFFSET, POWER_SIZE);
+		return new Pellet(this, tile, x + PELLET_OFFSET, y + PELLET_OFFSET, PELLET_SIZE);
+	}
+
+	/**
+	 * Draws every live pellet: regular pellets as white squares and power pellets
+	 * as white circles.
+	 *
+	 * @param g the Graphics context to draw on
+	 */
+	public void draw(Graphics g) {
+		g.setColor(Color.WHITE);
+		for (int word = 0; word < live.length; word++) {
+			long bits = live[word];
+			while (bits != 0) {
+				int tile = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1; // Clear the lowest set bit
+				drawPellet(g, tile);
+			}
+		}
+	}
+
+	/**
+	 * Draws the pellet of a single tile in the current colour, regardless of
+	 * whether it has been consumed.
+	 *
+	 * @param g    the Graphics context to draw on
+	 * @param tile tile index (row * columns + column) of a tile with a pellet
+	 */
+	public void drawPellet(Graphics g, int tile) {
+		int x = (tile % columns) * tileSize;
+		int y = (tile / columns) * tileSize;
+		if (isPowerPellet(tile))
+			g.fillOval(x + POWER_OFFSET, y + POWER_OFFSET, POWER_SIZE, POWER_SIZE);
+		else
+			g.fillRect(x + PELLET_OFFSET, y + PELLET_OFFSET, PELLET_SIZE, PELLET_SIZE);
+	}
+
+	/**
+	 * Gets one 64-tile word of the live pellet bits, for consumers that track
+	 * changes word by word. Bit n of word w is tile w * 64 + n.
+	 *
+	 * @param word index of the word
+	 * @return the live bits of that word
+	 */
+	public long getLiveWord(int word) {
+		return live[word];
+	}
+
+	/**
+	 * Gets one 64-tile word of the bits of tiles that hold a pellet when the level
+	 * starts, laid out like {@link #getLiveWord(int)}.
+	 *
+	 * @param word index of the word
+	 * @return the pellet bits of that word
+	 */
+	public long getInitialWord(int word) {
+		return initial[word];
+	}
+
+	/**
+	 * Replaces one 64-tile word of the live pellet bits, for restoring a snapshot.
+	 * Bits of tiles without a pellet are ignored.
+	 *
+	 * @param word index of the word
+	 * @param bits the live bits of that word
+	 */
+	public void setLiveWord(int word, long bits) {
+		bits &= initial[word];
+		remaining += Long.bitCount(bits) - Long.bitCount(live[word]);
+		live[word] = bits;
+	}
+
+	/**
+	 * Gets the number of 64-tile words used by the pellet bits.
+	 *
+	 * @return the word count
+	 */
+	public int getWordCount() {
+		return live.length;
+	}
+
+	/**
+	 * Gets the size of each tile in pixels.
+	 *
+	 * @return the tile size
+	 */
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	/**
+	 * Gets the number of tile columns covered by the grid.
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Gets the number of tile rows covered by the grid.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+}
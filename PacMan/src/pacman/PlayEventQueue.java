@@ -0,0 +1,114 @@
+package pacman;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of sound triggers. Any thread may offer events; a
+ * single consumer, the audio mixer thread, polls them. Each slot carries a
+ * sequence number that tells producers and the consumer whose turn it is, so
+ * neither side ever blocks or allocates. When the queue is full new events are
+ * dropped and counted.
+ */
+public class PlayEventQueue {
+	private final int mask; // Capacity - 1, for cheap index wrapping
+	private final AtomicLongArray sequences; // Turn of each slot: position to write, or position + 1 to read
+	private final int[] sounds; // Sound id of each event
+	private final long[] times; // System.nanoTime() at which each event was triggered
+	private final AtomicLong tail = new AtomicLong(); // Next position producers claim
+	private long head; // Next position the consumer reads, only touched by the consumer
+	private final AtomicLong dropped = new AtomicLong(); // Events lost because the queue was full
+
+	// Last event returned by poll, read by the consumer right afterwards
+	private int polledSound;
+	private long polledTime;
+
+	/**
+	 * Constructs an empty queue.
+	 *
+	 * @param capacity maximum number of pending events, a power of two
+	 */
+	public PlayEventQueue(int capacity) {
+		if (Integer.bitCount(capacity) != 1)
+			throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+
+		mask = capacity - 1;
+		sequences = new AtomicLongArray(capacity);
+		sounds = new int[capacity];
+		times = new long[capacity];
+		for (int i = 0; i < capacity; i++)
+			sequences.set(i, i);
+	}
+
+	/**
+	 * Adds a play event. Safe to call from any thread.
+	 *
+	 * @param sound id of the sound to play
+	 * @param time  System.nanoTime() at which the sound was triggered
+	 * @return true if queued, false if the queue was full and the event dropped
+	 */
+	public boolean offer(int sound, long time) {
+		while (true) {
+			long position = tail.get();
+			int index = (int) position & mask;
+			long sequence = sequences.get(index);
+			if (sequence == position) {
+				if (tail.compareAndSet(position, position + 1)) {
+					sounds[index] = sound;
+					times[index] = time;
+					sequences.lazySet(index, position + 1); // Publish the slot to the consumer
+					return true;
+				}
+			} else if (sequence < position) {
+				dropped.incrementAndGet(); // The consumer has not freed this slot yet
+				return false;
+			}
+			// Another producer claimed the position first, try the next one
+		}
+	}
+
+	/**
+	 * Takes the oldest event, making it available through {@link #polledSound()}
+	 * and {@link #polledTime()}. Must only be called by the consumer thread.
+	 *
+	 * @return true if an event was taken, false if the queue was empty
+	 */
+	public boolean poll() {
+		int index = (int) head & mask;
+		if (sequences.get(index) != head + 1)
+			return false;
+
+		polledSound = sounds[index];
+		polledTime = times[index];
+		sequences.lazySet(index, head + mask + 1); // Hand the slot back to producers for the next lap
+		head++;
+		return true;
+	}
+
+	/**
+	 * Gets the sound id of the event taken by the last successful poll.
+	 *
+	 * @return the sound id
+	 */
+	public int polledSound() {
+		return polledSound;
+	}
+
+	/**
+	 * Gets the trigger time of the event taken by the last successful poll.
+	 *
+	 * @return System.nanoTime() at which the event was offered
+	 */
+	public long polledTime() {
+		return polledTime;
+	}
+
+	/**
+	 * Gets the number of events dropped because the queue was full.
+	 *
+	 * @return the dropped event count
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+}
@@ -0,0 +1,39 @@
+package pacman;
+
+import java.awt.*;
+
+public class Player extends MovableEntity {
+
+	/**
+	 * Constructs the player (Pac-Man) with given position, size, and directional
+	 * sprites, in the Pacman slot of the entity store.
+	 * 
+	 * @param store      Store holding the movement state.
+	 * @param x          Initial x-coordinate.
+	 * @param y          Initial y-coordinate.
+	 * @param size       Width and height of the player sprite.
+	 * @param upImage    Image for facing up.
+	 * @param downImage  Image for facing down.
+	 * @param leftImage  Image for facing left.
+	 * @param rightImage Image for facing right.
+	 */
+	public Player(EntityStore store, int x, int y, int size, Image upImage, Image downImage, Image leftImage,
+			Image rightImage) {
+		super(store, EntityStore.PACMAN, x, y, size, size, 'R', upImage, downImage, leftImage, rightImage);
+	}
+
+	/**
+	 * Attempts to update the player's direction to newDir if it does not collide
+	 * with walls. If the movement would cause a collision, reverts to the previous
+	 * direction.
+	 * 
+	 * @param newDir The desired new direction ('U', 'D', 'L', 'R').
+	 * @param walls  The grid of wall tiles for collision detection.
+	 */
+	@Override
+	public void updateDirection(char newDir, WallGrid walls) {
+		// The store reverts direction and velocity if the turn runs into a wall
+		if (getStore().turn(getIndex(), newDir, walls))
+			updateSprite(); // Update sprite to match the new direction if move allowed
+	}
+}
@@ -1,3 +1,5 @@
+package pacman;
+
 import java.awt.*;
 
 public class PowerPellet extends Pellet {
@@ -5,12 +7,14 @@ public class PowerPellet extends Pellet {
 	/**
 	 * Constructs a PowerPellet at the given position and size.
 	 * 
+	 * @param grid The grid that stores the pellet's state.
+	 * @param tile The index of the pellet's tile in the grid.
 	 * @param x    The x-coordinate of the pellet.
 	 * @param y    The y-coordinate of the pellet.
 	 * @param size The diameter (width and height) of the pellet.
 	 */
-	public PowerPellet(int x, int y, int size) {
-		super(x, y, size);
+	public PowerPellet(PelletGrid grid, int tile, int x, int y, int size) {
+		super(grid, tile, x, y, size);
 	}
 
 	/**
@@ -0,0 +1,47 @@
+package pacman;
+
+import java.awt.event.KeyEvent;
+import java.util.Random;
+
+/**
+ * Simulated player for headless runs. Holds one arrow key at a time and
+ * switches to a randomly chosen one at a fixed interval, like a restless human
+ * player. Seeded, so a run can be reproduced.
+ */
+public class RandomPlayer implements SimulatedPlayer {
+	private static final int[] KEYS = { KeyEvent.VK_UP, KeyEvent.VK_DOWN, KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT };
+
+	private final Random random; // Chooses the next key
+	private final int interval; // Ticks between key changes
+	private int heldKey = -1; // Key currently held, or -1 if none
+	private int countdown; // Ticks until the next key change
+
+	/**
+	 * Constructs a random player.
+	 *
+	 * @param seed     seed for the key choices
+	 * @param interval number of ticks to hold each key
+	 */
+	public RandomPlayer(long seed, int interval) {
+		this.random = new Random(seed);
+		this.interval = interval;
+	}
+
+	/**
+	 * Gives the player its turn before a tick, changing the held key when the
+	 * interval has passed.
+	 *
+	 * @param controller the controller receiving the key events
+	 */
+	@Override
+	public void play(GameController controller) {
+		if (--countdown > 0)
+			return;
+
+		if (heldKey >= 0)
+			controller.onKeyRelease(heldKey);
+		heldKey = KEYS[random.nextInt(KEYS.length)];
+		controller.onKeyPress(heldKey);
+		countdown = interval;
+	}
+}
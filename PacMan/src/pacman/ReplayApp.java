@@ -0,0 +1,68 @@
+package pacman;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line entry point that replays recorded games without a display and
+ * checks that each ends exactly as it did when it was played. Can also record a
+ * game played by a simulated player, to produce logs without a display.
+ * <p>
+ * Usage: {@code java pacman.ReplayApp log...} to replay, exiting with status 1
+ * if any replay differs, or {@code java pacman.ReplayApp --record ticks seed log}
+ * to record.
+ */
+public class ReplayApp {
+	private static final int STEER_INTERVAL = 8; // Ticks between random key presses when recording
+
+	/**
+	 * The main method replays or records as requested.
+	 */
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		if (args.length == 4 && args[0].equals("--record")) {
+			record(Long.parseLong(args[1]), Long.parseLong(args[2]), Paths.get(args[3]));
+			return;
+		}
+		if (args.length == 0) {
+			System.err.println("Usage: java pacman.ReplayApp log... | --record ticks seed log");
+			System.exit(2);
+		}
+
+		HeadlessGame game = new HeadlessGame();
+		boolean allMatch = true;
+		for (String arg : args) {
+			InputLog log = InputLog.load(Paths.get(arg));
+			long start = System.nanoTime();
+			long ticks = game.replay(log);
+			long elapsed = System.nanoTime() - start;
+
+			boolean match = ticks == log.getTicks() && log.matches(game.getController());
+			allMatch &= match;
+			System.out.printf("%s: %,d ticks, score %d, replayed in %.1f ms: %s%n", arg, ticks,
+					game.getController().getScore(), elapsed / 1e6,
+					match ? "OK" : "MISMATCH (recorded " + log.getTicks() + " ticks, score " + log.getScore() + ")");
+		}
+		if (!allMatch)
+			System.exit(1);
+	}
+
+	/**
+	 * Records a game played by a random player for up to the given number of
+	 * ticks and saves its log.
+	 */
+	private static void record(long maxTicks, long seed, Path file) throws IOException {
+		HeadlessGame game = new HeadlessGame();
+		GameController controller = game.getController();
+		controller.startRecording(seed);
+		game.setPlayer(new RandomPlayer(seed, STEER_INTERVAL));
+		while (game.getTicks() < maxTicks && !controller.isGameOver())
+			game.advance((int) Math.min(Integer.MAX_VALUE, maxTicks - game.getTicks()));
+
+		InputLog log = controller.finishRecording();
+		log.save(file);
+		System.out.printf("Recorded %,d ticks in %d runs, score %d, to %s%n", log.getTicks(), log.getRunCount(),
+				log.getScore(), file);
+	}
+}
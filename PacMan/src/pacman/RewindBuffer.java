@@ -0,0 +1,192 @@
+package pacman;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Ring buffer of the game states of the last ticks, so play can be rewound. Only
+ * the newest state is kept as a full {@link GameSnapshot}; every older one is
+ * stored as the delta to its successor, the bytes that differ XORed together.
+ * XOR undoes itself, so rewinding applies the deltas newest first to the newest
+ * state, and the oldest delta simply drops out when the ring is full.
+ * <p>
+ * A delta is a sequence of segments, each the number of unchanged bytes to skip
+ * and the number of changed bytes that follow as unsigned varints, then those
+ * bytes. A tick changes a few positions, bits and counters, so a delta is
+ * typically a few dozen bytes. Recording and rewinding allocate nothing.
+ */
+public class RewindBuffer {
+	private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final int MIN_GAP = 4; // Unchanged bytes that end a segment; shorter gaps are stored as changed
+
+	private final GameSnapshot snapshots; // Saves and restores the game
+	private final int capacity; // Number of deltas kept
+	private final int slotSize; // Largest possible delta in bytes
+	private final byte[] deltas; // One slot of slotSize bytes per delta
+	private final int[] deltaLengths; // Bytes used in each slot
+	private byte[] newest; // Full snapshot of the newest recorded state
+	private byte[] scratch; // Snapshot being recorded
+	private boolean hasNewest; // Whether a state has been recorded
+	private int head = -1; // Slot of the newest delta
+	private int count; // Number of deltas stored, i.e. ticks that can be rewound
+
+	/**
+	 * Constructs an empty buffer that keeps the given number of ticks.
+	 *
+	 * @param snapshots saves and restores the game
+	 * @param capacity  number of ticks that can be rewound
+	 */
+	public RewindBuffer(GameSnapshot snapshots, int capacity) {
+		this.snapshots = snapshots;
+		this.capacity = capacity;
+		int size = snapshots.size();
+		// Each segment holds at least one byte and is followed by MIN_GAP unchanged
+		// ones, and its two varints take at most ten bytes
+		this.slotSize = size + (size / (MIN_GAP + 1) + 1) * 10;
+		this.deltas = new byte[capacity * slotSize];
+		this.deltaLengths = new int[capacity];
+		this.newest = new byte[size];
+		this.scratch = new byte[size];
+	}
+
+	/**
+	 * Records the current state of the game. Call after every tick, and once
+	 * before the first.
+	 */
+	public void record() {
+		snapshots.save(scratch);
+		if (hasNewest) {
+			head = (head + 1) % capacity;
+			deltaLengths[head] = encode(newest, scratch, head * slotSize);
+			count = Math.min(count + 1, capacity);
+		}
+		byte[] swap = newest;
+		newest = scratch;
+		scratch = swap;
+		hasNewest = true;
+	}
+
+	/**
+	 * Puts the game back by up to the given number of ticks. The states after the
+	 * one restored are discarded, so recording continues from there.
+	 *
+	 * @param ticks number of ticks to go back
+	 * @return the number of ticks actually gone back, limited by what is stored
+	 */
+	public int rewind(int ticks) {
+		int steps = Math.min(ticks, count);
+		if (!hasNewest)
+			return 0;
+		for (int i = 0; i < steps; i++) {
+			decode(head * slotSize, deltaLengths[head], newest);
+			head = (head - 1 + capacity) % capacity;
+			count--;
+		}
+		snapshots.restore(newest);
+		return steps;
+	}
+
+	/**
+	 * Forgets every recorded state, for a new game.
+	 */
+	public void clear() {
+		hasNewest = false;
+		head = -1;
+		count = 0;
+	}
+
+	/**
+	 * Gets the number of ticks that can currently be rewound.
+	 *
+	 * @return the tick count
+	 */
+	public int getAvailable() {
+		return count;
+	}
+
+	/**
+	 * Writes the delta between two snapshots into the given offset of the slot
+	 * array.
+	 *
+	 * @return the length of the delta in bytes
+	 */
+	private int encode(byte[] older, byte[] newer, int offset) {
+		int size = older.length;
+		int out = offset;
+		int previousEnd = 0;
+		int i = 0;
+		while (i < size) {
+			// Skip unchanged bytes, a word at a time where possible
+			while (i + 8 <= size && (long) LONG.get(older, i) == (long) LONG.get(newer, i))
+				i += 8;
+			while (i < size && older[i] == newer[i])
+				i++;
+			if (i == size)
+				break;
+
+			// Extend the segment until MIN_GAP unchanged bytes in a row
+			int start = i;
+			int end = i + 1;
+			for (int j = end, gap = 0; j < size && gap < MIN_GAP; j++) {
+				if (older[j] == newer[j]) {
+					gap++;
+				} else {
+					gap = 0;
+					end = j + 1;
+				}
+			}
+
+			out = writeVarint(start - previousEnd, out);
+			out = writeVarint(end - start, out);
+			for (int j = start; j < end; j++)
+				deltas[out++] = (byte) (older[j] ^ newer[j]);
+			previousEnd = end;
+			i = end;
+		}
+		return out - offset;
+	}
+
+	/**
+	 * Applies the delta at the given offset of the slot array to a snapshot,
+	 * turning either state into the other.
+	 */
+	private void decode(int offset, int length, byte[] snapshot) {
+		int in = offset;
+		int end = offset + length;
+		int at = 0;
+		while (in < end) {
+			int skip = 0;
+			for (int shift = 0;; shift += 7) {
+				byte b = deltas[in++];
+				skip |= (b & 0x7F) << shift;
+				if (b >= 0)
+					break;
+			}
+			int changed = 0;
+			for (int shift = 0;; shift += 7) {
+				byte b = deltas[in++];
+				changed |= (b & 0x7F) << shift;
+				if (b >= 0)
+					break;
+			}
+			at += skip;
+			for (int j = 0; j < changed; j++)
+				snapshot[at++] ^= deltas[in++];
+		}
+	}
+
+	/**
+	 * Writes an unsigned varint into the slot array.
+	 *
+	 * @return the offset after the varint
+	 */
+	private int writeVarint(int value, int out) {
+		while ((value & ~0x7F) != 0) {
+			deltas[out++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		deltas[out++] = (byte) value;
+		return out;
+	}
+}
@@ -0,0 +1,60 @@
+package pacman;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Command line entry point that runs a {@link GameServer} and reports its load
+ * every ten seconds. Play on it with {@code java pacman.App --connect
+ * host[:port] [room]}.
+ * <p>
+ * Usage: {@code java pacman.ServerApp [port] [map file]} (default port
+ * {@value GameServer#DEFAULT_PORT}, the classic maze).
+ */
+public class ServerApp {
+	private static final long REPORT_MILLIS = 10_000; // Time between load reports
+
+	/**
+	 * The main method runs the server until the process is stopped.
+	 */
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : GameServer.DEFAULT_PORT;
+		GameMap map = args.length > 1 ? MapLoader.load(Paths.get(args[1])) : MapLoader.classic();
+
+		GameServer server = new GameServer(map, port);
+		System.out.printf("Serving %d x %d maze on port %d%n", map.getColumns(), map.getRows(), server.getPort());
+
+		Thread reporter = new Thread(() -> report(server), "server-report");
+		reporter.setDaemon(true);
+		reporter.start();
+		server.run();
+	}
+
+	/**
+	 * Prints the rooms, clients, tick rate, time and bytes per tick of the last
+	 * interval, forever.
+	 */
+	private static void report(GameServer server) {
+		long ticks = 0;
+		long nanos = 0;
+		long bytes = 0;
+		while (true) {
+			try {
+				Thread.sleep(REPORT_MILLIS);
+			} catch (InterruptedException e) {
+				return;
+			}
+			long newTicks = server.getRoomTicks();
+			long newNanos = server.getTickNanos();
+			long newBytes = server.getBytesSent();
+			long count = Math.max(1, newTicks - ticks);
+			System.out.printf("%d rooms, %d clients, %,.0f ticks/s, %.1f us and %.0f bytes per tick%n",
+					server.getRoomCount(), server.getClientCount(), (newTicks - ticks) * 1000.0 / REPORT_MILLIS,
+					(newNanos - nanos) / 1e3 / count, (newBytes - bytes) / (double) count);
+			ticks = newTicks;
+			nanos = newNanos;
+			bytes = newBytes;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package pacman;
+
+/**
+ * Plays the game in place of a human by pressing and releasing keys on the
+ * controller, the same input a human gives. Gets its turn before every tick.
+ */
+public interface SimulatedPlayer {
+
+	/**
+	 * Gives the player its turn before a tick.
+	 *
+	 * @param controller the controller receiving the key events
+	 */
+	void play(GameController controller);
+}
@@ -0,0 +1,166 @@
+package pacman;
+
+/**
+ * Plays the game's sound effects through an {@link AudioMixer}. The play
+ * methods only queue a request for the mixer thread, so they can be called from
+ * any thread without touching the audio API. The effects of a game are played
+ * by following its events on a thread of their own, off the game tick.
+ */
+public class SoundManager {
+	// Voices each effect may use at once; short effects overlap when retriggered
+	private static final int PELLET_VOICES = 4;
+	private static final int EFFECT_VOICES = 2;
+
+	private AudioMixer mixer; // Mixer playing all sounds, null when silent
+	private GameEventPump pump; // Plays the effects of the followed game, null if none
+
+	private int startMusic;
+	private int pelletSound;
+	private int lifeLostSound;
+	private int successSound;
+	private int gameOverSound;
+
+	/**
+	 * Constructor that decodes all sounds and starts the audio mixer.
+	 */
+	public SoundManager() {
+		this(true);
+	}
+
+	/**
+	 * Constructor that optionally skips loading, leaving the mixer unset so that
+	 * all play methods do nothing.
+	 *
+	 * @param load true to load all sounds, false for a silent manager
+	 */
+	private SoundManager(boolean load) {
+		// Load all sounds when the game starts
+		if (load)
+			loadSounds();
+	}
+
+	/**
+	 * Creates a sound manager that never opens an audio line and ignores every
+	 * play request. Used when the game runs without a display or sound device.
+	 *
+	 * @return a silent SoundManager
+	 */
+	public static SoundManager silent() {
+		return new SoundManager(false);
+	}
+
+	/**
+	 * Hands the shared decoded sounds to a new mixer and starts it. Catches and
+	 * prints exceptions if loading fails, leaving the manager silent.
+	 */
+	private void loadSounds() {
+		AudioMixer loading = new AudioMixer();
+		try {
+			Assets assets = Assets.get();
+			startMusic = loading.add(assets.sound("start_music"), 1);
+			pelletSound = loading.add(assets.sound("pellet_sound"), PELLET_VOICES);
+			lifeLostSound = loading.add(assets.sound("life_lost"), EFFECT_VOICES);
+			successSound = loading.add(assets.sound("success"), EFFECT_VOICES);
+			gameOverSound = loading.add(assets.sound("game_over"), 1);
+			loading.start();
+			mixer = loading;
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Queues a sound for the mixer, if there is one.
+	 */
+	private void play(int sound) {
+		if (mixer != null)
+			mixer.play(sound);
+	}
+
+	/**
+	 * Plays the sound effects of a game's events from now on, on a thread of
+	 * their own. Stops following the game followed before. A silent manager
+	 * starts no thread.
+	 *
+	 * @param events the event ring of the game
+	 */
+	public void follow(GameEventRing events) {
+		if (mixer == null)
+			return;
+		if (pump != null)
+			pump.close();
+		pump = new GameEventPump(events, this::onEvent);
+		pump.start("sound-events");
+	}
+
+	/**
+	 * Plays the effect of one game event.
+	 */
+	private void onEvent(GameEvent event, long tick, int value, int score) {
+		switch (event) {
+		case PELLET_EATEN, POWER_PELLET_EATEN -> playPelletSound();
+		case GHOST_EATEN, LEVEL_CLEARED -> playSuccessSound();
+		case LIFE_LOST -> playLifeLostSound();
+		case GAME_OVER -> playGameOverSound();
+		}
+	}
+
+	/**
+	 * Plays the background start music.
+	 */
+	public void playStartMusic() {
+		play(startMusic);
+	}
+
+	/**
+	 * Plays the pellet collection sound effect. Pellets eaten in quick succession
+	 * overlap instead of cutting each other off.
+	 */
+	public void playPelletSound() {
+		play(pelletSound);
+	}
+
+	/**
+	 * Plays the sound effect for losing a life.
+	 */
+	public void playLifeLostSound() {
+		play(lifeLostSound);
+	}
+
+	/**
+	 * Plays the success sound effect.
+	 */
+	public void playSuccessSound() {
+		play(successSound);
+	}
+
+	/**
+	 * Plays the game over sound effect.
+	 */
+	public void playGameOverSound() {
+		play(gameOverSound);
+	}
+
+	/**
+	 * Gets the mixer playing the sounds, for its latency and underrun statistics.
+	 *
+	 * @return the mixer, or null if the manager is silent
+	 */
+	public AudioMixer getMixer() {
+		return mixer;
+	}
+
+	/**
+	 * Stops following the game, then stops the mixer and releases the audio line.
+	 */
+	public void close() {
+		if (pump != null) {
+			pump.close();
+			pump = null;
+		}
+		if (mixer != null) {
+			mixer.close();
+			mixer = null;
+		}
+	}
+}
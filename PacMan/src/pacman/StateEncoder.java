@@ -0,0 +1,209 @@
+package pacman;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes the STATE messages of one game for a {@link GameServer}. Remembers
+ * what it last sent, the score, lives, level, the position and state byte of
+ * every entity and the live pellet bits, and after each tick sends only what
+ * differs. A tick typically moves every entity by a few pixels and eats at
+ * most a pellet, so a classic STATE frame is a few dozen bytes. Encoding
+ * allocates nothing.
+ */
+public class StateEncoder {
+	private final GameController controller; // Game whose state is sent
+	private final EntityStore entities;
+	private final PelletGrid pellets;
+
+	// State as last sent in a delta
+	private int score;
+	private int lives;
+	private int level;
+	private boolean gameOver;
+	private final int[] x;
+	private final int[] y;
+	private final byte[] state;
+	private final long[] live;
+
+	/**
+	 * Constructs an encoder for the given game. The first delta holds the changes
+	 * from the game's current state, so clients need a keyframe before it.
+	 *
+	 * @param controller the game to send
+	 */
+	public StateEncoder(GameController controller) {
+		this.controller = controller;
+		this.entities = controller.getBoard().getEntities();
+		this.pellets = controller.getBoard().getPellets();
+		int count = entities.getCount();
+		this.x = new int[count];
+		this.y = new int[count];
+		this.state = new byte[count];
+		this.live = new long[pellets.getWordCount()];
+
+		score = controller.getScore();
+		lives = controller.getLives();
+		level = controller.getLevel();
+		gameOver = controller.isGameOver();
+		for (int i = 0; i < count; i++) {
+			x[i] = entities.getX(i);
+			y[i] = entities.getY(i);
+			state[i] = (byte) GameSnapshot.packState(entities, i);
+		}
+		for (int word = 0; word < live.length; word++)
+			live[word] = pellets.getLiveWord(word);
+	}
+
+	/**
+	 * Writes a STATE frame with what changed since the previous delta, and
+	 * remembers the current state as sent. Every client of the game must get
+	 * every delta.
+	 *
+	 * @param out buffer with room for {@link NetProtocol#maxStateFrame(GameMap)}
+	 *            bytes
+	 */
+	public void encodeDelta(ByteBuffer out) {
+		encode(out, false);
+	}
+
+	/**
+	 * Writes a STATE frame with the whole current state, for a client that just
+	 * joined. The deltas that follow continue from it, so call it between ticks,
+	 * after the tick's delta has been written.
+	 *
+	 * @param out buffer with room for {@link NetProtocol#maxStateFrame(GameMap)}
+	 *            bytes
+	 */
+	public void encodeKeyframe(ByteBuffer out) {
+		encode(out, true);
+	}
+
+	/**
+	 * Writes a delta, or a keyframe that leaves the remembered state alone.
+	 */
+	private void encode(ByteBuffer out, boolean keyframe) {
+		int start = NetProtocol.beginFrame(out, NetProtocol.STATE);
+		NetProtocol.putVarint(out, controller.getClock().getTick());
+		int changesAt = out.position();
+		out.put((byte) 0); // Patched below
+		int changes = keyframe ? NetProtocol.KEYFRAME : 0;
+
+		int newScore = controller.getScore();
+		int newLives = controller.getLives();
+		int newLevel = controller.getLevel();
+		boolean newGameOver = controller.isGameOver();
+		if (keyframe || newScore != score) {
+			changes |= NetProtocol.SCORE;
+			NetProtocol.putVarint(out, newScore);
+		}
+		if (keyframe || newLives != lives) {
+			changes |= NetProtocol.LIVES;
+			NetProtocol.putVarint(out, newLives);
+		}
+		if (keyframe || newLevel != level) {
+			changes |= NetProtocol.LEVEL;
+			NetProtocol.putVarint(out, newLevel);
+		}
+		if (keyframe || newGameOver != gameOver) {
+			changes |= NetProtocol.GAME_OVER;
+			out.put((byte) (newGameOver ? 1 : 0));
+		}
+		if (!keyframe) {
+			score = newScore;
+			lives = newLives;
+			level = newLevel;
+			gameOver = newGameOver;
+		}
+
+		encodeEntities(out, keyframe);
+		if (encodePellets(out, keyframe))
+			changes |= NetProtocol.PELLETS;
+
+		out.put(changesAt, (byte) changes);
+		NetProtocol.endFrame(out, start);
+	}
+
+	/**
+	 * Writes the entities that moved or changed state, or all of them with
+	 * absolute positions for a keyframe.
+	 */
+	private void encodeEntities(ByteBuffer out, boolean keyframe) {
+		int count = entities.getCount();
+		int moved = count;
+		if (!keyframe) {
+			moved = 0;
+			for (int i = 0; i < count; i++) {
+				if (hasChanged(i))
+					moved++;
+			}
+		}
+		NetProtocol.putVarint(out, moved);
+
+		for (int i = 0; i < count; i++) {
+			if (!keyframe && !hasChanged(i))
+				continue;
+			int newX = entities.getX(i);
+			int newY = entities.getY(i);
+			int newState = GameSnapshot.packState(entities, i);
+			NetProtocol.putVarint(out, i);
+			NetProtocol.putSignedVarint(out, keyframe ? newX : newX - x[i]);
+			NetProtocol.putSignedVarint(out, keyframe ? newY : newY - y[i]);
+			out.put((byte) newState);
+			if (!keyframe) {
+				x[i] = newX;
+				y[i] = newY;
+				state[i] = (byte) newState;
+			}
+		}
+	}
+
+	/**
+	 * Checks whether an entity differs from what was last sent.
+	 */
+	private boolean hasChanged(int index) {
+		return entities.getX(index) != x[index] || entities.getY(index) != y[index]
+				|| GameSnapshot.packState(entities, index) != state[index];
+	}
+
+	/**
+	 * Writes the pellets eaten since the previous delta, or every eaten pellet if
+	 * any came back or for a keyframe.
+	 *
+	 * @return true if the list holds every eaten pellet
+	 */
+	private boolean encodePellets(ByteBuffer out, boolean keyframe) {
+		boolean restored = keyframe;
+		for (int word = 0; word < live.length && !restored; word++) {
+			if ((pellets.getLiveWord(word) & ~live[word]) != 0)
+				restored = true;
+		}
+
+		int count = 0;
+		for (int word = 0; word < live.length; word++)
+			count += Long.bitCount(eaten(word, restored));
+		NetProtocol.putVarint(out, count);
+
+		int previous = 0;
+		for (int word = 0; word < live.length; word++) {
+			long bits = eaten(word, restored);
+			while (bits != 0) {
+				int tile = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1; // Clear the lowest set bit
+				NetProtocol.putVarint(out, tile - previous);
+				previous = tile;
+			}
+			if (!keyframe)
+				live[word] = pellets.getLiveWord(word);
+		}
+		return restored;
+	}
+
+	/**
+	 * Gets the pellets of one word to send: those eaten since the last delta, or
+	 * all eaten ones.
+	 */
+	private long eaten(int word, boolean all) {
+		long current = pellets.getLiveWord(word);
+		return (all ? pellets.getInitialWord(word) : live[word]) & ~current;
+	}
+}
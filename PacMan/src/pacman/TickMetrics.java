@@ -0,0 +1,160 @@
+package pacman;
+
+/**
+ * Timings and counters of the game loop, for the debug overlay. Holds one
+ * {@link LatencyHistogram} per phase of {@link GameController#update()}, one
+ * for the whole tick and one for the render pass, plus counters of pellets
+ * eaten, ghosts tested for a collision with Pacman and ticks the loop missed
+ * because it fell behind, and the duration of the last in-place restart. Every
+ * phase runs once per tick, whatever the speed level. Not thread-safe; record
+ * from the thread running the game loop.
+ */
+public class TickMetrics {
+	// Phases with a histogram each
+	public static final int CLOCK = 0; // Advancing the clock and firing due timers
+	public static final int PLAYER = 1;
+	public static final int PELLETS = 2;
+	public static final int GHOSTS = 3;
+	public static final int COLLISIONS = 4;
+	public static final int TICK = 5; // The whole update, including clearing a level
+	public static final int RENDER = 6;
+	public static final int PHASES = 7;
+
+	private static final String[] NAMES = { "clock", "player", "pellets", "ghosts", "collisions", "tick", "render" };
+
+	private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES];
+	private long pelletsEaten; // Pellets eaten since the last reset
+	private long collisionTests; // Ghosts tested against Pacman since the last reset
+	private long ticksMissed; // Ticks skipped by the loop since the last reset
+	private long lastRestartNanos = -1; // Duration of the last restart, -1 if none; kept by reset
+
+	/**
+	 * Constructs empty metrics.
+	 */
+	public TickMetrics() {
+		for (int i = 0; i < PHASES; i++)
+			histograms[i] = new LatencyHistogram();
+	}
+
+	/**
+	 * Records the duration of one run of a phase.
+	 *
+	 * @param phase one of the phase constants
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void record(int phase, long nanos) {
+		histograms[phase].record(nanos);
+	}
+
+	/**
+	 * Gets the histogram of a phase.
+	 *
+	 * @param phase one of the phase constants
+	 * @return the histogram
+	 */
+	public LatencyHistogram getHistogram(int phase) {
+		return histograms[phase];
+	}
+
+	/**
+	 * Gets the display name of a phase.
+	 *
+	 * @param phase one of the phase constants
+	 * @return the name
+	 */
+	public static String getName(int phase) {
+		return NAMES[phase];
+	}
+
+	/**
+	 * Counts eaten pellets.
+	 *
+	 * @param count number of pellets
+	 */
+	public void addPelletsEaten(int count) {
+		pelletsEaten += count;
+	}
+
+	/**
+	 * Counts ghosts tested for a collision with Pacman.
+	 *
+	 * @param count number of ghosts
+	 */
+	public void addCollisionTests(int count) {
+		collisionTests += count;
+	}
+
+	/**
+	 * Counts ticks the game loop skipped because it fell behind.
+	 *
+	 * @param count number of ticks
+	 */
+	public void addTicksMissed(long count) {
+		ticksMissed += count;
+	}
+
+	/**
+	 * Gets the number of pellets eaten.
+	 *
+	 * @return the count since the last reset
+	 */
+	public long getPelletsEaten() {
+		return pelletsEaten;
+	}
+
+	/**
+	 * Gets the number of ghosts tested for a collision with Pacman.
+	 *
+	 * @return the count since the last reset
+	 */
+	public long getCollisionTests() {
+		return collisionTests;
+	}
+
+	/**
+	 * Gets the number of ticks the game loop skipped.
+	 *
+	 * @return the count since the last reset
+	 */
+	public long getTicksMissed() {
+		return ticksMissed;
+	}
+
+	/**
+	 * Sets how long the last in-place restart of the game took.
+	 *
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void setLastRestart(long nanos) {
+		lastRestartNanos = nanos;
+	}
+
+	/**
+	 * Gets how long the last in-place restart of the game took.
+	 *
+	 * @return the duration in nanoseconds, or -1 if the game has not restarted
+	 */
+	public long getLastRestart() {
+		return lastRestartNanos;
+	}
+
+	/**
+	 * Clears the histograms, keeping the counters, so that the timings cover a
+	 * recent window only.
+	 */
+	public void resetLatencies() {
+		for (int i = 0; i < PHASES; i++)
+			histograms[i].reset();
+	}
+
+	/**
+	 * Clears the histograms and counters. The last restart is kept, since it
+	 * happens before the overlay is shown.
+	 */
+	public void reset() {
+		resetLatencies();
+		pelletsEaten = 0;
+		collisionTests = 0;
+		ticksMissed = 0;
+	}
+}
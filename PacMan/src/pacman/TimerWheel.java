@@ -0,0 +1,114 @@
+package pacman;
+
+/**
+ * Hashed timer wheel counting in game ticks. Timers are placed in the slot of
+ * their deadline; each tick only the timers of one slot are inspected, so
+ * waiting timers cost nothing until they are due. Deadlines further away than
+ * the wheel size simply stay in their slot for more rounds.
+ */
+public class TimerWheel {
+	private final GameTimer[] slots; // Head of the timer list of each slot
+	private final int mask; // Slot count minus one, for fast modulo
+	private long now; // Last tick processed
+
+	/**
+	 * Constructs a timer wheel with the given number of slots.
+	 *
+	 * @param slotCount number of slots, rounded up to a power of two
+	 */
+	public TimerWheel(int slotCount) {
+		int size = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+		slots = new GameTimer[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * Schedules a timer to fire after the given number of ticks, replacing any
+	 * earlier schedule of the same timer.
+	 *
+	 * @param timer the timer to schedule
+	 * @param ticks delay in ticks, at least one
+	 */
+	public void schedule(GameTimer timer, long ticks) {
+		timer.cancel();
+
+		timer.deadline = now + Math.max(1, ticks);
+		int slot = (int) (timer.deadline & mask);
+		timer.wheel = this;
+		timer.previous = null;
+		timer.next = slots[slot];
+		if (slots[slot] != null)
+			slots[slot].previous = timer;
+		slots[slot] = timer;
+	}
+
+	/**
+	 * Removes a scheduled timer without firing it.
+	 *
+	 * @param timer the timer to cancel
+	 */
+	public void cancel(GameTimer timer) {
+		if (timer.wheel != this)
+			return;
+
+		if (timer.previous != null)
+			timer.previous.next = timer.next;
+		else
+			slots[(int) (timer.deadline & mask)] = timer.next;
+		if (timer.next != null)
+			timer.next.previous = timer.previous;
+
+		timer.next = null;
+		timer.previous = null;
+		timer.wheel = null;
+	}
+
+	/**
+	 * Advances the wheel to the given tick and fires every timer due at it.
+	 *
+	 * @param tick the new current tick, one past the previous one
+	 */
+	public void advance(long tick) {
+		now = tick;
+		int slot = (int) (tick & mask);
+		GameTimer timer = slots[slot];
+		while (timer != null) {
+			if (timer.deadline <= tick) {
+				cancel(timer);
+				timer.fire(); // May reschedule or cancel timers of this slot
+				timer = slots[slot]; // so rescan it from the start
+			} else {
+				timer = timer.next;
+			}
+		}
+	}
+
+	/**
+	 * Cancels every scheduled timer and rewinds the wheel to tick zero.
+	 */
+	public void reset() {
+		reset(0);
+	}
+
+	/**
+	 * Cancels every scheduled timer and sets the wheel to the given tick.
+	 *
+	 * @param tick the new current tick
+	 */
+	public void reset(long tick) {
+		for (int slot = 0; slot < slots.length; slot++) {
+			while (slots[slot] != null)
+				cancel(slots[slot]);
+		}
+		now = tick;
+	}
+
+	/**
+	 * Gets the last tick the wheel was advanced to.
+	 *
+	 * @return the current tick
+	 */
+	public long getNow() {
+		return now;
+	}
+}
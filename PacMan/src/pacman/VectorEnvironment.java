@@ -0,0 +1,350 @@
+package pacman;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A batch of independent headless games stepped together, as an environment
+ * for training agents. {@link #reset(long, ByteBuffer)} starts every game and
+ * {@link #step(int[], ByteBuffer, float[], boolean[])} applies one action per
+ * game, advances each by a fixed number of ticks and reports the score gained
+ * and whether the game ended. Observations are written straight into a
+ * caller-supplied buffer, one block of {@link #getObservationBytes()} bytes per
+ * game, so a direct buffer can be shared with native code or numpy without
+ * copying. Stepping allocates nothing but the seed generator of a restarted
+ * game; games are split into chunks run on the common fork-join pool, and the
+ * outcome is the same however the chunks are scheduled, and on one core.
+ * <p>
+ * A game that ended is restarted by the next step, which ignores its action,
+ * reports no reward and observes the new game. Each game draws the seeds of
+ * its games from a generator of its own, split from the seed of the batch, so
+ * a batch plays out identically for the same seed and actions.
+ * <p>
+ * Observation block of one game, little-endian, every section starting on an
+ * 8-byte boundary:
+ *
+ * <pre>
+ * int   score        int  lives       int  level       int  ticks since reset
+ * byte  per tile, row by row: 0 floor, 1 wall, 2 pellet tile, 3 power pellet tile
+ * long  live pellet bits, bit (tile % 64) of word (tile / 64)
+ * per entity, Pacman first, 12 bytes each:
+ *       int x, int y  left and top edge in pixels
+ *       byte          direction index (U, L, D, R)
+ *       byte          EntityStore flags
+ *       short         unused
+ * </pre>
+ */
+public class VectorEnvironment {
+	// Actions, the same codes as the directions of an InputLog
+	public static final int NONE = 0;
+	public static final int UP = 1;
+	public static final int DOWN = 2;
+	public static final int LEFT = 3;
+	public static final int RIGHT = 4;
+
+	private static final char[] DIRECTIONS = { ' ', 'U', 'D', 'L', 'R' }; // By action
+	private static final int HEADER_BYTES = 16;
+	private static final int ENTITY_BYTES = 12;
+	private static final int CHUNKS_PER_THREAD = 4; // Chunks per pool thread, to even out uneven games
+
+	private final HeadlessGame[] games; // One game per environment
+	private final SplittableRandom[] seeds; // Seeds of each environment's next games
+	private final int[] lastScores; // Score at the end of the previous step
+	private final boolean[] over; // Whether the game ended in the previous step
+	private final int ticksPerStep; // Ticks advanced by one step
+	private final byte[] tiles; // Tile section of every observation, fixed by the map
+	private final int pelletsAt; // Offset of the pellet words in a block
+	private final int entitiesAt; // Offset of the entities in a block
+	private final int observationBytes; // Length of a block
+
+	private final Chunk[] chunks; // Ranges of environments run as one task each
+	private final RecursiveAction batch; // Runs every chunk on the pool
+	// Arguments of the step in progress, read by the chunks
+	private int[] actions;
+	private ByteBuffer observations;
+	private float[] rewards;
+	private boolean[] dones;
+
+	/**
+	 * Constructs a batch of games on the given map. Call
+	 * {@link #reset(long, ByteBuffer)} before the first step.
+	 *
+	 * @param map          the maze every game is played on
+	 * @param count        number of games
+	 * @param ticksPerStep game ticks advanced by each step, with the action held
+	 */
+	public VectorEnvironment(GameMap map, int count, int ticksPerStep) {
+		if (count < 1 || ticksPerStep < 1)
+			throw new IllegalArgumentException("Need at least one game and one tick per step");
+		this.games = new HeadlessGame[count];
+		this.seeds = new SplittableRandom[count];
+		this.lastScores = new int[count];
+		this.over = new boolean[count];
+		this.ticksPerStep = ticksPerStep;
+		for (int i = 0; i < count; i++)
+			games[i] = new HeadlessGame(map, 0, new HighScore());
+
+		int rows = map.getRows();
+		int columns = map.getColumns();
+		PelletGrid pellets = games[0].getBoard().getPellets();
+		tiles = new byte[rows * columns];
+		for (int tile = 0; tile < tiles.length; tile++) {
+			if (map.getWalls().isWall(tile / columns, tile % columns))
+				tiles[tile] = 1;
+			else if (pellets.isPowerPellet(tile))
+				tiles[tile] = 3;
+			else if (pellets.isPellet(tile))
+				tiles[tile] = 2;
+		}
+		pelletsAt = align(HEADER_BYTES + tiles.length);
+		entitiesAt = pelletsAt + pellets.getWordCount() * 8;
+		observationBytes = entitiesAt + games[0].getBoard().getEntities().getCount() * ENTITY_BYTES;
+
+		int size = Math.max(1, count / (ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD));
+		chunks = new Chunk[(count + size - 1) / size];
+		for (int i = 0; i < chunks.length; i++)
+			chunks[i] = new Chunk(i * size, Math.min(count, (i + 1) * size));
+		batch = new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				for (Chunk chunk : chunks)
+					chunk.reinitialize(); // Tasks are reused from step to step
+				invokeAll(chunks);
+			}
+		};
+	}
+
+	/**
+	 * Rounds an offset up to a multiple of 8.
+	 */
+	private static int align(int offset) {
+		return (offset + 7) & ~7;
+	}
+
+	/**
+	 * Starts a new game in every environment and writes their observations.
+	 *
+	 * @param seed         seed from which the seeds of every game are derived
+	 * @param observations buffer of at least {@link #getBufferBytes()} bytes in
+	 *                     little-endian order
+	 */
+	public void reset(long seed, ByteBuffer observations) {
+		checkBuffer(observations);
+		SplittableRandom batchSeeds = new SplittableRandom(seed);
+		for (int i = 0; i < games.length; i++) {
+			seeds[i] = batchSeeds.split();
+			restart(i);
+			observe(i, observations);
+		}
+	}
+
+	/**
+	 * Applies one action in every environment, advances each game by the ticks of
+	 * a step, and writes the outcome. Games that ended in the previous step start
+	 * over instead.
+	 *
+	 * @param actions      one of {@link #NONE}, {@link #UP}, {@link #DOWN},
+	 *                     {@link #LEFT} or {@link #RIGHT} per game
+	 * @param observations buffer of at least {@link #getBufferBytes()} bytes in
+	 *                     little-endian order, receiving every game's observation
+	 * @param rewards      receives the score each game gained
+	 * @param dones        receives whether each game ended
+	 */
+	public void step(int[] actions, ByteBuffer observations, float[] rewards, boolean[] dones) {
+		checkBuffer(observations);
+		if (actions.length < games.length || rewards.length < games.length || dones.length < games.length)
+			throw new IllegalArgumentException("Need an action, reward and done flag for each of " + games.length
+					+ " games");
+		for (int i = 0; i < games.length; i++) {
+			if (actions[i] < NONE || actions[i] > RIGHT)
+				throw new IllegalArgumentException("Unknown action " + actions[i] + " for game " + i);
+		}
+
+		this.actions = actions;
+		this.observations = observations;
+		this.rewards = rewards;
+		this.dones = dones;
+		try {
+			if (chunks.length > 1 && ForkJoinPool.getCommonPoolParallelism() > 1) {
+				batch.reinitialize();
+				ForkJoinPool.commonPool().invoke(batch);
+			} else {
+				stepRange(0, games.length);
+			}
+		} finally {
+			this.actions = null;
+			this.observations = null;
+			this.rewards = null;
+			this.dones = null;
+		}
+	}
+
+	/**
+	 * Steps the environments in a range of indices with the arguments of the step
+	 * in progress.
+	 */
+	private void stepRange(int from, int to) {
+		for (int i = from; i < to; i++) {
+			GameController controller = games[i].getController();
+			if (over[i]) {
+				restart(i);
+				rewards[i] = 0;
+			} else {
+				controller.holdDirection(DIRECTIONS[actions[i]]);
+				games[i].advance(ticksPerStep);
+				rewards[i] = controller.getScore() - lastScores[i];
+				lastScores[i] = controller.getScore();
+				over[i] = controller.isGameOver();
+			}
+			dones[i] = over[i];
+			observe(i, observations);
+		}
+	}
+
+	/**
+	 * Starts a new game in an environment with the next seed of its generator.
+	 */
+	private void restart(int index) {
+		games[index].reset(seeds[index].nextLong());
+		lastScores[index] = 0;
+		over[index] = false;
+	}
+
+	/**
+	 * Writes the observation of one environment into its block. Only absolute
+	 * puts are used, so chunks write their blocks concurrently.
+	 */
+	private void observe(int index, ByteBuffer out) {
+		HeadlessGame game = games[index];
+		GameController controller = game.getController();
+		int at = index * observationBytes;
+		out.putInt(at, controller.getScore());
+		out.putInt(at + 4, controller.getLives());
+		out.putInt(at + 8, controller.getLevel());
+		out.putInt(at + 12, (int) game.getTicks());
+		out.put(at + HEADER_BYTES, tiles);
+
+		PelletGrid pellets = game.getBoard().getPellets();
+		for (int word = 0, to = at + pelletsAt; word < pellets.getWordCount(); word++, to += 8)
+			out.putLong(to, pellets.getLiveWord(word));
+
+		EntityStore entities = game.getBoard().getEntities();
+		for (int i = 0, to = at + entitiesAt; i < entities.getCount(); i++, to += ENTITY_BYTES) {
+			out.putInt(to, entities.getX(i));
+			out.putInt(to + 4, entities.getY(i));
+			out.put(to + 8, (byte) Math.max(0, MazeDistances.directionIndex(entities.getDirection(i))));
+			out.put(to + 9, (byte) ((entities.hasFlag(i, EntityStore.FRIGHTENED) ? EntityStore.FRIGHTENED : 0)
+					| (entities.hasFlag(i, EntityStore.RESPAWNING) ? EntityStore.RESPAWNING : 0)));
+			out.putShort(to + 10, (short) 0);
+		}
+	}
+
+	/**
+	 * Checks that a buffer can take the observations of every environment.
+	 */
+	private void checkBuffer(ByteBuffer observations) {
+		if (observations.order() != ByteOrder.LITTLE_ENDIAN)
+			throw new IllegalArgumentException("Observation buffer must be little-endian");
+		if (observations.capacity() < getBufferBytes())
+			throw new IllegalArgumentException(
+					"Observations need " + getBufferBytes() + " bytes, got " + observations.capacity());
+	}
+
+	/**
+	 * Allocates a direct buffer that fits the observations of every environment,
+	 * in the byte order they are written in.
+	 *
+	 * @return the buffer
+	 */
+	public ByteBuffer allocateObservations() {
+		return ByteBuffer.allocateDirect(getBufferBytes()).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Gets the number of environments.
+	 *
+	 * @return the game count
+	 */
+	public int getCount() {
+		return games.length;
+	}
+
+	/**
+	 * Gets the length of one game's observation block.
+	 *
+	 * @return bytes per observation
+	 */
+	public int getObservationBytes() {
+		return observationBytes;
+	}
+
+	/**
+	 * Gets the length of the observations of every environment.
+	 *
+	 * @return bytes needed in the observation buffer
+	 */
+	public int getBufferBytes() {
+		return games.length * observationBytes;
+	}
+
+	/**
+	 * Gets the offset of the pellet words in an observation block.
+	 *
+	 * @return offset in bytes from the start of the block
+	 */
+	public int getPelletOffset() {
+		return pelletsAt;
+	}
+
+	/**
+	 * Gets the offset of the entities in an observation block.
+	 *
+	 * @return offset in bytes from the start of the block
+	 */
+	public int getEntityOffset() {
+		return entitiesAt;
+	}
+
+	/**
+	 * Gets the game of one environment, e.g. to render or inspect it.
+	 *
+	 * @param index the environment
+	 * @return the headless game
+	 */
+	public HeadlessGame getGame(int index) {
+		return games[index];
+	}
+
+	/**
+	 * A range of environments stepped by one task. Each game only writes its own
+	 * slots and block, so the chunks run without locking.
+	 */
+	private final class Chunk extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int from; // First environment of the range
+		private final int to; // Environment after the range
+
+		/**
+		 * Constructs a chunk for the environments from {@code from} up to
+		 * {@code to}.
+		 */
+		Chunk(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Steps the range.
+		 */
+		@Override
+		protected void compute() {
+			stepRange(from, to);
+		}
+	}
+}
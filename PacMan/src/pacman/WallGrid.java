@@ -0,0 +1,118 @@
+package pacman;
+
+/**
+ * Grid-indexed lookup of wall tiles. Each tile of the board is one bit, so a
+ * collision query only has to inspect the one to four tiles an entity's
+ * bounding box overlaps instead of scanning every wall on the board. The bits
+ * are stored in chunks of 64 by 64 tiles, one long per chunk row, and a chunk
+ * without walls is never allocated, so large open arenas stay small in memory.
+ */
+public class WallGrid {
+	private static final int CHUNK_SHIFT = 6; // Chunks are 64 tiles on each side
+	private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+	private final int tileSize; // Size of each tile in pixels
+	private final int rows; // Number of tile rows
+	private final int columns; // Number of tile columns
+	private final int chunkColumns; // Number of chunks per row of chunks
+	private final long[][] chunks; // Wall bits per chunk, one long per tile row, null if the chunk has no walls
+
+	/**
+	 * Constructs an empty wall grid for a board of the given dimensions.
+	 *
+	 * @param rows     number of tile rows
+	 * @param columns  number of tile columns
+	 * @param tileSize size of each tile in pixels
+	 */
+	public WallGrid(int rows, int columns, int tileSize) {
+		this.rows = rows;
+		this.columns = columns;
+		this.tileSize = tileSize;
+		this.chunkColumns = (columns + CHUNK_MASK) >>> CHUNK_SHIFT;
+		this.chunks = new long[((rows + CHUNK_MASK) >>> CHUNK_SHIFT) * chunkColumns][];
+	}
+
+	/**
+	 * Marks the tile at the given coordinate as a wall.
+	 *
+	 * @param row    tile row
+	 * @param column tile column
+	 */
+	public void setWall(int row, int column) {
+		int chunk = (row >>> CHUNK_SHIFT) * chunkColumns + (column >>> CHUNK_SHIFT);
+		if (chunks[chunk] == null)
+			chunks[chunk] = new long[1 << CHUNK_SHIFT];
+		chunks[chunk][row & CHUNK_MASK] |= 1L << column; // The shift only uses the low six bits of column
+	}
+
+	/**
+	 * Checks whether the tile at the given coordinate is a wall. Coordinates
+	 * outside the board are never walls, which keeps the wrap-around tunnels open.
+	 *
+	 * @param row    tile row
+	 * @param column tile column
+	 * @return true if the tile is a wall, false otherwise
+	 */
+	public boolean isWall(int row, int column) {
+		if (row < 0 || row >= rows || column < 0 || column >= columns)
+			return false;
+		long[] chunk = chunks[(row >>> CHUNK_SHIFT) * chunkColumns + (column >>> CHUNK_SHIFT)];
+		return chunk != null && (chunk[row & CHUNK_MASK] & (1L << column)) != 0;
+	}
+
+	/**
+	 * Checks whether a rectangle in pixel coordinates overlaps any wall tile. Only
+	 * the tiles covered by the rectangle are tested. Rectangles that merely touch
+	 * a wall edge do not collide, matching {@link java.awt.Rectangle#intersects}.
+	 *
+	 * @param x      left edge in pixels
+	 * @param y      top edge in pixels
+	 * @param width  width in pixels
+	 * @param height height in pixels
+	 * @return true if the rectangle overlaps a wall, false otherwise
+	 */
+	public boolean collides(int x, int y, int width, int height) {
+		if (width <= 0 || height <= 0)
+			return false;
+
+		int firstColumn = Math.floorDiv(x, tileSize);
+		int lastColumn = Math.floorDiv(x + width - 1, tileSize);
+		int firstRow = Math.floorDiv(y, tileSize);
+		int lastRow = Math.floorDiv(y + height - 1, tileSize);
+
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				if (isWall(row, column))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the number of tile rows covered by the grid.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Gets the number of tile columns covered by the grid.
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Gets the size of each tile in pixels.
+	 *
+	 * @return the tile size
+	 */
+	public int getTileSize() {
+		return tileSize;
+	}
+}
@@ -0,0 +1,148 @@
+package pacman;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks what a consumer of the game events sees through a
+ * {@link GameEventPump}: enough to follow the score of a game, the events of a
+ * tick only once published and in the order they happened, and a count of the
+ * events it missed when it falls too far behind.
+ */
+class GameEventRingTest {
+	private static final int CAPACITY = 8; // Ring size of the tests on a bare ring
+
+	/**
+	 * Rebuilds the score of a game from its events.
+	 */
+	private static final class ScoreTally implements GameEventListener {
+		private int score; // Score according to the events
+		private int events;
+		private int mismatches; // Events whose score differs from the rebuilt one
+		private long lastTick; // Tick of the last event
+		private boolean gameOver; // Whether the game over event was seen
+
+		/**
+		 * Adds the points of an event and compares the result with its score.
+		 */
+		@Override
+		public void onEvent(GameEvent event, long tick, int value, int eventScore) {
+			assertTrue(tick >= lastTick, "event of tick " + tick + " after one of tick " + lastTick);
+			lastTick = tick;
+			events++;
+			switch (event) {
+			case PELLET_EATEN, POWER_PELLET_EATEN -> score += 10;
+			case GHOST_EATEN -> score += 200;
+			case GAME_OVER -> gameOver = true;
+			default -> {
+			}
+			}
+			if (score != eventScore)
+				mismatches++;
+		}
+	}
+
+	/**
+	 * Collects the values of the events handed over, in order.
+	 */
+	private static final class ValueLog implements GameEventListener {
+		private final List<Integer> values = new ArrayList<>();
+
+		/**
+		 * Records the value of an event.
+		 */
+		@Override
+		public void onEvent(GameEvent event, long tick, int value, int score) {
+			values.add(value);
+		}
+	}
+
+	/**
+	 * Plays a game with the autopilot, draining the events after every tick, and
+	 * checks that they add up to the final score.
+	 */
+	@Test
+	void consumerRebuildsScoreFromEvents() {
+		HeadlessGame game = new HeadlessGame(42, new HighScore());
+		GameController controller = game.getController();
+		AutoPilot autoPilot = new AutoPilot(game.getBoard());
+		ScoreTally tally = new ScoreTally();
+		GameEventPump pump = new GameEventPump(controller.getEvents(), tally);
+
+		while (!controller.isGameOver()) {
+			autoPilot.play(controller);
+			controller.update();
+			pump.drain();
+		}
+
+		assertTrue(tally.gameOver, "no game over event");
+		assertTrue(tally.events > 0, "no events");
+		assertEquals(0, tally.mismatches, "events whose score differs from the rebuilt one");
+		assertEquals(controller.getScore(), tally.score);
+		assertEquals(0, pump.getLost());
+	}
+
+	/**
+	 * Publishes more ticks than the ring holds before the consumer reads, and
+	 * checks that it gets the newest events and counts the rest as lost.
+	 */
+	@Test
+	void laggingReaderCountsLostEvents() {
+		GameEventRing ring = new GameEventRing(CAPACITY);
+		ValueLog log = new ValueLog();
+		GameEventPump pump = new GameEventPump(ring, log);
+
+		int published = 3 * CAPACITY - 3;
+		for (int tick = 0; tick < published; tick++) {
+			ring.add(GameEvent.PELLET_EATEN, tick, tick, 10 * (tick + 1));
+			ring.publish();
+		}
+
+		assertEquals(CAPACITY, pump.drain());
+		assertEquals(published - CAPACITY, pump.getLost());
+		for (int i = 0; i < CAPACITY; i++)
+			assertEquals(published - CAPACITY + i, log.values.get(i));
+
+		// Caught up again: nothing further is lost
+		ring.add(GameEvent.LIFE_LOST, published, published, 0);
+		ring.publish();
+		assertEquals(1, pump.drain());
+		assertEquals(published - CAPACITY, pump.getLost());
+	}
+
+	/**
+	 * Adds the events of a tick one by one, and checks that none is seen before
+	 * the tick is published and that they are then read in the order added.
+	 */
+	@Test
+	void eventsOfTickReadInOrderOncePublished() {
+		GameEventRing ring = new GameEventRing(CAPACITY);
+		GameEventRing.Reader reader = ring.reader();
+
+		ring.add(GameEvent.POWER_PELLET_EATEN, 5, 40, 10);
+		ring.add(GameEvent.GHOST_EATEN, 5, 1, 210);
+		ring.add(GameEvent.LEVEL_CLEARED, 5, 2, 210);
+		assertFalse(reader.poll(), "event seen before the tick was published");
+
+		ring.publish();
+		assertEquals(3, ring.getPublished());
+		GameEvent[] expected = { GameEvent.POWER_PELLET_EATEN, GameEvent.GHOST_EATEN, GameEvent.LEVEL_CLEARED };
+		int[] values = { 40, 1, 2 };
+		int[] scores = { 10, 210, 210 };
+		for (int i = 0; i < expected.length; i++) {
+			assertTrue(reader.poll(), "event " + i + " missing");
+			assertEquals(expected[i], reader.polledEvent());
+			assertEquals(5, reader.polledTick());
+			assertEquals(values[i], reader.polledValue());
+			assertEquals(scores[i], reader.polledScore());
+		}
+		assertFalse(reader.poll(), "more events than published");
+		assertEquals(0, reader.getLost());
+	}
+}
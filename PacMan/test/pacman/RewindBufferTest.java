@@ -0,0 +1,139 @@
+package pacman;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round-trips game states through {@link GameSnapshot} and
+ * {@link RewindBuffer}: a restored or rewound game must have the state hash it
+ * had at that tick, and play on exactly as before when fed the same input.
+ */
+class RewindBufferTest {
+	private static final char[] DIRECTIONS = { 'U', 'D', 'L', 'R' };
+	private static final int TICKS = 600; // Ticks of scripted input played
+	private static final int HOLD_TICKS = 20; // Ticks each scripted direction is held
+	private static final int CAPACITY = 120; // Ticks the rewind buffers keep
+
+	private final char[] input = script(TICKS);
+
+	/**
+	 * Saves a snapshot, plays on, restores it and plays the same ticks again.
+	 */
+	@Test
+	void restoredSnapshotReplaysToSameHash() {
+		HeadlessGame game = new HeadlessGame(7, new HighScore());
+		GameController controller = game.getController();
+		GameSnapshot snapshots = new GameSnapshot(controller);
+
+		play(controller, 0, 150);
+		byte[] saved = snapshots.save();
+		long savedHash = controller.getStateHash();
+		play(controller, 150, TICKS);
+		long endHash = controller.getStateHash();
+		assertNotEquals(savedHash, endHash, "the game did not change after the snapshot");
+
+		snapshots.restore(saved);
+		assertEquals(savedHash, controller.getStateHash());
+		play(controller, 150, TICKS);
+		assertEquals(endHash, controller.getStateHash());
+	}
+
+	/**
+	 * Rewinds part of the recorded ticks, checks the hash of the tick gone back
+	 * to, then replays the same input and checks that the game ends up where it
+	 * was.
+	 */
+	@Test
+	void rewindThenReplayReproducesHash() {
+		HeadlessGame game = new HeadlessGame(7, new HighScore());
+		GameController controller = game.getController();
+		RewindBuffer rewind = new RewindBuffer(new GameSnapshot(controller), CAPACITY);
+		long[] hashes = new long[TICKS + 1];
+
+		hashes[0] = controller.getStateHash();
+		rewind.record();
+		for (int tick = 0; tick < TICKS; tick++) {
+			play(controller, tick, tick + 1);
+			rewind.record();
+			hashes[tick + 1] = controller.getStateHash();
+		}
+
+		int back = CAPACITY / 2;
+		assertEquals(back, rewind.rewind(back));
+		assertEquals(hashes[TICKS - back], controller.getStateHash());
+
+		for (int tick = TICKS - back; tick < TICKS; tick++) {
+			play(controller, tick, tick + 1);
+			rewind.record();
+			assertEquals(hashes[tick + 1], controller.getStateHash(), "tick " + (tick + 1) + " replayed differently");
+		}
+	}
+
+	/**
+	 * Asks for more ticks than are stored, both before and after the buffer has
+	 * filled up, and checks that it goes back to the oldest state it holds.
+	 */
+	@Test
+	void rewindPastAvailableIsClamped() {
+		HeadlessGame game = new HeadlessGame(7, new HighScore());
+		GameController controller = game.getController();
+		RewindBuffer rewind = new RewindBuffer(new GameSnapshot(controller), CAPACITY);
+
+		long start = controller.getStateHash();
+		rewind.record();
+		for (int tick = 0; tick < 30; tick++) {
+			play(controller, tick, tick + 1);
+			rewind.record();
+		}
+		assertEquals(30, rewind.getAvailable());
+		assertEquals(30, rewind.rewind(CAPACITY));
+		assertEquals(start, controller.getStateHash());
+		assertEquals(0, rewind.getAvailable());
+		assertEquals(0, rewind.rewind(1));
+
+		// Back at the start, which the buffer still holds: play on past its capacity
+		long[] hashes = new long[TICKS + 1];
+		for (int tick = 0; tick < TICKS; tick++) {
+			play(controller, tick, tick + 1);
+			rewind.record();
+			hashes[tick + 1] = controller.getStateHash();
+		}
+		assertEquals(CAPACITY, rewind.getAvailable());
+		assertEquals(CAPACITY, rewind.rewind(CAPACITY + 50));
+		assertEquals(hashes[TICKS - CAPACITY], controller.getStateHash());
+		assertEquals(0, rewind.getAvailable());
+	}
+
+	/**
+	 * Plays the scripted input of the given ticks.
+	 *
+	 * @param from first tick to play
+	 * @param to   tick after the last one to play
+	 */
+	private void play(GameController controller, int from, int to) {
+		for (int tick = from; tick < to; tick++) {
+			controller.holdDirection(input[tick]);
+			controller.update();
+		}
+	}
+
+	/**
+	 * Builds a seeded script of directions, each held for {@link #HOLD_TICKS}.
+	 *
+	 * @param ticks length of the script
+	 * @return the direction held on each tick
+	 */
+	private static char[] script(int ticks) {
+		GameRandom random = new GameRandom(11);
+		char[] input = new char[ticks];
+		for (int tick = 0; tick < ticks; tick++) {
+			if (tick % HOLD_TICKS == 0)
+				input[tick] = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+			else
+				input[tick] = input[tick - 1];
+		}
+		return input;
+	}
+}
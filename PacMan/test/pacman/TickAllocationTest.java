@@ -0,0 +1,78 @@
+package pacman;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies that a steady-state game tick allocates nothing. The
+ * {@link AutoPilot} plays a headless game, which clears levels, eats ghosts,
+ * loses lives and restarts in place after game over within every round, and
+ * the bytes allocated by the current thread are measured around every batch of
+ * ticks after warm-up, so the build fails as soon as any of those paths starts
+ * allocating.
+ * <p>
+ * The JVM itself may allocate a few bytes once on the game thread when the
+ * compiler deoptimizes code or links a call site on a rarely taken path, so
+ * each round may allocate up to {@value #TOLERANCE} bytes. Every round must stay
+ * within it.
+ */
+class TickAllocationTest {
+	private static final int WARMUP_TICKS = 2_000_000; // Enough for the tick to be compiled
+	private static final int ROUND_TICKS = 250_000; // Long enough to clear levels, eat ghosts and lose lives
+	private static final int ROUNDS = 4; // Rounds measured after warm-up
+	private static final int BATCH = 16; // Ticks measured in one window
+	// Bytes a round may allocate: far less than the rarest path covered, run some
+	// forty times a round, allocating a single 16-byte object each time
+	private static final long TOLERANCE = 128;
+
+	/**
+	 * Warms up the tick, then checks that every round of measured ticks stays
+	 * within the tolerance.
+	 */
+	@Test
+	void steadyStateTickAllocatesNothing() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		HeadlessGame game = new HeadlessGame(42, new HighScore());
+		AutoPilot autoPilot = new AutoPilot(game.getBoard());
+
+		// Warm up the measuring loop too, so its own compilation is not counted
+		run(threads, game, autoPilot, WARMUP_TICKS);
+		for (int round = 0; round < ROUNDS; round++) {
+			long allocated = run(threads, game, autoPilot, ROUND_TICKS);
+			assertTrue(allocated <= TOLERANCE, "round " + round + " of " + ROUND_TICKS + " ticks allocated "
+					+ allocated + " bytes, at most " + TOLERANCE + " allowed");
+		}
+	}
+
+	/**
+	 * Plays the given number of ticks with the autopilot, restarting the game in
+	 * place when it is over.
+	 *
+	 * @param threads bean used to read allocated bytes
+	 * @return the number of bytes allocated inside the measured windows
+	 */
+	private static long run(com.sun.management.ThreadMXBean threads, HeadlessGame game, AutoPilot autoPilot,
+			long ticks) {
+		// Cost of reading the counter itself, subtracted from every window
+		long first = threads.getCurrentThreadAllocatedBytes();
+		long overhead = threads.getCurrentThreadAllocatedBytes() - first;
+
+		GameController controller = game.getController();
+		long allocated = 0;
+		for (long done = 0; done < ticks; done += BATCH) {
+			long before = threads.getCurrentThreadAllocatedBytes();
+			for (int i = 0; i < BATCH; i++) {
+				if (controller.isGameOver())
+					controller.reset();
+				autoPilot.play(controller);
+				controller.update();
+			}
+			allocated += threads.getCurrentThreadAllocatedBytes() - before - overhead;
+		}
+		return allocated;
+	}
+}
@@ -0,0 +1,60 @@
+package pacman;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks loading the game's assets: one at a time as the game used to, on
+ * the parallel loader, and the cost left for a restart once they are cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssetBenchmark {
+	private static final List<String> IMAGES = Assets.getSpriteNames();
+	private static final List<String> SOUNDS = Assets.getSoundNames();
+
+	@Param({ "4" })
+	public int threads;
+
+	@Benchmark
+	public Object sequentialLoad() throws Exception {
+		Object[] loaded = new Object[IMAGES.size() + SOUNDS.size()];
+		for (int i = 0; i < IMAGES.size(); i++) {
+			BufferedImage image = ImageIO.read(Game.class.getResource("/res/assets/" + IMAGES.get(i) + ".png"));
+			loaded[i] = image;
+		}
+		for (int i = 0; i < SOUNDS.size(); i++)
+			loaded[IMAGES.size() + i] = AudioMixer.decode("/res/sounds/" + SOUNDS.get(i) + ".wav");
+		return loaded;
+	}
+
+	@Benchmark
+	public Assets parallelLoad() {
+		return Assets.load(threads).join();
+	}
+
+	@Benchmark
+	public GameRenderer cachedRestart() {
+		GameBoard board = Game.createBoard();
+		GameController controller = new GameController(board, SoundManager.silent());
+		return new GameRenderer(board, controller, Assets.get().sprite("heart"));
+	}
+}
@@ -0,0 +1,71 @@
+package pacman;
+
+/**
+ * Measures the decision latency of the {@link AutoPilot}: plays headless games
+ * on the classic maze with the bot, times every turn it takes before a tick,
+ * and reports the percentiles, how often the cached path had to be planned
+ * again, and how the games went. The slowest decision has to fit well inside
+ * a tick of {@link GameClock#TICK_NANOS}, which is the same at every speed
+ * level. Exits with status 1 if it does not.
+ * <p>
+ * Usage: {@code java -cp benchmarks/target/benchmarks.jar pacman.AutoPilotLatency [ticks] [seed]}
+ */
+public class AutoPilotLatency {
+	private static final int WARMUP_TICKS = 200_000;
+
+	/**
+	 * The main method warms up the bot, then measures and reports its decisions.
+	 */
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		long ticks = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+
+		run(WARMUP_TICKS, seed, new LatencyHistogram(), false);
+		LatencyHistogram decisions = new LatencyHistogram();
+		run(ticks, seed, decisions, true);
+
+		System.out.printf("Decision latency over %,d ticks: p50 %.2f us, p99 %.2f us, p99.99 %.2f us, max %.2f us%n",
+				decisions.getCount(), decisions.getPercentile(0.50) / 1e3, decisions.getPercentile(0.99) / 1e3,
+				decisions.getPercentile(0.9999) / 1e3, decisions.getMax() / 1e3);
+		if (decisions.getPercentile(0.9999) > GameClock.TICK_NANOS / 100) {
+			System.out.println("FAIL: the bot takes over 1% of a tick to decide");
+			System.exit(1);
+		}
+		System.out.println("OK: the bot decides within 1% of a tick");
+	}
+
+	/**
+	 * Plays games with the bot for the given number of ticks, recording the
+	 * duration of every decision.
+	 */
+	private static void run(long ticks, long seed, LatencyHistogram decisions, boolean report) {
+		HeadlessGame game = new HeadlessGame(seed, new HighScore());
+		GameController controller = game.getController();
+		AutoPilot autoPilot = new AutoPilot(game.getBoard());
+		int games = 1;
+		long score = 0;
+		long levels = 0;
+
+		for (long done = 0; done < ticks; done++) {
+			if (controller.isGameOver()) {
+				score += controller.getScore();
+				levels += controller.getLevel();
+				game.reset(seed + games);
+				games++;
+			}
+			long start = System.nanoTime();
+			autoPilot.play(controller);
+			decisions.record(System.nanoTime() - start);
+			controller.update();
+		}
+
+		if (report) {
+			int finished = games - 1; // The last game is still running
+			System.out.printf("%d games finished with %.0f points and level %.1f on average%n", finished,
+					score / (double) Math.max(1, finished), levels / (double) Math.max(1, finished));
+			System.out.printf("Paths planned on %.2f%% of the ticks, reused on the rest%n",
+					100.0 * autoPilot.getPlans() / ticks);
+		}
+	}
+}
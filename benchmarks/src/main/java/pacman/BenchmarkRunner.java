@@ -0,0 +1,28 @@
+package pacman;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the usual JMH command line options
+ * and always attaches the GC profiler, so every run reports allocation rates
+ * next to the timings.
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * The main method runs the selected benchmarks with allocation reporting.
+	 */
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		System.setProperty("java.awt.headless", "true");
+		new Runner(new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.jvmArgsAppend("-Djava.awt.headless=true")
+				.build()).run();
+	}
+}
@@ -0,0 +1,100 @@
+package pacman;
+
+/**
+ * Checks the game event stream under load: plays headless games with the
+ * {@link AutoPilot} on the main thread, many times faster than real time, while
+ * consumer threads follow the events through {@link GameEventPump}s. Each
+ * consumer rebuilds the score from the events alone and compares it with the
+ * score each event carries, and counts the finished games. Exits with status 1
+ * if a consumer lost an event, saw a wrong score or missed a game.
+ * <p>
+ * Usage: {@code java -cp benchmarks/target/benchmarks.jar pacman.EventStreamCheck [ticks] [consumers]}
+ */
+public class EventStreamCheck {
+	private static final int BATCH_TICKS = 60; // Ticks run before letting the consumers catch up
+
+	/**
+	 * Rebuilds the score of the games from their events.
+	 */
+	private static final class ScoreTally implements GameEventListener {
+		private int score; // Score of the current game according to the events
+		private long events;
+		private long games; // Game over events seen
+		private long mismatches; // Events whose score differs from the rebuilt one
+
+		/**
+		 * Adds the points of an event and compares the result with its score.
+		 */
+		@Override
+		public void onEvent(GameEvent event, long tick, int value, int eventScore) {
+			events++;
+			switch (event) {
+			case PELLET_EATEN, POWER_PELLET_EATEN -> score += 10;
+			case GHOST_EATEN -> score += 200;
+			default -> {
+			}
+			}
+			if (score != eventScore)
+				mismatches++;
+			if (event == GameEvent.GAME_OVER) {
+				games++;
+				score = 0; // The next event belongs to a new game
+			}
+		}
+	}
+
+	/**
+	 * The main method plays the games and reports what every consumer saw.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		System.setProperty("java.awt.headless", "true");
+		long ticks = args.length > 0 ? Long.parseLong(args[0]) : 2_000_000L;
+		int consumers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+		HeadlessGame game = new HeadlessGame(1, new HighScore());
+		GameController controller = game.getController();
+		AutoPilot autoPilot = new AutoPilot(game.getBoard());
+
+		ScoreTally[] tallies = new ScoreTally[consumers];
+		GameEventPump[] pumps = new GameEventPump[consumers];
+		for (int i = 0; i < consumers; i++) {
+			tallies[i] = new ScoreTally();
+			pumps[i] = new GameEventPump(controller.getEvents(), tallies[i]);
+			pumps[i].start("event-consumer-" + i);
+		}
+
+		long games = 0;
+		long start = System.nanoTime();
+		for (long done = 0; done < ticks; done++) {
+			if (controller.isGameOver()) {
+				games++;
+				game.reset(1 + games);
+			}
+			autoPilot.play(controller);
+			controller.update();
+			if (done % BATCH_TICKS == 0)
+				Thread.yield(); // Lets the consumers run on a single core
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		long published = controller.getEvents().getPublished();
+		Thread.sleep(100); // Time to drain what is left
+		for (GameEventPump pump : pumps)
+			pump.close();
+
+		System.out.printf("Published %,d events over %,d ticks and %d games in %.2f s%n", published, ticks, games,
+				seconds);
+		boolean ok = true;
+		for (int i = 0; i < consumers; i++) {
+			ScoreTally tally = tallies[i];
+			System.out.printf("Consumer %d: %,d events, %d games, %d lost, %d wrong scores%n", i, tally.events,
+					tally.games, pumps[i].getLost(), tally.mismatches);
+			ok &= pumps[i].getLost() == 0 && tally.mismatches == 0 && tally.games == games
+					&& tally.events == published;
+		}
+		if (!ok) {
+			System.out.println("FAIL: a consumer did not see every event as published");
+			System.exit(1);
+		}
+		System.out.println("OK: every consumer saw every event as published");
+	}
+}
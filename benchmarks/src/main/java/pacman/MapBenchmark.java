@@ -0,0 +1,79 @@
+package pacman;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks loading a map file and simulating one tick against the size of the
+ * map: the classic maze and square generated arenas with the same number of
+ * ghosts, so only the map grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class MapBenchmark {
+	private static final int GHOSTS = 4; // Ghosts in every arena, as in the classic maze
+	private static final int STEER_INTERVAL = 8; // Ticks between random key presses
+
+	/** Tiles per side of the arena, or "classic" for the built-in maze. */
+	@Param({ "classic", "250", "1000", "2000" })
+	public String size;
+
+	private Path file; // Map file loaded by the load benchmark
+	private HeadlessGame game; // Game advanced by the tick benchmark
+	private long games; // Games started so far, used as the seed of the next
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		file = Files.createTempFile("arena", ".txt");
+		if (size.equals("classic")) {
+			Files.copy(MapLoader.class.getResourceAsStream(MapLoader.CLASSIC), file,
+					StandardCopyOption.REPLACE_EXISTING);
+		} else {
+			int tiles = Integer.parseInt(size);
+			ArenaGenerator.write(file, tiles, tiles, GHOSTS, 1);
+		}
+		game = new HeadlessGame(MapLoader.load(file), 0, new HighScore());
+		game.setPlayer(new RandomPlayer(0, STEER_INTERVAL));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public GameMap load() throws IOException {
+		return MapLoader.load(file);
+	}
+
+	@Benchmark
+	public int tick() {
+		if (game.getController().isGameOver()) {
+			games++;
+			game.reset(games);
+			game.setPlayer(new RandomPlayer(games, STEER_INTERVAL));
+		}
+		return game.advance(1);
+	}
+}
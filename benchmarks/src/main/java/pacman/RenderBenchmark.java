@@ -0,0 +1,56 @@
+package pacman;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a full repaint of the game panel into an offscreen image, using
+ * the real sprites but no timers or audio.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+	private Game game;
+	private BufferedImage frame;
+	private Graphics2D graphics;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		GameBoard board = Game.createBoard();
+		SoundManager soundManager = SoundManager.silent();
+		game = new Game(board, new GameController(board, soundManager), soundManager);
+		game.setSize(board.getBoardWidth(), board.getBoardHeight());
+
+		frame = new BufferedImage(board.getBoardWidth(), board.getBoardHeight(), BufferedImage.TYPE_INT_RGB);
+		graphics = frame.createGraphics();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage paintComponent() {
+		game.paintComponent(graphics);
+		return frame;
+	}
+}
@@ -0,0 +1,131 @@
+package pacman;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of the {@link GameServer} on localhost. Starts a server, connects
+ * one client per room, each steered by a random player and polled from a
+ * single thread, and runs them for a while. Reports the server's time per room
+ * tick, the rooms one core could run at that rate, and the bytes sent per
+ * room tick. Finally checks that every client's mirrored game ended in exactly
+ * the server's state, exiting with status 1 if any differs.
+ * <p>
+ * Usage: {@code java -cp benchmarks/target/benchmarks.jar pacman.ServerLoadTest [rooms] [seconds]}
+ */
+public class ServerLoadTest {
+	private static final int STEER_INTERVAL = 8; // Ticks between random key presses
+	private static final long POLL_NANOS = 1_000_000L; // Pause between polling rounds
+
+	/**
+	 * The main method runs the load test and prints the results.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		System.setProperty("java.awt.headless", "true");
+		int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		GameServer server = new GameServer(MapLoader.classic(), new InetSocketAddress("localhost", 0));
+		Thread serverThread = new Thread(server, "game-server");
+		serverThread.start();
+		InetSocketAddress address = new InetSocketAddress("localhost", server.getPort());
+
+		HeadlessGame[] mirrors = new HeadlessGame[rooms];
+		GameClient[] clients = new GameClient[rooms];
+		RandomPlayer[] players = new RandomPlayer[rooms];
+		for (int room = 0; room < rooms; room++) {
+			mirrors[room] = new HeadlessGame();
+			clients[room] = new GameClient(address, room, mirrors[room].getBoard(), mirrors[room].getController());
+			players[room] = new RandomPlayer(room, STEER_INTERVAL);
+		}
+
+		long startTicks = server.getRoomTicks();
+		long startNanos = server.getTickNanos();
+		long startBytes = server.getBytesSent();
+		long start = System.nanoTime();
+		long end = start + seconds * 1_000_000_000L;
+		while (System.nanoTime() - end < 0) {
+			for (int room = 0; room < rooms; room++) {
+				GameController controller = mirrors[room].getController();
+				for (int states = clients[room].poll(); states > 0; states--)
+					players[room].play(controller);
+				clients[room].sendDirection(controller.getHeldDirection());
+			}
+			LockSupport.parkNanos(POLL_NANOS);
+		}
+		long elapsed = System.nanoTime() - start;
+		long ticks = server.getRoomTicks() - startTicks;
+		long tickNanos = server.getTickNanos() - startNanos;
+		long bytes = server.getBytesSent() - startBytes;
+
+		// Stop steering and let the server read the last input, so closing does not
+		// reset connections with unread data
+		for (long settle = System.nanoTime() + 100 * POLL_NANOS; System.nanoTime() - settle < 0;) {
+			for (int room = 0; room < rooms; room++)
+				clients[room].poll();
+			LockSupport.parkNanos(POLL_NANOS);
+		}
+		server.stop();
+		serverThread.join();
+		int mismatches = 0;
+		for (int room = 0; room < rooms; room++) {
+			drain(clients[room]);
+			if (!sameState(mirrors[room].getController(), server.getRoomController(room)))
+				mismatches++;
+		}
+
+		System.out.printf("%d rooms for %d s: %,d room ticks (%.1f per room and second)%n", rooms, seconds, ticks,
+				ticks / (elapsed / 1e9) / rooms);
+		System.out.printf("Server: %.2f us per room tick, %.1f%% of a core, %,.0f rooms per core%n",
+				tickNanos / 1e3 / ticks, 100.0 * tickNanos / elapsed, rooms * (double) elapsed / tickNanos);
+		System.out.printf("Sent %.1f bytes per room tick, including %d-byte frame headers%n", bytes / (double) ticks,
+				NetProtocol.HEADER_BYTES);
+		if (mismatches > 0) {
+			System.out.println("FAIL: " + mismatches + " clients differ from the server");
+			System.exit(1);
+		}
+		System.out.println("OK: every client matches the server");
+	}
+
+	/**
+	 * Applies everything the server sent before it closed the connection.
+	 */
+	private static void drain(GameClient client) throws IOException {
+		try {
+			while (true) {
+				client.poll();
+				LockSupport.parkNanos(POLL_NANOS);
+			}
+		} catch (EOFException e) {
+			client.close();
+		}
+	}
+
+	/**
+	 * Compares everything a client mirrors with the server's game.
+	 */
+	private static boolean sameState(GameController client, GameController server) {
+		if (server == null || client.getScore() != server.getScore() || client.getLives() != server.getLives()
+				|| client.getLevel() != server.getLevel() || client.isGameOver() != server.isGameOver())
+			return false;
+
+		EntityStore a = client.getBoard().getEntities();
+		EntityStore b = server.getBoard().getEntities();
+		for (int i = 0; i < a.getCount(); i++) {
+			if (a.getX(i) != b.getX(i) || a.getY(i) != b.getY(i) || a.getDirection(i) != b.getDirection(i)
+					|| a.hasFlag(i, EntityStore.FRIGHTENED) != b.hasFlag(i, EntityStore.FRIGHTENED)
+					|| a.hasFlag(i, EntityStore.RESPAWNING) != b.hasFlag(i, EntityStore.RESPAWNING))
+				return false;
+		}
+
+		PelletGrid p = client.getBoard().getPellets();
+		PelletGrid q = server.getBoard().getPellets();
+		for (int word = 0; word < p.getWordCount(); word++) {
+			if (p.getLiveWord(word) != q.getLiveWord(word))
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,107 @@
+package pacman;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks saving and restoring a snapshot of the classic game, recording a
+ * tick into the rewind buffer, and rewinding one second of play.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+	private static final int STEER_INTERVAL = 8; // Ticks between random key presses
+	private static final int WARM_TICKS = 100; // Ticks played before the saved state
+	private static final int REWIND_TICKS = GameClock.TICKS_PER_SECOND; // One second of game time
+
+	private HeadlessGame game; // Game advanced by the benchmarks
+	private GameController controller;
+	private GameSnapshot snapshots;
+	private RewindBuffer rewind;
+	private byte[] saved; // State a few seconds into a game
+	private byte[] buffer; // Target of save()
+	private long games; // Games started so far, used as the seed of the next
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		game = new HeadlessGame(0, new HighScore());
+		game.setPlayer(new RandomPlayer(0, STEER_INTERVAL));
+		controller = game.getController();
+		snapshots = new GameSnapshot(controller);
+		rewind = new RewindBuffer(snapshots, 10 * REWIND_TICKS);
+		game.advance(WARM_TICKS);
+		saved = snapshots.save();
+		buffer = new byte[snapshots.size()];
+	}
+
+	@Setup(Level.Invocation)
+	public void restartIfOver() {
+		if (controller.isGameOver()) {
+			games++;
+			game.reset(games);
+			game.setPlayer(new RandomPlayer(games, STEER_INTERVAL));
+			rewind.clear();
+		}
+	}
+
+	@Benchmark
+	public byte[] save() {
+		snapshots.save(buffer);
+		return buffer;
+	}
+
+	@Benchmark
+	public void restore() {
+		snapshots.restore(saved);
+	}
+
+	@Benchmark
+	public int tick() {
+		return game.advance(1);
+	}
+
+	@Benchmark
+	public int tickAndRecord() {
+		int ticks = game.advance(1);
+		rewind.record();
+		return ticks;
+	}
+
+	/**
+	 * State for rewinding, refilled with a second of play before every
+	 * invocation.
+	 */
+	@State(Scope.Thread)
+	public static class Recorded {
+		@Setup(Level.Invocation)
+		public void play(SnapshotBenchmark benchmark) {
+			benchmark.snapshots.restore(benchmark.saved);
+			benchmark.rewind.clear();
+			benchmark.rewind.record();
+			for (int i = 0; i < REWIND_TICKS; i++) {
+				benchmark.controller.update();
+				benchmark.rewind.record();
+			}
+		}
+	}
+
+	@Benchmark
+	public int rewindSecond(Recorded recorded) {
+		return rewind.rewind(REWIND_TICKS);
+	}
+}
@@ -0,0 +1,74 @@
+package pacman;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a tick and its ghost phases against the number of ghosts, on a
+ * generated arena large enough that the ghosts spread out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwarmBenchmark {
+	private static final int ARENA_SIZE = 201; // Tiles per side of the arena
+	private static final int STEER_INTERVAL = 8; // Ticks between random key presses
+
+	@Param({ "16", "64", "512", "1024" })
+	public int ghosts;
+
+	private HeadlessGame game; // Game advanced by the benchmarks
+	private GameController controller;
+	private long games; // Games started so far, used as the seed of the next
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		StringWriter text = new StringWriter();
+		ArenaGenerator.write(text, ARENA_SIZE, ARENA_SIZE, ghosts, 1);
+		game = new HeadlessGame(MapLoader.load(new StringReader(text.toString()), "arena"), 0, new HighScore());
+		game.setPlayer(new RandomPlayer(0, STEER_INTERVAL));
+		controller = game.getController();
+	}
+
+	@Setup(Level.Invocation)
+	public void restartIfOver() {
+		if (controller.isGameOver()) {
+			games++;
+			game.reset(games);
+			game.setPlayer(new RandomPlayer(games, STEER_INTERVAL));
+		}
+	}
+
+	@Benchmark
+	public int tick() {
+		return game.advance(1);
+	}
+
+	@Benchmark
+	public void handleGhostMovement() {
+		controller.handleGhostMovement();
+	}
+
+	@Benchmark
+	public void checkCollisions() {
+		controller.checkCollisions();
+	}
+}
@@ -0,0 +1,96 @@
+package pacman;
+
+import java.awt.event.KeyEvent;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks one game tick as a whole and each of its phases on its own, plus a
+ * single wall-checked move. A fresh game is started for every iteration and
+ * whenever the running one ends, so no phase is measured on a finished game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+	private HeadlessGame game;
+	private GameController controller;
+	private GameBoard board;
+	private Ghost ghost;
+
+	/**
+	 * Starts a new headless game with Pac Man heading left.
+	 */
+	@Setup(Level.Iteration)
+	public void newGame() {
+		game = new HeadlessGame();
+		controller = game.getController();
+		board = game.getBoard();
+		ghost = board.getGhosts().get(0);
+		ghost.updateVelocity();
+		controller.onKeyPress(KeyEvent.VK_LEFT);
+	}
+
+	/**
+	 * Restarts the game if the previous invocation ended it.
+	 */
+	private void ensureRunning() {
+		if (controller.isGameOver())
+			newGame();
+	}
+
+	@Benchmark
+	public GameController update() {
+		ensureRunning();
+		controller.update();
+		return controller;
+	}
+
+	@Benchmark
+	public GameController handlePlayerMovement() {
+		ensureRunning();
+		controller.handlePlayerMovement();
+		return controller;
+	}
+
+	@Benchmark
+	public GameController handlePelletConsumption() {
+		ensureRunning();
+		controller.handlePelletConsumption();
+		return controller;
+	}
+
+	@Benchmark
+	public GameController handleGhostMovement() {
+		ensureRunning();
+		controller.handleGhostMovement();
+		return controller;
+	}
+
+	@Benchmark
+	public GameController checkCollisions() {
+		ensureRunning();
+		controller.checkCollisions();
+		return controller;
+	}
+
+	@Benchmark
+	public Ghost move() {
+		ghost.move(board.getWallGrid(), board.getBoardWidth(), board.getBoardHeight());
+		return ghost;
+	}
+}
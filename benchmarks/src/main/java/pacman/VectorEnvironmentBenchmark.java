@@ -0,0 +1,61 @@
+package pacman;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks one step of a {@link VectorEnvironment} on the classic maze with
+ * random actions, against the number of games in the batch. Environment steps
+ * per second are the game count divided by the time of a step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VectorEnvironmentBenchmark {
+	private static final int TICKS_PER_STEP = 4; // Ticks an action is held, 15 actions per second
+
+	@Param({ "1", "64", "1024" })
+	public int games;
+
+	private VectorEnvironment environment;
+	private ByteBuffer observations;
+	private int[] actions;
+	private float[] rewards;
+	private boolean[] dones;
+	private SplittableRandom random; // Picks the actions
+
+	@Setup
+	public void setUp() {
+		environment = new VectorEnvironment(MapLoader.classic(), games, TICKS_PER_STEP);
+		observations = environment.allocateObservations();
+		actions = new int[games];
+		rewards = new float[games];
+		dones = new boolean[games];
+		random = new SplittableRandom(1);
+		environment.reset(1, observations);
+	}
+
+	@Benchmark
+	public ByteBuffer step() {
+		for (int i = 0; i < games; i++)
+			actions[i] = random.nextInt(VectorEnvironment.RIGHT + 1);
+		environment.step(actions, observations, rewards, dones);
+		return observations;
+	}
+}